@@ -0,0 +1,108 @@
+package Catalog;
+
+import Constants.Constants;
+import Execution.PolitenessScheduler;
+
+import java.util.Properties;
+
+/**
+ * One retailer of the catalog with the metadata needed to validate it
+ */
+public class CatalogEntry {
+    public static final int DEFAULT_PRIORITY = 5;
+
+    private final String id;
+    private final String country;
+    private final String locale;
+    private final int priority;
+    private final String host;
+    private final String retailerUrl;
+    private final String rolexUrl;
+    private final String addressLocator;
+    private final String phoneLocator;
+    private final String hoursLocator;
+
+    /**
+     * Constructor for CatalogEntry
+     * @param id stable retailer identifier
+     * @param country ISO 3166 country code, may be empty
+     * @param locale BCP 47 locale of the contact pages, may be empty
+     * @param priority catalog priority, 1 is most urgent
+     * @param host politeness host key of the retailer URL
+     * @param retailerUrl retailer contact page URL
+     * @param rolexUrl Rolex contact page URL
+     * @param addressLocator CSS selector overriding the default address locators, null if none
+     * @param phoneLocator CSS selector overriding the default phone locators, null if none
+     * @param hoursLocator CSS selector overriding the default opening hours locators, null if none
+     */
+    public CatalogEntry(String id, String country, String locale, int priority, String host,
+                        String retailerUrl, String rolexUrl,
+                        String addressLocator, String phoneLocator, String hoursLocator) {
+        this.id = id;
+        this.country = country;
+        this.locale = locale;
+        this.priority = priority;
+        this.host = host;
+        this.retailerUrl = retailerUrl;
+        this.rolexUrl = rolexUrl;
+        this.addressLocator = addressLocator;
+        this.phoneLocator = phoneLocator;
+        this.hoursLocator = hoursLocator;
+    }
+
+    /**
+     * Creates an entry from a legacy retailer property file, identified by its retailer URL
+     * @param urlProperties properties holding the Rolex and retailer URLs
+     * @return entry without country, locale or locator metadata
+     */
+    public static CatalogEntry fromProperties(Properties urlProperties) {
+        String retailerUrl = urlProperties.getProperty(Constants.URLs.RETAILER_URL);
+        return new CatalogEntry(retailerUrl, "", "", DEFAULT_PRIORITY, PolitenessScheduler.hostOf(retailerUrl),
+                retailerUrl, urlProperties.getProperty(Constants.URLs.ROLEX_URL), null, null, null);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getLocale() {
+        return locale;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public String getRetailerUrl() {
+        return retailerUrl;
+    }
+
+    public String getRolexUrl() {
+        return rolexUrl;
+    }
+
+    public String getAddressLocator() {
+        return addressLocator;
+    }
+
+    public String getPhoneLocator() {
+        return phoneLocator;
+    }
+
+    public String getHoursLocator() {
+        return hoursLocator;
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
@@ -0,0 +1,222 @@
+package Catalog;
+
+import Execution.PolitenessScheduler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams retailer entries from a CSV catalog one line at a time.
+ *
+ * <p>The first line is a header naming the columns; {@code retailer_url} and {@code rolex_url}
+ * are required, {@code id}, {@code country}, {@code locale}, {@code priority},
+ * {@code address_locator}, {@code phone_locator} and {@code hours_locator} are optional.
+ * Fields may be double-quoted, blank lines and lines starting with {@code #} are skipped.
+ * Host, country and locale strings are pooled so thousands of entries on a few hosts share
+ * one instance of each.</p>
+ */
+public class CatalogReader implements Iterator<CatalogEntry>, Closeable {
+    private static final Logger log = LogManager.getLogger(CatalogReader.class);
+
+    private final Path file;
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final Map<String, String> pool = new HashMap<>();
+    private CatalogEntry next;
+    private int lineNumber;
+
+    /**
+     * Opens a catalog file and reads its header
+     * @param file CSV catalog
+     * @throws IOException if the file cannot be read or has no valid header
+     */
+    public CatalogReader(Path file) throws IOException {
+        this.file = file;
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        String header = readLine();
+        if (header == null) {
+            reader.close();
+            throw new IOException(file + ": empty catalog");
+        }
+        List<String> names = parseLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("retailer_url") || !columns.containsKey("rolex_url")) {
+            reader.close();
+            throw new IOException(file + ": catalog header must name retailer_url and rolex_url");
+        }
+    }
+
+    /**
+     * Streams the entries of a catalog file; the file is closed when the stream is closed
+     * @param file CSV catalog
+     * @return lazily read stream of entries
+     * @throws IOException if the file cannot be opened
+     */
+    public static Stream<CatalogEntry> stream(Path file) throws IOException {
+        CatalogReader catalogReader = new CatalogReader(file);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(catalogReader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        catalogReader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readEntry();
+        }
+        return next != null;
+    }
+
+    @Override
+    public CatalogEntry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        CatalogEntry entry = next;
+        next = null;
+        return entry;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the next valid entry, skipping blank lines and comments
+     */
+    private CatalogEntry readEntry() {
+        try {
+            String line;
+            while ((line = readLine()) != null) {
+                List<String> fields = parseLine(line);
+                String retailerUrl = field(fields, "retailer_url");
+                String rolexUrl = field(fields, "rolex_url");
+                if (retailerUrl == null || rolexUrl == null) {
+                    log.error("{}:{}: skipping entry without retailer_url or rolex_url", file, lineNumber);
+                    continue;
+                }
+                String id = field(fields, "id");
+                return new CatalogEntry(
+                        id != null ? id : retailerUrl,
+                        pooled(orEmpty(field(fields, "country")).toUpperCase(Locale.ROOT)),
+                        pooled(orEmpty(field(fields, "locale"))),
+                        priority(field(fields, "priority")),
+                        pooled(PolitenessScheduler.hostOf(retailerUrl)),
+                        retailerUrl,
+                        rolexUrl,
+                        field(fields, "address_locator"),
+                        field(fields, "phone_locator"),
+                        field(fields, "hours_locator"));
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the next line that is neither blank nor a comment
+     */
+    private String readLine() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Splits a CSV line, honouring double quotes and doubled quotes inside them
+     */
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Gets a trimmed field by column name, null if the column is absent or the field empty
+     */
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private int priority(String value) {
+        if (value == null) {
+            return CatalogEntry.DEFAULT_PRIORITY;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            log.warn("{}:{}: invalid priority '{}', using default", file, lineNumber, value);
+            return CatalogEntry.DEFAULT_PRIORITY;
+        }
+    }
+
+    private String pooled(String value) {
+        String existing = pool.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
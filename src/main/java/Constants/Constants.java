@@ -28,6 +28,215 @@ public class Constants {
         public static final String ROLEX_OPENING_HOURS = "Rolex-Opening-Hours";
     }
 
+    /**
+     * Parallel Execution Settings
+     */
+    public static class Parallel {
+        public static final String THREADS_PROPERTY = "catalog.threads";
+        public static final String CATALOG_DATA_PROVIDER = "retailerCatalog";
+    }
+
+    /**
+     * Adaptive Concurrency Settings
+     */
+    public static class Concurrency {
+        public static final String ADAPTIVE_PROPERTY = "concurrency.adaptive";
+        public static final String MIN_PROPERTY = "concurrency.min";
+        public static final String MAX_PROPERTY = "concurrency.max";
+        public static final String MAX_LOAD_PROPERTY = "concurrency.maxLoadPerCpu";
+        public static final String MIN_AVAILABLE_MB_PROPERTY = "concurrency.minAvailableMb";
+        public static final String INTERVAL_PROPERTY = "concurrency.intervalMillis";
+        public static final int DEFAULT_MIN = 1;
+        public static final int DEFAULT_MAX = 4;
+        public static final double DEFAULT_MAX_LOAD_PER_CPU = 1.0;
+        public static final long DEFAULT_MIN_AVAILABLE_MB = 1024;
+        public static final long DEFAULT_INTERVAL_MILLIS = 2000;
+    }
+
+    /**
+     * Fixture Server Settings
+     */
+    public static class Fixtures {
+        public static final String RETAILERS_PROPERTY = "fixture.retailers";
+        public static final String THREADS_PROPERTY = "fixture.threads";
+        public static final String LATENCY_PROPERTY = "fixture.latency.millis";
+        public static final String PADDING_PROPERTY = "fixture.padding.bytes";
+        public static final String BANNER_PROPERTY = "fixture.banner";
+        public static final String JS_PROPERTY = "fixture.js";
+        public static final String VIRTUAL_HOSTS_PROPERTY = "fixture.virtualHosts";
+        public static final String LOCATORS_PROPERTY = "fixture.locators";
+        public static final String LOCATIONS_PROPERTY = "fixture.locations";
+        public static final String STRUCTURED_DATA_PROPERTY = "fixture.structuredData";
+        public static final String DIR = "target/fixtures";
+        public static final int DEFAULT_RETAILERS = 20;
+        public static final int DEFAULT_THREADS = 16;
+    }
+
+    /**
+     * Contact Page Discovery Settings
+     */
+    public static class Discovery {
+        public static final String MAX_PAGES_PROPERTY = "discovery.maxPages";
+        public static final String MAX_DEPTH_PROPERTY = "discovery.maxDepth";
+        public static final String HOST_CONCURRENCY_PROPERTY = "discovery.hostConcurrency";
+        public static final String TIMEOUT_PROPERTY = "discovery.timeout.millis";
+        public static final String THREADS_PROPERTY = "discovery.threads";
+        public static final int DEFAULT_MAX_PAGES = 40;
+        public static final int DEFAULT_MAX_DEPTH = 3;
+        public static final int DEFAULT_HOST_CONCURRENCY = 4;
+        public static final int DEFAULT_TIMEOUT_MILLIS = 10000;
+        public static final int DEFAULT_THREADS = 64;
+        public static final String USER_AGENT = "RetailerComplianceCrawler/1.0";
+    }
+
+    /**
+     * Benchmark Settings
+     */
+    public static class Benchmark {
+        public static final String POOL_SIZES_PROPERTY = "benchmark.poolSizes";
+        public static final String HEADLESS_PROPERTY = "benchmark.headless";
+        public static final String SCREENSHOTS_PROPERTY = "benchmark.screenshots";
+        public static final String EXTRACTION_PROPERTY = "benchmark.extraction";
+        public static final String TABS_PROPERTY = "benchmark.tabs";
+        public static final String RETAILERS_PROPERTY = "benchmark.retailers";
+        public static final String BROWSER_PROPERTY = "benchmark.browser";
+        public static final String OUTPUT_DIR = "target/benchmark";
+        public static final String RESULTS_FILE = "results.json";
+    }
+
+    /**
+     * Browser Settings
+     */
+    public static class Browser {
+        public static final String HEADLESS_PROPERTY = "browser.headless";
+        public static final String SCREENSHOT_POLICY_PROPERTY = "screenshot.policy";
+        public static final String PREFETCH_PROPERTY = "browser.prefetch";
+        public static final String PROFILE_TEMPLATE_PROPERTY = "browser.profile.template";
+        public static final String PROFILE_WARMUP_PAGES_PROPERTY = "browser.profile.warmupPages";
+        public static final String TABS_PROPERTY = "browser.tabs";
+        public static final String PROFILE_DIR = "target/profiles";
+        public static final int DEFAULT_PROFILE_WARMUP_PAGES = 10;
+        public static final int IMPLICIT_WAIT_SECONDS = 10;
+        public static final int PAGE_LOAD_TIMEOUT_SECONDS = 30;
+    }
+
+    /**
+     * Same-Origin Affinity Settings
+     */
+    public static class Affinity {
+        public static final String SAME_ORIGIN_PROPERTY = "affinity.sameOrigin";
+    }
+
+    /**
+     * DOM Snapshot Settings
+     */
+    public static class Snapshots {
+        public static final String MODE_PROPERTY = "snapshot.mode";
+        public static final String DIR_PROPERTY = "snapshot.dir";
+        public static final String DEFAULT_DIR = "target/snapshots";
+    }
+
+    /**
+     * Contact Detail Extraction Settings
+     */
+    public static class Extraction {
+        public static final String STRUCTURED_DATA_PROPERTY = "extraction.structuredData";
+    }
+
+    /**
+     * Duplicate Contact Record Detection Settings
+     */
+    public static class Duplicates {
+        public static final String ENABLED_PROPERTY = "duplicates.enabled";
+        public static final String THRESHOLD_PROPERTY = "duplicates.threshold";
+        public static final double DEFAULT_THRESHOLD = 0.8;
+        public static final String REPORT_FILE = "target/duplicates/clusters.txt";
+    }
+
+    /**
+     * Country Specific Compliance Rule Settings
+     */
+    public static class ComplianceRules {
+        public static final String RESOURCE_DIR = "compliance-rules/";
+        public static final String DEFAULT_RULES = "default";
+        public static final String[] COUNTRIES = {"SE", "DE", "US", "AU"};
+    }
+
+    /**
+     * Logging Settings
+     */
+    public static class Logging {
+        public static final String RETAILER_KEY = "retailer";
+    }
+
+    /**
+     * Retailer Catalog Settings
+     */
+    public static class Catalog {
+        public static final String FILE_PROPERTY = "catalog.file";
+        public static final String DEFAULT_FILE = "src/test/java/TestData/retailers.csv";
+    }
+
+    /**
+     * Sharding Settings
+     */
+    public static class Sharding {
+        public static final String INDEX_PROPERTY = "shard.index";
+        public static final String COUNT_PROPERTY = "shard.count";
+        public static final String OUTPUT_DIR = "target/shards";
+    }
+
+    /**
+     * Compliance History Settings
+     */
+    public static class History {
+        public static final String DIR_PROPERTY = "history.dir";
+        public static final String DEFAULT_DIR = "target/history";
+    }
+
+    /**
+     * Rolex Reference Cache Settings
+     */
+    public static class RolexCache {
+        public static final String TTL_PROPERTY = "rolex.cache.ttl.minutes";
+        public static final String DIR_PROPERTY = "rolex.cache.dir";
+        public static final String INVALIDATE_PROPERTY = "rolex.cache.invalidate";
+        public static final String DEFAULT_DIR = "target/cache/rolex";
+        public static final long DEFAULT_TTL_MINUTES = 720;
+    }
+
+    /**
+     * Per-host Politeness Settings
+     */
+    public static class Politeness {
+        public static final String MAX_PER_HOST_PROPERTY = "politeness.maxPerHost";
+        public static final String REQUESTS_PER_MINUTE_PROPERTY = "politeness.requestsPerMinute";
+        public static final String BURST_PROPERTY = "politeness.burst";
+        public static final String STALE_HOURS_PROPERTY = "politeness.staleHours";
+        public static final int DEFAULT_MAX_PER_HOST = 2;
+        public static final int DEFAULT_REQUESTS_PER_MINUTE = 20;
+        public static final int DEFAULT_BURST = 2;
+        public static final long DEFAULT_STALE_HOURS = 24;
+    }
+
+    /**
+     * Retry and Circuit Breaker Settings
+     */
+    public static class Resilience {
+        public static final String MAX_ATTEMPTS_PROPERTY = "retry.maxAttempts";
+        public static final String BASE_DELAY_PROPERTY = "retry.baseDelayMillis";
+        public static final String MAX_DELAY_PROPERTY = "retry.maxDelayMillis";
+        public static final String FAILURE_THRESHOLD_PROPERTY = "circuit.failureThreshold";
+        public static final String OPEN_MILLIS_PROPERTY = "circuit.openMillis";
+        public static final String BUDGET_PROPERTY = "retailer.budget.seconds";
+        public static final int DEFAULT_MAX_ATTEMPTS = 3;
+        public static final long DEFAULT_BASE_DELAY_MILLIS = 2000;
+        public static final long DEFAULT_MAX_DELAY_MILLIS = 30000;
+        public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+        public static final long DEFAULT_OPEN_MILLIS = 300000;
+        public static final long DEFAULT_BUDGET_SECONDS = 120;
+    }
+
     /**
      * Log Messages
      */
@@ -41,6 +250,8 @@ public class Constants {
      */
     public static class ErrorMessages {
         public static final String CONTACT_DETAILS_ERROR = "Failed to load contact details";
+        public static final String COOKIE_BANNER_ERROR = "Cookie banner could not be closed";
+        public static final String CIRCUIT_OPEN = "Skipped, circuit open for host";
         public static final String ADDRESS_MISMATCH = "Address mismatch between Retailer and Rolex websites";
         public static final String PHONE_MISMATCH = "Phone number mismatch between Retailer and Rolex websites";
         public static final String HOURS_MISMATCH = "Opening hours mismatch between Retailer and Rolex websites";
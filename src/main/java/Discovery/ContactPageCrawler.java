@@ -0,0 +1,521 @@
+package Discovery;
+
+import Constants.Constants;
+import Execution.PolitenessScheduler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded crawler that finds the contact page and the Rolex contact page of retailer sites,
+ * starting from their homepages.
+ *
+ * <p>Each site is crawled best-first: sitemaps (the root {@code /sitemap.xml} and any
+ * {@code <link rel="sitemap">}) are read first, then pages whose URL or link text points at a
+ * Rolex, store or about section. Every same-host link is scored without being fetched: a
+ * contact word in the URL path counts more than one in the link text, and a path containing
+ * {@code rolex} makes it a Rolex contact candidate. The crawl of a site stops when both pages
+ * were found by their URL, or after {@code maxPages} fetches or {@code maxDepth} links.</p>
+ *
+ * <p>Sites are crawled concurrently, one task per site, on virtual threads when the runtime
+ * provides them and on a fixed pool otherwise. Fetches to one host are limited by a semaphore
+ * per host, so sites sharing a host are not flooded. Hosts are compared as keyed by
+ * {@link PolitenessScheduler#hostOf(String)}, so {@code www.} and apex links belong to the same
+ * site and share its permits, and links are resolved against the URL a page was finally served
+ * from after redirects.</p>
+ */
+public class ContactPageCrawler implements AutoCloseable {
+    private static final Logger log = LogManager.getLogger(ContactPageCrawler.class);
+    private static final Pattern LINK = Pattern.compile(
+            "<a\\b[^>]*?\\bhref\\s*=\\s*[\"']([^\"']*)[\"'][^>]*>(.*?)</a>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern SITEMAP_LINK = Pattern.compile(
+            "<link\\b[^>]*\\brel\\s*=\\s*[\"']sitemap[\"'][^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HREF = Pattern.compile("\\bhref\\s*=\\s*[\"']([^\"']+)[\"']", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LOC = Pattern.compile("<loc>\\s*([^<\\s]+)\\s*</loc>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final String[] CONTACT_WORDS = {"contact", "kontakt", "contacto", "contatti", "nous-contacter"};
+    private static final String[] SECTION_WORDS = {"store", "boutique", "butik", "location", "about", "om-oss",
+            "ueber-uns", "uber-uns", "find-us", "visit"};
+    private static final String[] SKIPPED_EXTENSIONS = {".jpg", ".jpeg", ".png", ".gif", ".svg", ".webp", ".ico",
+            ".pdf", ".css", ".js", ".zip", ".mp4"};
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final int maxPages;
+    private final int maxDepth;
+    private final int hostConcurrency;
+    private final int timeoutMillis;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final AtomicLong fetches = new AtomicLong();
+
+    /**
+     * Constructor for ContactPageCrawler
+     * @param maxPages maximum number of fetches per site
+     * @param maxDepth maximum number of links followed from the homepage
+     * @param hostConcurrency maximum number of concurrent fetches per host
+     * @param timeoutMillis connect and read timeout of each fetch
+     * @param fallbackThreads pool size used when virtual threads are not available
+     */
+    public ContactPageCrawler(int maxPages, int maxDepth, int hostConcurrency, int timeoutMillis, int fallbackThreads) {
+        this.maxPages = maxPages;
+        this.maxDepth = maxDepth;
+        this.hostConcurrency = hostConcurrency;
+        this.timeoutMillis = timeoutMillis;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(fallbackThreads);
+        log.info("Contact page crawler running on {}", virtualThreads ? "virtual threads" : fallbackThreads + " platform threads");
+    }
+
+    /**
+     * Creates a crawler configured with {@code -Ddiscovery.*} system properties
+     * @return crawler with configured limits
+     */
+    public static ContactPageCrawler fromSystemProperties() {
+        return new ContactPageCrawler(
+                Integer.getInteger(Constants.Discovery.MAX_PAGES_PROPERTY, Constants.Discovery.DEFAULT_MAX_PAGES),
+                Integer.getInteger(Constants.Discovery.MAX_DEPTH_PROPERTY, Constants.Discovery.DEFAULT_MAX_DEPTH),
+                Integer.getInteger(Constants.Discovery.HOST_CONCURRENCY_PROPERTY, Constants.Discovery.DEFAULT_HOST_CONCURRENCY),
+                Integer.getInteger(Constants.Discovery.TIMEOUT_PROPERTY, Constants.Discovery.DEFAULT_TIMEOUT_MILLIS),
+                Integer.getInteger(Constants.Discovery.THREADS_PROPERTY, Constants.Discovery.DEFAULT_THREADS));
+    }
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively, since the project targets Java 8
+     * @return virtual thread executor, null on runtimes without virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Retailer site to crawl
+     */
+    public static class Seed {
+        private final String id;
+        private final String country;
+        private final String locale;
+        private final String homepage;
+
+        public Seed(String id, String country, String locale, String homepage) {
+            this.id = id;
+            this.country = country;
+            this.locale = locale;
+            this.homepage = homepage;
+        }
+
+        public String getHomepage() {
+            return homepage;
+        }
+    }
+
+    /**
+     * Crawls all sites concurrently
+     * @param seeds sites to crawl
+     * @return one result per seed, in seed order; sites whose crawl failed have no contact pages
+     * @throws InterruptedException if interrupted while waiting for the crawls
+     */
+    public List<DiscoveredSite> crawlAll(List<Seed> seeds) throws InterruptedException {
+        List<Future<DiscoveredSite>> futures = new ArrayList<>(seeds.size());
+        for (Seed seed : seeds) {
+            futures.add(executor.submit(() -> crawl(seed)));
+        }
+        List<DiscoveredSite> sites = new ArrayList<>(seeds.size());
+        for (int i = 0; i < seeds.size(); i++) {
+            Seed seed = seeds.get(i);
+            try {
+                sites.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                log.error("Crawl of {} failed: {}", seed.homepage, e.getCause().getMessage());
+                sites.add(new DiscoveredSite(seed.id, seed.country, seed.locale, seed.homepage, null, null, 0));
+            }
+        }
+        return sites;
+    }
+
+    /**
+     * Link found on a site, queued for crawling and scored as a contact page
+     */
+    private static class Candidate {
+        private final String url;
+        private final boolean sitemap;
+        private final int depth;
+        private final int sectionScore;
+        private final long order;
+
+        Candidate(String url, boolean sitemap, int depth, int sectionScore, long order) {
+            this.url = url;
+            this.sitemap = sitemap;
+            this.depth = depth;
+            this.sectionScore = sectionScore;
+            this.order = order;
+        }
+    }
+
+    /**
+     * Document fetched from a site, with the URL it was served from after redirects
+     */
+    private static class Document {
+        private final String url;
+        private final String body;
+
+        Document(String url, String body) {
+            this.url = url;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Best contact page found so far; a match in the URL path beats one in the link text,
+     * then fewer links from the homepage and shorter URLs win
+     */
+    private static class Best {
+        private String url;
+        private int score;
+        private int depth;
+
+        void offer(String candidate, int candidateScore, int candidateDepth) {
+            if (candidateScore == 0) {
+                return;
+            }
+            if (url == null || candidateScore > score
+                    || candidateScore == score && (candidateDepth < depth
+                    || candidateDepth == depth && candidate.length() < url.length())) {
+                url = candidate;
+                score = candidateScore;
+                depth = candidateDepth;
+            }
+        }
+
+        boolean isFoundByPath() {
+            return score >= 2;
+        }
+    }
+
+    /**
+     * Crawls one site best-first until both contact pages are found by URL or a limit is reached
+     * @param seed site to crawl
+     * @return contact pages found
+     */
+    public DiscoveredSite crawl(Seed seed) {
+        URI homepage = URI.create(seed.homepage);
+        String host = PolitenessScheduler.hostOf(seed.homepage);
+        Set<String> seen = new HashSet<>();
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(Comparator
+                .comparing((Candidate candidate) -> !candidate.sitemap)
+                .thenComparing(candidate -> -candidate.sectionScore)
+                .thenComparingInt(candidate -> candidate.depth)
+                .thenComparingLong(candidate -> candidate.order));
+        Best contact = new Best();
+        Best rolexContact = new Best();
+        long[] order = {0};
+
+        enqueue(frontier, seen, homepage.resolve("/sitemap.xml").toString(), true, 0, 0, order);
+        enqueue(frontier, seen, seed.homepage, false, 0, 0, order);
+        int pages = 0;
+        while (!frontier.isEmpty() && pages < maxPages
+                && !(contact.isFoundByPath() && rolexContact.isFoundByPath())) {
+            Candidate page = frontier.poll();
+            pages++;
+            Document document = fetch(page.url, host);
+            if (document == null) {
+                continue;
+            }
+            String body = document.body;
+            if (page.sitemap) {
+                Matcher loc = LOC.matcher(body);
+                while (loc.find()) {
+                    String url = resolve(document.url, loc.group(1).trim(), host);
+                    if (url != null) {
+                        boolean nestedSitemap = url.toLowerCase(Locale.ROOT).endsWith(".xml");
+                        if (!nestedSitemap) {
+                            score(url, "", page.depth + 1, contact, rolexContact);
+                        }
+                        enqueue(frontier, seen, url, nestedSitemap, page.depth + 1, sectionScore(url, ""), order);
+                    }
+                }
+                continue;
+            }
+            Matcher sitemapLink = SITEMAP_LINK.matcher(body);
+            while (sitemapLink.find()) {
+                Matcher href = HREF.matcher(sitemapLink.group());
+                String url = href.find() ? resolve(document.url, href.group(1), host) : null;
+                if (url != null) {
+                    enqueue(frontier, seen, url, true, page.depth, 0, order);
+                }
+            }
+            if (page.depth >= maxDepth) {
+                continue;
+            }
+            Matcher link = LINK.matcher(body);
+            while (link.find()) {
+                String url = resolve(document.url, link.group(1), host);
+                if (url != null) {
+                    String text = TAG.matcher(link.group(2)).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+                    score(url, text, page.depth + 1, contact, rolexContact);
+                    enqueue(frontier, seen, url, false, page.depth + 1, sectionScore(url, text), order);
+                }
+            }
+        }
+        DiscoveredSite site = new DiscoveredSite(seed.id, seed.country, seed.locale, seed.homepage,
+                contact.url, rolexContact.url, pages);
+        if (site.isComplete()) {
+            log.info("Discovered contact pages of {}", site);
+        } else {
+            log.warn("Contact pages of {} not found after {} fetches: {}", seed.homepage, pages, site);
+        }
+        return site;
+    }
+
+    private void enqueue(PriorityQueue<Candidate> frontier, Set<String> seen, String url, boolean sitemap,
+                         int depth, int sectionScore, long[] order) {
+        if (seen.add(url)) {
+            frontier.add(new Candidate(url, sitemap, depth, sectionScore, order[0]++));
+        }
+    }
+
+    /**
+     * Scores a link as retailer contact page or Rolex contact page
+     */
+    private static void score(String url, String text, int depth, Best contact, Best rolexContact) {
+        String path = pathOf(url);
+        int score = containsAny(path, CONTACT_WORDS) ? 2 : containsAny(text, CONTACT_WORDS) ? 1 : 0;
+        if (path.contains("rolex")) {
+            rolexContact.offer(url, score, depth);
+        } else {
+            contact.offer(url, score, depth);
+        }
+    }
+
+    /**
+     * Scores how likely a page leads to a contact page, so that Rolex and store sections are crawled first
+     */
+    private static int sectionScore(String url, String text) {
+        String path = pathOf(url);
+        if (path.contains("rolex") || text.contains("rolex")) {
+            return 2;
+        }
+        return containsAny(path, SECTION_WORDS) || containsAny(text, SECTION_WORDS) ? 1 : 0;
+    }
+
+    /**
+     * Resolves a link against its page, keeping only http(s) pages on the site's host without fragment
+     * @param host host key of the site, as given by {@link PolitenessScheduler#hostOf(String)}
+     */
+    private static String resolve(String page, String link, String host) {
+        if (link.isEmpty() || link.startsWith("mailto:") || link.startsWith("tel:") || link.startsWith("javascript:")) {
+            return null;
+        }
+        try {
+            URI uri = new URI(page).resolve(link.replace("&amp;", "&").replace(" ", "%20"));
+            if (uri.getHost() == null || !host.equals(PolitenessScheduler.hostOf(uri.toString()))
+                    || !("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))) {
+                return null;
+            }
+            String path = uri.getPath() == null ? "" : uri.getPath().toLowerCase(Locale.ROOT);
+            for (String extension : SKIPPED_EXTENSIONS) {
+                if (path.endsWith(extension)) {
+                    return null;
+                }
+            }
+            return new URI(uri.getScheme(), uri.getAuthority(), uri.getPath(), uri.getQuery(), null).toString();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String pathOf(String url) {
+        String path = URI.create(url).getPath();
+        return path == null ? "" : path.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean containsAny(String text, String[] words) {
+        for (String word : words) {
+            if (text.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fetches an HTML or XML document once a permit of its host is free
+     * @param host host key of the site
+     * @return document with the URL it was served from, null if it could not be fetched or is not HTML or XML
+     */
+    private Document fetch(String url, String host) {
+        Semaphore permits = hostPermits.computeIfAbsent(host, h -> new Semaphore(hostConcurrency));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        HttpURLConnection connection = null;
+        try {
+            fetches.incrementAndGet();
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setRequestProperty("User-Agent", Constants.Discovery.USER_AGENT);
+            connection.setRequestProperty("Accept", "text/html,application/xml;q=0.9");
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                log.debug("Fetch of {} returned {}", url, connection.getResponseCode());
+                return null;
+            }
+            String contentType = connection.getContentType();
+            if (contentType != null && !contentType.contains("html") && !contentType.contains("xml")) {
+                return null;
+            }
+            try (InputStream inputStream = connection.getInputStream()) {
+                return new Document(connection.getURL().toString(), read(inputStream));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Fetch of {} failed: {}", url, e.getMessage());
+            return null;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            permits.release();
+        }
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while (body.size() < MAX_BODY_BYTES && (read = inputStream.read(buffer)) > 0) {
+            body.write(buffer, 0, read);
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return true if sites are crawled on virtual threads
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * @return number of fetches started since the crawler was created
+     */
+    public long getFetchCount() {
+        return fetches.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads crawl seeds from a CSV file with the columns {@code id,country,locale,homepage};
+     * blank lines and lines starting with {@code #} are skipped
+     * @param file seed file
+     * @return seeds in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Seed> readSeeds(Path file) throws IOException {
+        List<Seed> seeds = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length < 4) {
+                    log.warn("Skipping seed line without homepage: {}", line);
+                    continue;
+                }
+                seeds.add(new Seed(fields[0].trim(), fields[1].trim(), fields[2].trim(), fields[3].trim()));
+            }
+        }
+        return seeds;
+    }
+
+    /**
+     * Writes discovered sites as a retailer catalog; incomplete sites are written as comments for manual review
+     * @param sites discovered sites
+     * @param file catalog file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeCatalog(List<DiscoveredSite> sites, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# Retailer catalog discovered by Discovery.ContactPageCrawler\n");
+            writer.write("id,country,locale,priority,retailer_url,rolex_url,address_locator,phone_locator,hours_locator\n");
+            for (DiscoveredSite site : sites) {
+                writer.write(site.isComplete() ? site.toCatalogLine() + "\n"
+                        : "# not found: " + site + " homepage=" + site.getHomepage() + "\n");
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 2) {
+            System.err.println("Usage: ContactPageCrawler <seeds.csv> <catalog.csv>");
+            System.exit(2);
+        }
+        List<DiscoveredSite> sites;
+        try (ContactPageCrawler crawler = fromSystemProperties()) {
+            sites = crawler.crawlAll(readSeeds(Paths.get(args[0])));
+        }
+        writeCatalog(sites, Paths.get(args[1]));
+        long complete = sites.stream().filter(DiscoveredSite::isComplete).count();
+        log.info("Discovered contact pages of {} of {} sites into {}", complete, sites.size(), args[1]);
+        System.exit(complete == sites.size() ? 0 : 1);
+    }
+}
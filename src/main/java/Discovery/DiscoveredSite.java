@@ -0,0 +1,78 @@
+package Discovery;
+
+import Catalog.CatalogEntry;
+
+/**
+ * Contact pages found by {@link ContactPageCrawler} on one retailer site
+ */
+public class DiscoveredSite {
+    private final String id;
+    private final String country;
+    private final String locale;
+    private final String homepage;
+    private final String contactUrl;
+    private final String rolexContactUrl;
+    private final int pagesFetched;
+
+    /**
+     * Constructor for DiscoveredSite
+     * @param id retailer id
+     * @param country ISO country code, may be empty
+     * @param locale BCP 47 locale tag, may be empty
+     * @param homepage homepage the crawl started from
+     * @param contactUrl retailer contact page, null if not found
+     * @param rolexContactUrl Rolex contact page of the retailer, null if not found
+     * @param pagesFetched number of pages and sitemaps fetched
+     */
+    public DiscoveredSite(String id, String country, String locale, String homepage,
+                          String contactUrl, String rolexContactUrl, int pagesFetched) {
+        this.id = id;
+        this.country = country;
+        this.locale = locale;
+        this.homepage = homepage;
+        this.contactUrl = contactUrl;
+        this.rolexContactUrl = rolexContactUrl;
+        this.pagesFetched = pagesFetched;
+    }
+
+    /**
+     * @return true if both contact pages were found
+     */
+    public boolean isComplete() {
+        return contactUrl != null && rolexContactUrl != null;
+    }
+
+    /**
+     * Formats the site as a line of the retailer catalog read by {@link Catalog.CatalogReader}
+     * @return catalog line without line break
+     */
+    public String toCatalogLine() {
+        return String.join(",", id, country, locale, String.valueOf(CatalogEntry.DEFAULT_PRIORITY),
+                contactUrl, rolexContactUrl) + ",,,";
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getHomepage() {
+        return homepage;
+    }
+
+    public String getContactUrl() {
+        return contactUrl;
+    }
+
+    public String getRolexContactUrl() {
+        return rolexContactUrl;
+    }
+
+    public int getPagesFetched() {
+        return pagesFetched;
+    }
+
+    @Override
+    public String toString() {
+        return id + " contact=" + contactUrl + " rolex=" + rolexContactUrl + " pages=" + pagesFetched;
+    }
+}
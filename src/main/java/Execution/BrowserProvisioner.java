@@ -0,0 +1,199 @@
+package Execution;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Starts browser sessions ahead of demand so that tests get an already started session.
+ *
+ * <p>Up to {@code prefetchDepth} sessions are kept starting or started in the background. Each
+ * {@link #acquire()} takes the oldest one and immediately queues the start of a replacement, so
+ * browser start-up overlaps with the validations that are running. Sessions are handed out once
+ * and never reused; the caller quits them. The time callers wait for a session is recorded and
+ * reported by {@link #getStats()}.</p>
+ */
+public class BrowserProvisioner implements AutoCloseable {
+    private static final Logger log = LogManager.getLogger(BrowserProvisioner.class);
+    private static final long CLOSE_TIMEOUT_SECONDS = 60;
+
+    private final Supplier<WebDriver> factory;
+    private final Consumer<WebDriver> disposer;
+    private final int prefetchDepth;
+    private final BlockingQueue<Future<WebDriver>> prefetched;
+    private final ExecutorService starter;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder readyOnAcquire = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Creates a provisioner and starts prefetching sessions, quitting unused ones with {@link WebDriver#quit()}
+     * @param factory starts one browser session; called on background threads
+     * @param prefetchDepth number of sessions kept starting or started ahead of demand, at least one
+     */
+    public BrowserProvisioner(Supplier<WebDriver> factory, int prefetchDepth) {
+        this(factory, WebDriver::quit, prefetchDepth);
+    }
+
+    /**
+     * Creates a provisioner and starts prefetching sessions
+     * @param factory starts one browser session; called on background threads
+     * @param disposer ends a session that was prefetched but never handed out
+     * @param prefetchDepth number of sessions kept starting or started ahead of demand, at least one
+     */
+    public BrowserProvisioner(Supplier<WebDriver> factory, Consumer<WebDriver> disposer, int prefetchDepth) {
+        this.factory = factory;
+        this.disposer = disposer;
+        this.prefetchDepth = Math.max(1, prefetchDepth);
+        this.prefetched = new ArrayBlockingQueue<>(this.prefetchDepth);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.starter = Executors.newFixedThreadPool(this.prefetchDepth, runnable -> {
+            Thread thread = new Thread(runnable, "browser-provisioner-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        refill();
+        log.info("Prefetching {} browser session(s)", this.prefetchDepth);
+    }
+
+    /**
+     * Takes the next prefetched session, waiting for it to finish starting if needed
+     * @return started session, owned by the caller
+     * @throws RuntimeException if the session failed to start
+     */
+    public WebDriver acquire() {
+        if (closed) {
+            throw new IllegalStateException("Browser provisioner is closed");
+        }
+        long start = System.nanoTime();
+        Future<WebDriver> next = prefetched.poll();
+        if (next == null) {
+            next = starter.submit(factory::get);
+        }
+        refill();
+        if (next.isDone()) {
+            readyOnAcquire.increment();
+        }
+        try {
+            return next.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause
+                    : new RuntimeException("Failed to start browser session", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a browser session", e);
+        } finally {
+            long waited = System.nanoTime() - start;
+            acquisitions.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            log.debug("Waited {}ms for a browser session", TimeUnit.NANOSECONDS.toMillis(waited));
+        }
+    }
+
+    /**
+     * Queues session starts until the prefetch depth is reached
+     */
+    private synchronized void refill() {
+        while (!closed && prefetched.remainingCapacity() > 0) {
+            prefetched.add(starter.submit(factory::get));
+        }
+    }
+
+    /**
+     * Snapshot of the time tests waited for sessions
+     */
+    public static class Stats {
+        private final long acquisitions;
+        private final long readyOnAcquire;
+        private final long totalWaitMillis;
+        private final long maxWaitMillis;
+
+        Stats(long acquisitions, long readyOnAcquire, long totalWaitMillis, long maxWaitMillis) {
+            this.acquisitions = acquisitions;
+            this.readyOnAcquire = readyOnAcquire;
+            this.totalWaitMillis = totalWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        public long getAcquisitions() {
+            return acquisitions;
+        }
+
+        /**
+         * @return number of acquisitions that found their session already started
+         */
+        public long getReadyOnAcquire() {
+            return readyOnAcquire;
+        }
+
+        public long getTotalWaitMillis() {
+            return totalWaitMillis;
+        }
+
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        public long getMeanWaitMillis() {
+            return acquisitions == 0 ? 0 : totalWaitMillis / acquisitions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("acquisitions=%d ready=%d meanWait=%dms maxWait=%dms totalWait=%dms",
+                    acquisitions, readyOnAcquire, getMeanWaitMillis(), maxWaitMillis, totalWaitMillis);
+        }
+    }
+
+    /**
+     * @return wait time statistics of all acquisitions so far
+     */
+    public Stats getStats() {
+        return new Stats(acquisitions.sum(), readyOnAcquire.sum(),
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum()), TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    }
+
+    public int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    /**
+     * Stops prefetching and quits the sessions that were started but never handed out
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        List<Future<WebDriver>> unused = new ArrayList<>();
+        prefetched.drainTo(unused);
+        for (Future<WebDriver> future : unused) {
+            try {
+                disposer.accept(future.get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                log.debug("Discarding prefetched session: {}", e.getMessage());
+            }
+        }
+        starter.shutdownNow();
+        log.info("Browser provisioner closed: {}", getStats());
+    }
+}
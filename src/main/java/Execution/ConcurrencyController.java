@@ -0,0 +1,213 @@
+package Execution;
+
+import Constants.Constants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Adapts the number of concurrently active browser sessions to the machine's memory and CPU pressure.
+ *
+ * <p>Sessions hold a permit of a {@link ResizableSemaphore} while they run. The limit starts at the
+ * lower bound and is adjusted at a fixed interval, additive increase and multiplicative decrease:
+ * when every permit is in use, the load per CPU is below its ceiling and the available memory
+ * would stay above its floor after starting one more session of the current mean size, the limit
+ * grows by one; when the load exceeds the ceiling or the memory falls below the floor, the limit is
+ * halved. No further decrease happens until the running sessions have drained to the lowered
+ * limit, since sessions are never interrupted. Every decision is logged with the sample it was
+ * based on.</p>
+ */
+public class ConcurrencyController implements AutoCloseable {
+    private static final Logger log = LogManager.getLogger(ConcurrencyController.class);
+
+    /**
+     * Outcome of one adjustment
+     */
+    public enum Decision {
+        INCREASE, DECREASE, HOLD, DRAINING
+    }
+
+    private final int minSessions;
+    private final int maxSessions;
+    private final double maxLoadPerCpu;
+    private final long minAvailableBytes;
+    private final Supplier<SystemPressure> probe;
+    private final ResizableSemaphore sessions;
+    private ScheduledExecutorService scheduler;
+    private long increases;
+    private long decreases;
+    private int peakLimit;
+
+    /**
+     * Constructor for ConcurrencyController
+     * @param minSessions lower bound of the limit, at least one
+     * @param maxSessions upper bound of the limit
+     * @param maxLoadPerCpu load average per CPU above which the limit is lowered
+     * @param minAvailableBytes available memory below which the limit is lowered
+     * @param probe samples the current pressure
+     */
+    public ConcurrencyController(int minSessions, int maxSessions, double maxLoadPerCpu, long minAvailableBytes,
+                                 Supplier<SystemPressure> probe) {
+        if (minSessions < 1 || maxSessions < minSessions) {
+            throw new IllegalArgumentException("Concurrency bounds must satisfy 1 <= min <= max");
+        }
+        this.minSessions = minSessions;
+        this.maxSessions = maxSessions;
+        this.maxLoadPerCpu = maxLoadPerCpu;
+        this.minAvailableBytes = minAvailableBytes;
+        this.probe = probe;
+        this.sessions = new ResizableSemaphore(minSessions);
+        this.peakLimit = minSessions;
+    }
+
+    /**
+     * Creates a controller configured from the concurrency.* system properties and starts adjusting it.
+     * The upper bound defaults to {@code -Dcatalog.threads}, which must be at least as large.
+     * @return started controller
+     */
+    public static ConcurrencyController fromSystemProperties() {
+        int max = Integer.getInteger(Constants.Concurrency.MAX_PROPERTY,
+                Integer.getInteger(Constants.Parallel.THREADS_PROPERTY, Constants.Concurrency.DEFAULT_MAX));
+        ConcurrencyController controller = new ConcurrencyController(
+                Math.min(max, Integer.getInteger(Constants.Concurrency.MIN_PROPERTY, Constants.Concurrency.DEFAULT_MIN)),
+                max,
+                Double.parseDouble(System.getProperty(Constants.Concurrency.MAX_LOAD_PROPERTY,
+                        String.valueOf(Constants.Concurrency.DEFAULT_MAX_LOAD_PER_CPU))),
+                Long.getLong(Constants.Concurrency.MIN_AVAILABLE_MB_PROPERTY,
+                        Constants.Concurrency.DEFAULT_MIN_AVAILABLE_MB) * 1024 * 1024,
+                SystemPressure::sample);
+        controller.start(Long.getLong(Constants.Concurrency.INTERVAL_PROPERTY, Constants.Concurrency.DEFAULT_INTERVAL_MILLIS));
+        return controller;
+    }
+
+    /**
+     * Starts adjusting the limit in a daemon thread
+     * @param intervalMillis time between adjustments
+     */
+    public synchronized void start(long intervalMillis) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "concurrency-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                adjust();
+            } catch (RuntimeException e) {
+                log.warn("Concurrency adjustment failed: {}", e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Adaptive concurrency between {} and {} sessions, load/cpu <= {}, available memory >= {}MB",
+                minSessions, maxSessions, maxLoadPerCpu, minAvailableBytes / (1024 * 1024));
+    }
+
+    /**
+     * Waits for a session slot
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        sessions.acquire();
+    }
+
+    /**
+     * Returns a session slot taken with {@link #acquire()}
+     */
+    public void release() {
+        sessions.release();
+    }
+
+    /**
+     * Checks whether sessions should be given up rather than kept for later work
+     * @return true if a caller is waiting for a slot or more slots are held than the limit allows
+     */
+    public boolean isContended() {
+        return sessions.hasQueuedThreads() || sessions.getInUse() > sessions.getLimit();
+    }
+
+    /**
+     * Samples the pressure and adjusts the limit once
+     * @return decision taken
+     */
+    public synchronized Decision adjust() {
+        SystemPressure pressure = probe.get();
+        int limit = sessions.getLimit();
+        int inUse = sessions.getInUse();
+        long sessionRss = inUse > 0 && pressure.getSessionRssBytes() > 0 ? pressure.getSessionRssBytes() / inUse : 0;
+        boolean overloaded = pressure.getLoadPerCpu() > maxLoadPerCpu
+                || (pressure.getAvailableMemoryBytes() >= 0 && pressure.getAvailableMemoryBytes() < minAvailableBytes);
+
+        Decision decision;
+        int newLimit = limit;
+        if (overloaded) {
+            if (inUse > limit) {
+                decision = Decision.DRAINING;
+            } else {
+                newLimit = Math.max(minSessions, limit / 2);
+                decision = newLimit < limit ? Decision.DECREASE : Decision.HOLD;
+            }
+        } else if (inUse >= limit && limit < maxSessions
+                && (pressure.getAvailableMemoryBytes() < 0
+                || pressure.getAvailableMemoryBytes() - sessionRss >= minAvailableBytes)) {
+            newLimit = limit + 1;
+            decision = Decision.INCREASE;
+        } else {
+            decision = Decision.HOLD;
+        }
+
+        if (newLimit != limit) {
+            sessions.setLimit(newLimit);
+            if (decision == Decision.INCREASE) {
+                increases++;
+            } else {
+                decreases++;
+            }
+            peakLimit = Math.max(peakLimit, newLimit);
+            log.info("Concurrency {} limit={}->{} inUse={} perSessionRssMb={} {}", decision, limit, newLimit, inUse,
+                    sessionRss / (1024 * 1024), pressure);
+        } else {
+            log.debug("Concurrency {} limit={} inUse={} perSessionRssMb={} {}", decision, limit, inUse,
+                    sessionRss / (1024 * 1024), pressure);
+        }
+        return decision;
+    }
+
+    public int getLimit() {
+        return sessions.getLimit();
+    }
+
+    public int getInUse() {
+        return sessions.getInUse();
+    }
+
+    public synchronized long getIncreases() {
+        return increases;
+    }
+
+    public synchronized long getDecreases() {
+        return decreases;
+    }
+
+    public synchronized int getPeakLimit() {
+        return peakLimit;
+    }
+
+    /**
+     * Stops adjusting and logs the decisions taken
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        log.info("Adaptive concurrency: limit={} peak={} increases={} decreases={}",
+                sessions.getLimit(), peakLimit, increases, decreases);
+    }
+}
@@ -0,0 +1,219 @@
+package Execution;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget of one retailer, shared by every wait made while validating it.
+ *
+ * <p>The deadline of the current thread is set with {@link #start(String, Duration)} and read by
+ * page objects and utilities through the static helpers, so that page loads, cookie handling,
+ * element waits and screenshots each wait at most for the remaining budget instead of their own
+ * fixed timeouts. Time is attributed to named phases; phases may nest, and the time of an inner
+ * phase is not counted in the outer one, so the breakdown adds up to the elapsed time. Without a
+ * deadline on the thread the helpers leave timeouts unchanged.</p>
+ */
+public class Deadline {
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+    private static final String UNATTRIBUTED = "other";
+
+    private final String name;
+    private final long budgetNanos;
+    private final long startNanos;
+    private final Map<String, Long> spentNanos = new LinkedHashMap<>();
+    private final Deque<String> phases = new ArrayDeque<>();
+    private long phaseStartNanos;
+
+    /**
+     * Time attributed to a phase until ended, typically in a {@code finally} block
+     */
+    public static class Phase {
+        private static final Phase NONE = new Phase(null);
+        private final Deadline deadline;
+
+        private Phase(Deadline deadline) {
+            this.deadline = deadline;
+        }
+
+        /**
+         * Stops attributing time to this phase
+         */
+        public void end() {
+            if (deadline != null) {
+                deadline.leave();
+            }
+        }
+    }
+
+    /**
+     * Constructor for Deadline, starting the budget now
+     * @param name what the budget is for, used in messages
+     * @param budget total time allowed
+     */
+    public Deadline(String name, Duration budget) {
+        this.name = name;
+        this.budgetNanos = budget.toNanos();
+        this.startNanos = System.nanoTime();
+        this.phaseStartNanos = startNanos;
+    }
+
+    /**
+     * Starts a deadline for the current thread, replacing any previous one
+     * @param name what the budget is for, used in messages
+     * @param budget total time allowed
+     * @return started deadline
+     */
+    public static Deadline start(String name, Duration budget) {
+        Deadline deadline = new Deadline(name, budget);
+        current.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * @return deadline of the current thread, or null if none is running
+     */
+    public static Deadline current() {
+        return current.get();
+    }
+
+    /**
+     * Removes the deadline of the current thread. Timeouts capped while it ran are left as they are;
+     * callers that capped them restore their defaults.
+     */
+    public static void clear() {
+        current.remove();
+    }
+
+    /**
+     * Limits a timeout to the remaining budget of the current thread's deadline
+     * @param timeout timeout that applies without a deadline
+     * @return the smaller of the timeout and the remaining budget
+     */
+    public static Duration capped(Duration timeout) {
+        Deadline deadline = current.get();
+        if (deadline == null) {
+            return timeout;
+        }
+        Duration remaining = deadline.remaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    /**
+     * Attributes time to a phase of the current thread's deadline until the returned phase is ended
+     * @param phase phase name
+     * @return phase to end, doing nothing without a deadline
+     */
+    public static Phase phase(String phase) {
+        Deadline deadline = current.get();
+        return deadline == null ? Phase.NONE : deadline.enter(phase);
+    }
+
+    /**
+     * Fails fast if the current thread's deadline has passed
+     * @param step step about to start, used in the message
+     * @throws DeadlineExceededException if the budget is used up
+     */
+    public static void checkCurrent(String step) {
+        Deadline deadline = current.get();
+        if (deadline != null) {
+            deadline.check(step);
+        }
+    }
+
+    /**
+     * Attributes time to a phase of this deadline until the returned phase is ended
+     * @param phase phase name
+     * @return phase to end
+     */
+    public Phase enter(String phase) {
+        account();
+        phases.push(phase);
+        return new Phase(this);
+    }
+
+    private void leave() {
+        account();
+        phases.pop();
+    }
+
+    /**
+     * Adds the time since the last phase change to the innermost open phase
+     */
+    private void account() {
+        long now = System.nanoTime();
+        spentNanos.merge(phases.isEmpty() ? UNATTRIBUTED : phases.peek(), now - phaseStartNanos, Long::sum);
+        phaseStartNanos = now;
+    }
+
+    /**
+     * @return budget left, zero once the deadline has passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, budgetNanos - (System.nanoTime() - startNanos)));
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() - startNanos >= budgetNanos;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public long getBudgetMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(budgetNanos);
+    }
+
+    /**
+     * Fails fast if this deadline has passed
+     * @param step step about to start, used in the message
+     * @throws DeadlineExceededException if the budget is used up
+     */
+    public void check(String step) {
+        if (isExpired()) {
+            throw exceeded(step, null);
+        }
+    }
+
+    /**
+     * Creates the failure reporting an overrun, with the breakdown of where the time went
+     * @param step step that could not complete within the budget
+     * @param cause failure of the step, may be null
+     * @return exception to throw
+     */
+    public DeadlineExceededException exceeded(String step, Throwable cause) {
+        return new DeadlineExceededException(String.format("Budget of %dms for %s exceeded at %s after %dms (%s)",
+                getBudgetMillis(), name, step, getElapsedMillis(), breakdown()), cause);
+    }
+
+    /**
+     * Gets the time spent per phase so far, in order of first use
+     * @return e.g. "navigation=31012ms cookies=10004ms waits=20110ms other=35ms"
+     */
+    public String breakdown() {
+        account();
+        StringBuilder breakdown = new StringBuilder();
+        for (Map.Entry<String, Long> spent : spentNanos.entrySet()) {
+            if (breakdown.length() > 0) {
+                breakdown.append(' ');
+            }
+            breakdown.append(spent.getKey()).append('=')
+                    .append(TimeUnit.NANOSECONDS.toMillis(spent.getValue())).append("ms");
+        }
+        return breakdown.toString();
+    }
+
+    /**
+     * Gets the time spent in one phase so far
+     * @param phase phase name
+     * @return milliseconds, zero if the phase was not entered
+     */
+    public long getSpentMillis(String phase) {
+        account();
+        return TimeUnit.NANOSECONDS.toMillis(spentNanos.getOrDefault(phase, 0L));
+    }
+}
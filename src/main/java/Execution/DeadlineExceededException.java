@@ -0,0 +1,12 @@
+package Execution;
+
+/**
+ * Thrown when a retailer's time budget is used up, with the breakdown of where the time went
+ */
+public class DeadlineExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
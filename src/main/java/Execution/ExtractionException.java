@@ -0,0 +1,16 @@
+package Execution;
+
+/**
+ * Thrown when a page loaded but its contact details could not be extracted
+ */
+public class ExtractionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ExtractionException(String message) {
+        super(message);
+    }
+
+    public ExtractionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
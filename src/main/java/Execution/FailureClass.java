@@ -0,0 +1,20 @@
+package Execution;
+
+/**
+ * Category of a retailer validation failure, deciding how it is handled
+ */
+public enum FailureClass {
+    /**
+     * Browser, network or site availability problem; transient and worth retrying
+     */
+    INFRASTRUCTURE,
+    /**
+     * The page loaded but the contact details could not be read, e.g. a locator no longer matches
+     * or a consent banner would not close; retrying the same page will not help
+     */
+    EXTRACTION,
+    /**
+     * The details were read and differ between the Rolex and retailer pages
+     */
+    COMPLIANCE
+}
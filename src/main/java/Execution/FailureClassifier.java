@@ -0,0 +1,88 @@
+package Execution;
+
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Classifies exceptions raised while validating a retailer
+ */
+public class FailureClassifier {
+
+    private FailureClassifier() {
+    }
+
+    /**
+     * Classifies a failure by every exception in its cause chain, not only the outermost one.
+     * An overrun budget or a lost session is an infrastructure failure wherever it occurs; otherwise an
+     * extraction cause takes precedence over wrappers such as the {@link TimeoutException} of a wait
+     * whose locator never matched, and generic driver or network errors only count when nothing more
+     * specific is found.
+     * @param failure exception or error raised during validation
+     * @return failure class
+     */
+    public static FailureClass classify(Throwable failure) {
+        boolean extraction = false;
+        boolean compliance = false;
+        boolean infrastructure = false;
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable current = failure; current != null && seen.add(current); current = current.getCause()) {
+            if (current instanceof DeadlineExceededException || isSessionFailure(current)) {
+                return FailureClass.INFRASTRUCTURE;
+            }
+            if (current instanceof ExtractionException
+                    || current instanceof NoSuchElementException
+                    || current instanceof StaleElementReferenceException
+                    || current instanceof ElementNotInteractableException
+                    || current instanceof ElementClickInterceptedException
+                    || current instanceof InvalidSelectorException) {
+                extraction = true;
+            } else if (current instanceof AssertionError) {
+                compliance = true;
+            } else if (current instanceof TimeoutException
+                    || current instanceof WebDriverException
+                    || current instanceof IOException
+                    || current instanceof UncheckedIOException
+                    || current instanceof InterruptedException) {
+                infrastructure = true;
+            }
+        }
+        if (extraction) {
+            return FailureClass.EXTRACTION;
+        }
+        if (compliance) {
+            return FailureClass.COMPLIANCE;
+        }
+        return infrastructure ? FailureClass.INFRASTRUCTURE : FailureClass.EXTRACTION;
+    }
+
+    /**
+     * Checks if a failure means the browser session or the network is unusable,
+     * as opposed to a problem with the page content
+     * @param failure exception to check
+     * @return true for lost sessions, unreachable browsers and network errors
+     */
+    public static boolean isSessionFailure(Throwable failure) {
+        if (failure instanceof NoSuchSessionException
+                || failure instanceof SessionNotCreatedException
+                || failure instanceof UnreachableBrowserException) {
+            return true;
+        }
+        String message = failure.getMessage();
+        return failure instanceof WebDriverException && message != null
+                && (message.contains("net::ERR_") || message.contains("NS_ERROR_"));
+    }
+}
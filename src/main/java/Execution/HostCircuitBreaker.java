@@ -0,0 +1,159 @@
+package Execution;
+
+import Constants.Constants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-host circuit breaker for infrastructure failures.
+ *
+ * <p>After a number of consecutive failures the host's circuit opens and its retailers are
+ * skipped immediately instead of spending the full timeout budget. Once the open period has
+ * passed a single trial request is let through (half-open); its success closes the circuit,
+ * its failure opens it again. A trial that ends without either, e.g. because the page loaded but
+ * held no contact details, is released with {@link #releaseTrial(String)} so the next request
+ * becomes the trial.</p>
+ */
+public class HostCircuitBreaker {
+    private static final Logger log = LogManager.getLogger(HostCircuitBreaker.class);
+
+    private enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static class Circuit {
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+        private Thread trial;
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for HostCircuitBreaker
+     * @param failureThreshold consecutive failures that open a host's circuit
+     * @param openMillis time a circuit stays open before a trial request is allowed
+     */
+    public HostCircuitBreaker(int failureThreshold, long openMillis) {
+        if (failureThreshold < 1 || openMillis < 0) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Creates a circuit breaker configured from the circuit.* system properties
+     * @return configured circuit breaker
+     */
+    public static HostCircuitBreaker fromSystemProperties() {
+        return new HostCircuitBreaker(
+                Integer.getInteger(Constants.Resilience.FAILURE_THRESHOLD_PROPERTY, Constants.Resilience.DEFAULT_FAILURE_THRESHOLD),
+                Long.getLong(Constants.Resilience.OPEN_MILLIS_PROPERTY, Constants.Resilience.DEFAULT_OPEN_MILLIS));
+    }
+
+    /**
+     * Checks if a request to the host may proceed, moving an expired open circuit to half-open
+     * @param host host key
+     * @return false if the host's circuit is open and requests should be skipped
+     */
+    public boolean allowRequest(String host) {
+        Circuit circuit = circuits.computeIfAbsent(host, key -> new Circuit());
+        synchronized (circuit) {
+            switch (circuit.state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.currentTimeMillis() - circuit.openedAt >= openMillis) {
+                        circuit.state = State.HALF_OPEN;
+                        circuit.trial = Thread.currentThread();
+                        log.info("Circuit for {} half-open, allowing a trial request", host);
+                        return true;
+                    }
+                    return false;
+                default:
+                    // A trial request is already in flight
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * Checks if the host's circuit is currently open
+     * @param host host key
+     * @return true if requests to the host are being skipped
+     */
+    public boolean isOpen(String host) {
+        Circuit circuit = circuits.get(host);
+        if (circuit == null) {
+            return false;
+        }
+        synchronized (circuit) {
+            return circuit.state == State.OPEN;
+        }
+    }
+
+    /**
+     * Records a successful request, closing the host's circuit
+     * @param host host key
+     */
+    public void recordSuccess(String host) {
+        Circuit circuit = circuits.computeIfAbsent(host, key -> new Circuit());
+        synchronized (circuit) {
+            if (circuit.state != State.CLOSED) {
+                log.info("Circuit for {} closed", host);
+            }
+            circuit.state = State.CLOSED;
+            circuit.consecutiveFailures = 0;
+            circuit.trial = null;
+        }
+    }
+
+    /**
+     * Records an infrastructure failure, opening the host's circuit at the threshold
+     * or immediately after a failed trial request
+     * @param host host key
+     */
+    public void recordFailure(String host) {
+        Circuit circuit = circuits.computeIfAbsent(host, key -> new Circuit());
+        synchronized (circuit) {
+            circuit.consecutiveFailures++;
+            if (circuit.state == State.HALF_OPEN || circuit.consecutiveFailures >= failureThreshold) {
+                if (circuit.state != State.OPEN) {
+                    log.warn("Circuit for {} opened after {} consecutive failures", host, circuit.consecutiveFailures);
+                }
+                circuit.state = State.OPEN;
+                circuit.openedAt = System.currentTimeMillis();
+                circuit.trial = null;
+            }
+        }
+    }
+
+    /**
+     * Ends a trial request of the current thread that was neither recorded as a success nor as a
+     * failure, returning the circuit to open with its open period already passed, so the next
+     * request is let through as a new trial. Does nothing if the thread holds no trial.
+     * @param host host key
+     */
+    public void releaseTrial(String host) {
+        Circuit circuit = circuits.get(host);
+        if (circuit == null) {
+            return;
+        }
+        synchronized (circuit) {
+            if (circuit.state == State.HALF_OPEN && circuit.trial == Thread.currentThread()) {
+                log.info("Trial request for {} ended without a verdict, releasing it", host);
+                circuit.state = State.OPEN;
+                circuit.trial = null;
+            }
+        }
+    }
+}
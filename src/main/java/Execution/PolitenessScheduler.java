@@ -0,0 +1,200 @@
+package Execution;
+
+import Constants.Constants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Keeps parallel sessions polite towards each retailer host.
+ *
+ * <p>Work is ordered by priority and then spread across hosts, so that consecutive items handed
+ * to the worker pool target different hosts and no slot waits for a busy host while other hosts
+ * have work. Each host has a concurrency cap and a token bucket limiting its request rate;
+ * workers hold a {@link HostPermit} while they validate a retailer and take a token before
+ * every navigation. Pages loading in background tabs hold a permit of their own, taken with
+ * {@link #tryAcquire(String)}.</p>
+ */
+public class PolitenessScheduler {
+    private static final Logger log = LogManager.getLogger(PolitenessScheduler.class);
+
+    private final int maxConcurrentPerHost;
+    private final double requestsPerSecond;
+    private final int burst;
+    private final Map<String, Semaphore> hostSlots = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> hostBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * Permit for a set of hosts, released when closed
+     */
+    public class HostPermit implements AutoCloseable {
+        private final List<String> hosts;
+
+        private HostPermit(List<String> hosts) {
+            this.hosts = hosts;
+        }
+
+        @Override
+        public void close() {
+            for (String host : hosts) {
+                hostSlots.get(host).release();
+            }
+        }
+    }
+
+    /**
+     * Constructor for PolitenessScheduler
+     * @param maxConcurrentPerHost maximum sessions working on one host at a time
+     * @param requestsPerMinute sustained navigations per minute allowed per host
+     * @param burst navigations allowed back to back before the rate applies
+     */
+    public PolitenessScheduler(int maxConcurrentPerHost, int requestsPerMinute, int burst) {
+        if (maxConcurrentPerHost < 1 || requestsPerMinute < 1 || burst < 1) {
+            throw new IllegalArgumentException("Politeness limits must be positive");
+        }
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+        this.requestsPerSecond = requestsPerMinute / 60d;
+        this.burst = burst;
+    }
+
+    /**
+     * Creates a scheduler configured from the politeness.* system properties
+     * @return configured scheduler
+     */
+    public static PolitenessScheduler fromSystemProperties() {
+        return new PolitenessScheduler(
+                Integer.getInteger(Constants.Politeness.MAX_PER_HOST_PROPERTY, Constants.Politeness.DEFAULT_MAX_PER_HOST),
+                Integer.getInteger(Constants.Politeness.REQUESTS_PER_MINUTE_PROPERTY, Constants.Politeness.DEFAULT_REQUESTS_PER_MINUTE),
+                Integer.getInteger(Constants.Politeness.BURST_PROPERTY, Constants.Politeness.DEFAULT_BURST));
+    }
+
+    /**
+     * Gets the politeness key of a URL: its lower-case host without a leading "www."
+     * @param url page URL
+     * @return host key, or the URL itself if it has no host
+     */
+    public static String hostOf(String url) {
+        try {
+            String host = URI.create(url.trim()).getHost();
+            if (host == null) {
+                return url;
+            }
+            host = host.toLowerCase(Locale.ROOT);
+            return host.startsWith("www.") ? host.substring(4) : host;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    /**
+     * Orders work by priority and interleaves hosts.
+     * Items are emitted in rounds; each round holds at most one item per host, taken in priority
+     * order, so a host's lower-priority items yield to other hosts' work instead of queueing up
+     * behind a busy host.
+     * @param items work items
+     * @param hostOf gives the host of an item
+     * @param priority orders items, most urgent first
+     * @param <T> type of work item
+     * @return planned execution order
+     */
+    public <T> List<T> plan(Collection<T> items, Function<T, String> hostOf, Comparator<T> priority) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(priority);
+
+        Map<String, List<T>> byHost = new LinkedHashMap<>();
+        for (T item : sorted) {
+            byHost.computeIfAbsent(hostOf.apply(item), host -> new ArrayList<>()).add(item);
+        }
+
+        List<T> planned = new ArrayList<>(sorted.size());
+        for (int round = 0; planned.size() < sorted.size(); round++) {
+            List<T> roundItems = new ArrayList<>();
+            for (List<T> hostItems : byHost.values()) {
+                if (round < hostItems.size()) {
+                    roundItems.add(hostItems.get(round));
+                }
+            }
+            roundItems.sort(priority);
+            planned.addAll(roundItems);
+        }
+        log.info("Planned {} items across {} hosts", planned.size(), byHost.size());
+        return planned;
+    }
+
+    /**
+     * Acquires a concurrency slot on every host of the given URLs, waiting while a host is saturated.
+     * Hosts are locked in a fixed order so overlapping requests cannot deadlock.
+     * @param urls URLs the caller is about to work on
+     * @return permit releasing the slots when closed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public HostPermit acquire(String... urls) throws InterruptedException {
+        Set<String> hosts = new TreeSet<>();
+        for (String url : urls) {
+            hosts.add(hostOf(url));
+        }
+        List<String> acquired = new ArrayList<>();
+        try {
+            for (String host : hosts) {
+                Semaphore slots = hostSlots.computeIfAbsent(host, key -> new Semaphore(maxConcurrentPerHost, true));
+                if (!slots.tryAcquire()) {
+                    log.info("Waiting for a free slot on {}", host);
+                    slots.acquire();
+                }
+                acquired.add(host);
+            }
+        } catch (InterruptedException e) {
+            new HostPermit(acquired).close();
+            throw e;
+        }
+        return new HostPermit(acquired);
+    }
+
+    /**
+     * Acquires a concurrency slot on the host of a URL if one is free right now, without waiting
+     * @param url URL the caller is about to work on
+     * @return permit releasing the slot when closed, or null if the host is saturated
+     */
+    public HostPermit tryAcquire(String url) {
+        String host = hostOf(url);
+        Semaphore slots = hostSlots.computeIfAbsent(host, key -> new Semaphore(maxConcurrentPerHost, true));
+        return slots.tryAcquire() ? new HostPermit(Collections.singletonList(host)) : null;
+    }
+
+    /**
+     * Waits until the host of a URL may receive another request
+     * @param url URL about to be requested
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void throttle(String url) throws InterruptedException {
+        String host = hostOf(url);
+        TokenBucket bucket = hostBuckets.computeIfAbsent(host, key -> new TokenBucket(burst, requestsPerSecond));
+        if (!bucket.tryAcquire()) {
+            log.info("Rate limiting request to {}", host);
+            bucket.acquire();
+        }
+    }
+
+    /**
+     * Takes a request token for the host of a URL if one is available right now, without waiting
+     * @param url URL about to be requested
+     * @return true if the request may be sent
+     */
+    public boolean tryThrottle(String url) {
+        return hostBuckets.computeIfAbsent(hostOf(url), key -> new TokenBucket(burst, requestsPerSecond)).tryAcquire();
+    }
+}
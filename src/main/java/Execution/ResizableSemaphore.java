@@ -0,0 +1,51 @@
+package Execution;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Fair semaphore whose number of permits can be changed while permits are held.
+ * Lowering the limit below the permits in use does not revoke them; new acquisitions
+ * wait until enough permits have been released.
+ */
+public class ResizableSemaphore extends Semaphore {
+    private static final long serialVersionUID = 1L;
+
+    private int limit;
+
+    /**
+     * Constructor for ResizableSemaphore
+     * @param limit initial number of permits
+     */
+    public ResizableSemaphore(int limit) {
+        super(limit, true);
+        this.limit = limit;
+    }
+
+    /**
+     * Changes the number of permits
+     * @param newLimit new number of permits, not negative
+     */
+    public synchronized void setLimit(int newLimit) {
+        if (newLimit < 0) {
+            throw new IllegalArgumentException("Semaphore limit must not be negative");
+        }
+        int delta = newLimit - limit;
+        limit = newLimit;
+        if (delta > 0) {
+            release(delta);
+        } else if (delta < 0) {
+            reducePermits(-delta);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return number of permits currently held, which may exceed the limit right after it was lowered
+     */
+    public synchronized int getInUse() {
+        return limit - availablePermits();
+    }
+}
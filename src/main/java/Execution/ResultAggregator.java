@@ -0,0 +1,94 @@
+package Execution;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects retailer results from concurrent test threads.
+ * Results are appended to a lock-free queue and verdicts are counted with striped adders,
+ * so worker threads never block each other while recording.
+ */
+public class ResultAggregator {
+    private static final Logger log = LogManager.getLogger(ResultAggregator.class);
+
+    private final ConcurrentLinkedQueue<RetailerResult> results = new ConcurrentLinkedQueue<>();
+    private final Map<RetailerResult.Verdict, LongAdder> verdictCounts = new EnumMap<>(RetailerResult.Verdict.class);
+    private final LongAdder totalDurationMillis = new LongAdder();
+
+    /**
+     * Constructor for ResultAggregator
+     */
+    public ResultAggregator() {
+        for (RetailerResult.Verdict verdict : RetailerResult.Verdict.values()) {
+            verdictCounts.put(verdict, new LongAdder());
+        }
+    }
+
+    /**
+     * Records a retailer result
+     * @param result result to record
+     */
+    public void record(RetailerResult result) {
+        results.add(result);
+        verdictCounts.get(result.getVerdict()).increment();
+        totalDurationMillis.add(result.getDurationMillis());
+        log.info("Recorded result: {}", result);
+    }
+
+    /**
+     * Gets the number of results recorded with the given verdict
+     * @param verdict verdict to count
+     * @return number of results with that verdict
+     */
+    public long count(RetailerResult.Verdict verdict) {
+        return verdictCounts.get(verdict).sum();
+    }
+
+    /**
+     * Gets the number of results recorded so far
+     * @return total number of results
+     */
+    public long size() {
+        long total = 0;
+        for (LongAdder adder : verdictCounts.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Gets a snapshot of all recorded results
+     * @return list of results in recording order
+     */
+    public List<RetailerResult> getResults() {
+        return new ArrayList<>(results);
+    }
+
+    /**
+     * Logs a summary of all recorded results
+     */
+    public void logSummary() {
+        long total = size();
+        log.info("\n=== Catalog Summary ===");
+        log.info("Retailers validated: {}", total);
+        for (RetailerResult.Verdict verdict : RetailerResult.Verdict.values()) {
+            log.info("{}: {}", verdict, count(verdict));
+        }
+        if (total > 0) {
+            log.info("Average duration: {}ms", totalDurationMillis.sum() / total);
+        }
+        for (RetailerResult result : results) {
+            if (result.getVerdict() != RetailerResult.Verdict.PASS) {
+                log.info("Not passing: {}", result);
+            }
+        }
+        log.info("=======================");
+    }
+}
@@ -0,0 +1,71 @@
+package Execution;
+
+import History.ComplianceHistoryStore;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders retailers by urgency based on their compliance history:
+ * retailers whose last run did not pass come first, then retailers never validated or whose
+ * last verdict is older than the staleness limit, then everything else.
+ * Within a group, the retailer validated longest ago comes first.
+ */
+public class RetailerPriority implements Comparator<String> {
+    private static final int RECENT_FAILURE = 0;
+    private static final int STALE = 1;
+    private static final int FRESH = 2;
+
+    private final ComplianceHistoryStore history;
+    private final long staleBefore;
+    private final Map<String, long[]> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for RetailerPriority
+     * @param history compliance history, null if no history is available
+     * @param staleAfter age after which a verdict is considered stale
+     */
+    public RetailerPriority(ComplianceHistoryStore history, Duration staleAfter) {
+        this.history = history;
+        this.staleBefore = System.currentTimeMillis() - staleAfter.toMillis();
+    }
+
+    @Override
+    public int compare(String retailerUrl1, String retailerUrl2) {
+        long[] key1 = keyOf(retailerUrl1);
+        long[] key2 = keyOf(retailerUrl2);
+        int result = Long.compare(key1[0], key2[0]);
+        if (result == 0) {
+            result = Long.compare(key1[1], key2[1]);
+        }
+        return result != 0 ? result : retailerUrl1.compareTo(retailerUrl2);
+    }
+
+    /**
+     * Gets the priority group of a retailer
+     * @param retailerUrl retailer key
+     * @return 0 for a recent failure, 1 for stale or unknown, 2 for a fresh pass
+     */
+    public int groupOf(String retailerUrl) {
+        return (int) keyOf(retailerUrl)[0];
+    }
+
+    /**
+     * Computes and memoizes the sort key (group, last run time) of a retailer
+     */
+    private long[] keyOf(String retailerUrl) {
+        return keys.computeIfAbsent(retailerUrl, url -> {
+            if (history == null) {
+                return new long[]{STALE, -1};
+            }
+            RetailerResult.Verdict verdict = history.lastVerdict(url);
+            long lastRun = history.lastTimestamp(url);
+            if (verdict == null || lastRun < staleBefore) {
+                return new long[]{STALE, lastRun};
+            }
+            return new long[]{verdict == RetailerResult.Verdict.PASS ? FRESH : RECENT_FAILURE, lastRun};
+        });
+    }
+}
@@ -0,0 +1,144 @@
+package Execution;
+
+import Pages.ContactDetails;
+
+/**
+ * Immutable outcome of validating a single retailer against its Rolex reference page
+ */
+public class RetailerResult {
+
+    /**
+     * Overall verdict for a retailer
+     */
+    public enum Verdict {
+        PASS,
+        FAIL,
+        ERROR
+    }
+
+    private final String retailerUrl;
+    private final String rolexUrl;
+    private final boolean addressValid;
+    private final boolean phoneValid;
+    private final boolean hoursValid;
+    private final String error;
+    private final long durationMillis;
+    private final ContactDetails rolexDetails;
+    private final ContactDetails retailerDetails;
+    private final FailureClass failureClass;
+
+    /**
+     * Constructor for RetailerResult
+     * @param retailerUrl retailer contact page URL, used as the retailer key
+     * @param rolexUrl Rolex contact page URL
+     * @param addressValid true if the address check passed
+     * @param phoneValid true if the phone number check passed
+     * @param hoursValid true if the opening hours check passed
+     * @param error error message if validation could not complete, null otherwise
+     * @param durationMillis wall-clock time spent on the retailer
+     */
+    public RetailerResult(String retailerUrl, String rolexUrl, boolean addressValid, boolean phoneValid,
+                          boolean hoursValid, String error, long durationMillis) {
+        this(retailerUrl, rolexUrl, addressValid, phoneValid, hoursValid, error, durationMillis, null, null, null);
+    }
+
+    /**
+     * Constructor for RetailerResult including the extracted contact details
+     * @param retailerUrl retailer contact page URL, used as the retailer key
+     * @param rolexUrl Rolex contact page URL
+     * @param addressValid true if the address check passed
+     * @param phoneValid true if the phone number check passed
+     * @param hoursValid true if the opening hours check passed
+     * @param error error message if validation could not complete, null otherwise
+     * @param durationMillis wall-clock time spent on the retailer
+     * @param rolexDetails details extracted from the Rolex page, null if not captured
+     * @param retailerDetails details extracted from the retailer page, null if not captured
+     * @param failureClass class of the error, null to derive it from the checks
+     */
+    public RetailerResult(String retailerUrl, String rolexUrl, boolean addressValid, boolean phoneValid,
+                          boolean hoursValid, String error, long durationMillis,
+                          ContactDetails rolexDetails, ContactDetails retailerDetails, FailureClass failureClass) {
+        this.retailerUrl = retailerUrl;
+        this.rolexUrl = rolexUrl;
+        this.addressValid = addressValid;
+        this.phoneValid = phoneValid;
+        this.hoursValid = hoursValid;
+        this.error = error;
+        this.durationMillis = durationMillis;
+        this.rolexDetails = rolexDetails;
+        this.retailerDetails = retailerDetails;
+        this.failureClass = failureClass;
+    }
+
+    /**
+     * Gets the verdict derived from the individual checks
+     * @return ERROR if validation did not complete, PASS if all checks passed, FAIL otherwise
+     */
+    public Verdict getVerdict() {
+        if (error != null) {
+            return Verdict.ERROR;
+        }
+        return addressValid && phoneValid && hoursValid ? Verdict.PASS : Verdict.FAIL;
+    }
+
+    public String getRetailerUrl() {
+        return retailerUrl;
+    }
+
+    public String getRolexUrl() {
+        return rolexUrl;
+    }
+
+    public boolean isAddressValid() {
+        return addressValid;
+    }
+
+    public boolean isPhoneValid() {
+        return phoneValid;
+    }
+
+    public boolean isHoursValid() {
+        return hoursValid;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public ContactDetails getRolexDetails() {
+        return rolexDetails;
+    }
+
+    public ContactDetails getRetailerDetails() {
+        return retailerDetails;
+    }
+
+    /**
+     * Gets the class of failure of this result
+     * @return explicit failure class of an error, COMPLIANCE for failed checks, null for a pass
+     */
+    public FailureClass getFailureClass() {
+        if (failureClass != null) {
+            return failureClass;
+        }
+        switch (getVerdict()) {
+            case FAIL:
+                return FailureClass.COMPLIANCE;
+            case ERROR:
+                return FailureClass.EXTRACTION;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [%s] address=%s phone=%s hours=%s %dms%s",
+                retailerUrl, getVerdict(), addressValid, phoneValid, hoursValid, durationMillis,
+                error != null ? " " + getFailureClass() + " error=" + error : "");
+    }
+}
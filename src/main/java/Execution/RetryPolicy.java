@@ -0,0 +1,69 @@
+package Execution;
+
+import Constants.Constants;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy for infrastructure failures using exponential backoff with full jitter:
+ * the delay before retry n is drawn uniformly from [0, min(maxDelay, baseDelay * 2^(n-1))],
+ * which spreads retries of parallel sessions hitting the same slow site.
+ */
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * Constructor for RetryPolicy
+     * @param maxAttempts total attempts including the first one
+     * @param baseDelayMillis backoff ceiling of the first retry
+     * @param maxDelayMillis upper bound of any backoff
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        if (maxAttempts < 1 || baseDelayMillis < 0 || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException("Invalid retry policy");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Creates a policy configured from the retry.* system properties
+     * @return configured policy
+     */
+    public static RetryPolicy fromSystemProperties() {
+        return new RetryPolicy(
+                Integer.getInteger(Constants.Resilience.MAX_ATTEMPTS_PROPERTY, Constants.Resilience.DEFAULT_MAX_ATTEMPTS),
+                Long.getLong(Constants.Resilience.BASE_DELAY_PROPERTY, Constants.Resilience.DEFAULT_BASE_DELAY_MILLIS),
+                Long.getLong(Constants.Resilience.MAX_DELAY_PROPERTY, Constants.Resilience.DEFAULT_MAX_DELAY_MILLIS));
+    }
+
+    /**
+     * Checks if another attempt may follow a failed one
+     * @param failedAttempt number of the attempt that failed, starting at 1
+     * @param failureClass class of the failure
+     * @return true if the failure is retryable and attempts remain
+     */
+    public boolean shouldRetry(int failedAttempt, FailureClass failureClass) {
+        return failureClass == FailureClass.INFRASTRUCTURE && failedAttempt < maxAttempts;
+    }
+
+    /**
+     * Computes the jittered delay before the next attempt
+     * @param failedAttempt number of the attempt that failed, starting at 1
+     * @return delay in milliseconds
+     */
+    public long delayMillis(int failedAttempt) {
+        long ceiling = baseDelayMillis << Math.min(failedAttempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxDelayMillis) {
+            ceiling = maxDelayMillis;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+}
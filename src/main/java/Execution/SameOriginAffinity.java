@@ -0,0 +1,109 @@
+package Execution;
+
+import Constants.Constants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when the Rolex page and the retailer page of a retailer are handled as one unit, and
+ * reports the time this saves.
+ *
+ * <p>When both pages are on the same origin and the Rolex page was just loaded in the session,
+ * the retailer page is opened in a second tab of that session. It shares the connection, the
+ * asset cache and the consent given on the Rolex page, so the consent step is skipped. The time
+ * saved per retailer is the duration of the consent step on the Rolex page.</p>
+ */
+public class SameOriginAffinity {
+    private static final Logger log = LogManager.getLogger(SameOriginAffinity.class);
+
+    private final boolean enabled;
+    private final LongAdder retailers = new LongAdder();
+    private final LongAdder savedMillis = new LongAdder();
+
+    /**
+     * Constructor for SameOriginAffinity
+     * @param enabled false to always load the two pages independently
+     */
+    public SameOriginAffinity(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Creates the affinity policy from {@code -Daffinity.sameOrigin}, enabled unless set to false
+     * @return affinity policy
+     */
+    public static SameOriginAffinity fromSystemProperties() {
+        return new SameOriginAffinity(Boolean.parseBoolean(
+                System.getProperty(Constants.Affinity.SAME_ORIGIN_PROPERTY, "true")));
+    }
+
+    /**
+     * Checks whether the retailer page should be opened next to the Rolex page
+     * @param rolexUrl Rolex contact page URL
+     * @param retailerUrl retailer contact page URL
+     * @return true if enabled and both URLs have the same scheme, host and port
+     */
+    public boolean appliesTo(String rolexUrl, String retailerUrl) {
+        return enabled && sameOrigin(rolexUrl, retailerUrl);
+    }
+
+    /**
+     * Compares the origins of two URLs. The {@code www.} and apex hosts of a site are different origins,
+     * which share neither cookies nor consent.
+     * @param url1 first URL
+     * @param url2 second URL
+     * @return true if scheme, host and effective port are equal
+     */
+    public static boolean sameOrigin(String url1, String url2) {
+        try {
+            URI uri1 = URI.create(url1.trim());
+            URI uri2 = URI.create(url2.trim());
+            return uri1.getHost() != null && uri1.getScheme() != null
+                    && uri1.getScheme().equalsIgnoreCase(uri2.getScheme())
+                    && uri1.getHost().equalsIgnoreCase(uri2.getHost())
+                    && port(uri1) == port(uri2);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static int port(URI uri) {
+        if (uri.getPort() >= 0) {
+            return uri.getPort();
+        }
+        return "https".equals(uri.getScheme().toLowerCase(Locale.ROOT)) ? 443 : 80;
+    }
+
+    /**
+     * Records a retailer whose retailer page reused the Rolex page's session and consent
+     * @param retailerId retailer id
+     * @param consentMillis duration of the consent step on the Rolex page, skipped on the retailer page
+     */
+    public void recordSaved(String retailerId, long consentMillis) {
+        retailers.increment();
+        savedMillis.add(consentMillis);
+        log.info("Same-origin affinity for {} skipped a consent step of {}ms", retailerId, consentMillis);
+    }
+
+    /**
+     * Logs how many retailers were handled as one origin and the total time saved
+     */
+    public void logSummary() {
+        long count = retailers.sum();
+        long saved = savedMillis.sum();
+        log.info("Same-origin affinity: {} retailer(s), {}ms saved, {}ms per retailer",
+                count, saved, count == 0 ? 0 : saved / count);
+    }
+
+    public long getRetailerCount() {
+        return retailers.sum();
+    }
+
+    public long getSavedMillis() {
+        return savedMillis.sum();
+    }
+}
@@ -0,0 +1,213 @@
+package Execution;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combines the result files of all shards into one report and verifies that
+ * every retailer of the catalog was covered exactly once.
+ *
+ * <p>Usage: {@code java Execution.ShardMerger <merged-report> <shard-file-or-directory>...}.
+ * The process exits with status 1 when coverage is incomplete.</p>
+ */
+public class ShardMerger {
+    private static final Logger log = LogManager.getLogger(ShardMerger.class);
+
+    /**
+     * Outcome of a merge: the combined results and every coverage problem found
+     */
+    public static class MergeReport {
+        private final List<RetailerResult> results;
+        private final List<String> problems;
+
+        MergeReport(List<RetailerResult> results, List<String> problems) {
+            this.results = Collections.unmodifiableList(results);
+            this.problems = Collections.unmodifiableList(problems);
+        }
+
+        public List<RetailerResult> getResults() {
+            return results;
+        }
+
+        public List<String> getProblems() {
+            return problems;
+        }
+
+        /**
+         * Checks if every retailer was covered exactly once
+         * @return true if no coverage problem was found
+         */
+        public boolean isComplete() {
+            return problems.isEmpty();
+        }
+    }
+
+    /**
+     * Merges shard results and checks coverage
+     * @param shards results of every shard of one run
+     * @return merge report
+     */
+    public static MergeReport merge(List<ShardResults> shards) {
+        List<String> problems = new ArrayList<>();
+        List<RetailerResult> merged = new ArrayList<>();
+        if (shards.isEmpty()) {
+            problems.add("No shard results found");
+            return new MergeReport(merged, problems);
+        }
+
+        ShardResults first = shards.get(0);
+        int shardCount = first.getShardCount();
+        ShardResults[] byIndex = new ShardResults[shardCount];
+
+        for (ShardResults shard : shards) {
+            if (shard.getShardCount() != shardCount) {
+                problems.add(String.format("Shard %d was run with %d shards, expected %d",
+                        shard.getShardIndex(), shard.getShardCount(), shardCount));
+                continue;
+            }
+            if (!shard.getCatalogFingerprint().equals(first.getCatalogFingerprint())
+                    || shard.getCatalogSize() != first.getCatalogSize()) {
+                problems.add(String.format("Shard %d was run against a different catalog", shard.getShardIndex()));
+                continue;
+            }
+            if (shard.getShardIndex() < 0 || shard.getShardIndex() >= shardCount) {
+                problems.add(String.format("Shard %d is out of range for %d shards", shard.getShardIndex(), shardCount));
+                continue;
+            }
+            if (byIndex[shard.getShardIndex()] != null) {
+                problems.add(String.format("Shard %d reported more than once", shard.getShardIndex()));
+                continue;
+            }
+            byIndex[shard.getShardIndex()] = shard;
+        }
+
+        Map<String, Integer> plannedBy = new HashMap<>();
+        Map<String, RetailerResult> resultsByUrl = new LinkedHashMap<>();
+        for (int i = 0; i < shardCount; i++) {
+            ShardResults shard = byIndex[i];
+            if (shard == null) {
+                problems.add(String.format("Shard %d of %d is missing", i, shardCount));
+                continue;
+            }
+            for (String url : shard.getPlanned()) {
+                Integer previous = plannedBy.put(url, i);
+                if (previous != null) {
+                    problems.add(String.format("%s planned by shards %d and %d", url, previous, i));
+                }
+                if (ShardSelector.shardOf(url, shardCount) != i) {
+                    problems.add(String.format("%s does not belong to shard %d", url, i));
+                }
+            }
+            for (RetailerResult result : shard.getResults()) {
+                if (resultsByUrl.put(result.getRetailerUrl(), result) != null) {
+                    problems.add("Duplicate result for " + result.getRetailerUrl());
+                } else {
+                    merged.add(result);
+                }
+            }
+        }
+
+        for (String url : plannedBy.keySet()) {
+            if (!resultsByUrl.containsKey(url)) {
+                problems.add("No result for " + url);
+            }
+        }
+        for (String url : resultsByUrl.keySet()) {
+            if (!plannedBy.containsKey(url)) {
+                problems.add("Result for unplanned retailer " + url);
+            }
+        }
+        if (plannedBy.size() != first.getCatalogSize()) {
+            problems.add(String.format("Shards planned %d retailers but the catalog has %d",
+                    plannedBy.size(), first.getCatalogSize()));
+        }
+
+        return new MergeReport(merged, problems);
+    }
+
+    /**
+     * Reads shard files, expanding directories to the shard files they contain
+     * @param paths shard files or directories
+     * @return parsed shard results
+     * @throws IOException if a shard file cannot be read
+     */
+    public static List<ShardResults> readAll(List<Path> paths) throws IOException {
+        List<ShardResults> shards = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(path, "shard-*-of-*.tsv")) {
+                    for (Path file : files) {
+                        shards.add(ShardResults.read(file));
+                    }
+                }
+            } else {
+                shards.add(ShardResults.read(path));
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Writes the merged report
+     * @param report merge report
+     * @param file destination file
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeReport(MergeReport report, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Map<RetailerResult.Verdict, Integer> counts = new LinkedHashMap<>();
+        for (RetailerResult.Verdict verdict : RetailerResult.Verdict.values()) {
+            counts.put(verdict, 0);
+        }
+        for (RetailerResult result : report.getResults()) {
+            counts.merge(result.getVerdict(), 1, Integer::sum);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# retailers=" + report.getResults().size() + "\n");
+            for (Map.Entry<RetailerResult.Verdict, Integer> count : counts.entrySet()) {
+                writer.write("# " + count.getKey().name().toLowerCase() + "=" + count.getValue() + "\n");
+            }
+            writer.write("# complete=" + report.isComplete() + "\n");
+            for (String problem : report.getProblems()) {
+                writer.write("# problem=" + problem + "\n");
+            }
+            for (RetailerResult result : report.getResults()) {
+                writer.write(result + "\n");
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ShardMerger <merged-report> <shard-file-or-directory>...");
+            System.exit(2);
+        }
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            inputs.add(Paths.get(args[i]));
+        }
+        MergeReport report = merge(readAll(inputs));
+        writeReport(report, Paths.get(args[0]));
+        log.info("Merged {} results into {}", report.getResults().size(), args[0]);
+        for (String problem : report.getProblems()) {
+            log.error("Coverage problem: {}", problem);
+        }
+        System.exit(report.isComplete() ? 0 : 1);
+    }
+}
@@ -0,0 +1,242 @@
+package Execution;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result file written by one shard of a catalog run.
+ * Besides the results, each file records which retailers the shard planned to run and a
+ * fingerprint of the full catalog, so the merge step can prove exactly-once coverage
+ * without having access to the catalog itself.
+ */
+public class ShardResults {
+    private static final String SEPARATOR = "\t";
+    private static final String HEADER_PREFIX = "# ";
+    private static final String PLANNED = "planned";
+    private static final String RESULT = "result";
+
+    private final int shardIndex;
+    private final int shardCount;
+    private final int catalogSize;
+    private final String catalogFingerprint;
+    private final List<String> planned;
+    private final List<RetailerResult> results;
+
+    /**
+     * Constructor for ShardResults
+     * @param shardIndex zero-based index of the shard
+     * @param shardCount total number of shards
+     * @param catalogSize number of retailers in the full catalog
+     * @param catalogFingerprint fingerprint of the full catalog, see {@link #fingerprint(Collection)}
+     * @param planned retailer URLs this shard selected
+     * @param results results recorded by this shard
+     */
+    public ShardResults(int shardIndex, int shardCount, int catalogSize, String catalogFingerprint,
+                        List<String> planned, List<RetailerResult> results) {
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+        this.catalogSize = catalogSize;
+        this.catalogFingerprint = catalogFingerprint;
+        this.planned = Collections.unmodifiableList(new ArrayList<>(planned));
+        this.results = Collections.unmodifiableList(new ArrayList<>(results));
+    }
+
+    /**
+     * Computes an order-independent fingerprint of a catalog
+     * @param retailerUrls all retailer URLs of the catalog
+     * @return hexadecimal fingerprint
+     */
+    public static String fingerprint(Collection<String> retailerUrls) {
+        Fingerprint fingerprint = new Fingerprint();
+        retailerUrls.forEach(fingerprint::add);
+        return fingerprint.value();
+    }
+
+    /**
+     * Accumulates a catalog fingerprint one URL at a time, so a streamed catalog
+     * can be fingerprinted without holding all of its URLs
+     */
+    public static class Fingerprint {
+        private long sum;
+        private long xor;
+        private int count;
+
+        /**
+         * Adds a retailer URL to the fingerprint
+         * @param retailerUrl retailer URL of a catalog entry
+         */
+        public void add(String retailerUrl) {
+            long hash = ShardSelector.stableHash(retailerUrl);
+            sum += hash;
+            xor ^= Long.rotateLeft(hash, 17);
+            count++;
+        }
+
+        /**
+         * Gets the number of URLs added so far
+         * @return catalog size
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the fingerprint of the URLs added so far
+         * @return hexadecimal fingerprint
+         */
+        public String value() {
+            return String.format("%016x%016x", sum, xor);
+        }
+    }
+
+    /**
+     * Gets the file name used for a shard
+     * @param shardIndex zero-based index of the shard
+     * @param shardCount total number of shards
+     * @return file name
+     */
+    public static String fileName(int shardIndex, int shardCount) {
+        return String.format("shard-%d-of-%d.tsv", shardIndex, shardCount);
+    }
+
+    /**
+     * Writes this shard to a file, replacing any previous content
+     * @param file destination file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER_PREFIX + "shard.index=" + shardIndex + "\n");
+            writer.write(HEADER_PREFIX + "shard.count=" + shardCount + "\n");
+            writer.write(HEADER_PREFIX + "catalog.size=" + catalogSize + "\n");
+            writer.write(HEADER_PREFIX + "catalog.fingerprint=" + catalogFingerprint + "\n");
+            for (String url : planned) {
+                writer.write(PLANNED + SEPARATOR + clean(url) + "\n");
+            }
+            for (RetailerResult result : results) {
+                writer.write(String.join(SEPARATOR,
+                        RESULT,
+                        clean(result.getRetailerUrl()),
+                        clean(result.getRolexUrl()),
+                        result.getVerdict().name(),
+                        String.valueOf(result.isAddressValid()),
+                        String.valueOf(result.isPhoneValid()),
+                        String.valueOf(result.isHoursValid()),
+                        String.valueOf(result.getDurationMillis()),
+                        clean(result.getError()),
+                        result.getFailureClass() != null ? result.getFailureClass().name() : "") + "\n");
+            }
+        }
+    }
+
+    /**
+     * Reads a shard file
+     * @param file file written by {@link #write(Path)}
+     * @return parsed shard results
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static ShardResults read(Path file) throws IOException {
+        int shardIndex = -1;
+        int shardCount = -1;
+        int catalogSize = -1;
+        String fingerprint = null;
+        List<String> planned = new ArrayList<>();
+        List<RetailerResult> results = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.startsWith(HEADER_PREFIX)) {
+                    String[] header = line.substring(HEADER_PREFIX.length()).split("=", 2);
+                    if (header.length != 2) {
+                        throw new IOException(file + ":" + lineNumber + ": malformed header");
+                    }
+                    switch (header[0]) {
+                        case "shard.index":
+                            shardIndex = Integer.parseInt(header[1]);
+                            break;
+                        case "shard.count":
+                            shardCount = Integer.parseInt(header[1]);
+                            break;
+                        case "catalog.size":
+                            catalogSize = Integer.parseInt(header[1]);
+                            break;
+                        case "catalog.fingerprint":
+                            fingerprint = header[1];
+                            break;
+                        default:
+                            break;
+                    }
+                    continue;
+                }
+                String[] fields = line.split(SEPARATOR, -1);
+                if (PLANNED.equals(fields[0]) && fields.length == 2) {
+                    planned.add(fields[1]);
+                } else if (RESULT.equals(fields[0]) && fields.length == 10) {
+                    results.add(new RetailerResult(fields[1], fields[2],
+                            Boolean.parseBoolean(fields[4]),
+                            Boolean.parseBoolean(fields[5]),
+                            Boolean.parseBoolean(fields[6]),
+                            fields[8].isEmpty() ? null : fields[8],
+                            Long.parseLong(fields[7]),
+                            null, null,
+                            fields[9].isEmpty() ? null : FailureClass.valueOf(fields[9])));
+                } else {
+                    throw new IOException(file + ":" + lineNumber + ": unexpected record");
+                }
+            }
+        }
+
+        if (shardIndex < 0 || shardCount < 1 || catalogSize < 0 || fingerprint == null) {
+            throw new IOException(file + ": missing shard header");
+        }
+        return new ShardResults(shardIndex, shardCount, catalogSize, fingerprint, planned, results);
+    }
+
+    /**
+     * Replaces characters that would break the line-based format
+     */
+    private static String clean(String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int getCatalogSize() {
+        return catalogSize;
+    }
+
+    public String getCatalogFingerprint() {
+        return catalogFingerprint;
+    }
+
+    public List<String> getPlanned() {
+        return planned;
+    }
+
+    public List<RetailerResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,104 @@
+package Execution;
+
+import Constants.Constants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Deterministically assigns retailers to shards so a catalog run can be split across JVMs and machines.
+ * The assignment depends only on the retailer URL and the shard count, never on catalog order,
+ * so every process computes the same partition independently.
+ */
+public class ShardSelector {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int shardIndex;
+    private final int shardCount;
+
+    /**
+     * Constructor for ShardSelector
+     * @param shardIndex zero-based index of this shard
+     * @param shardCount total number of shards
+     */
+    public ShardSelector(int shardIndex, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Shard index must be between 0 and " + (shardCount - 1));
+        }
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Creates a selector from the shard.index and shard.count system properties.
+     * Defaults to a single shard covering the whole catalog.
+     * @return ShardSelector for this process
+     */
+    public static ShardSelector fromSystemProperties() {
+        return new ShardSelector(Integer.getInteger(Constants.Sharding.INDEX_PROPERTY, 0),
+                Integer.getInteger(Constants.Sharding.COUNT_PROPERTY, 1));
+    }
+
+    /**
+     * Computes the shard that owns a retailer
+     * @param retailerUrl retailer URL used as the shard key
+     * @param shardCount total number of shards
+     * @return zero-based shard index
+     */
+    public static int shardOf(String retailerUrl, int shardCount) {
+        return (int) Long.remainderUnsigned(stableHash(retailerUrl), shardCount);
+    }
+
+    /**
+     * Computes a 64-bit FNV-1a hash of the normalized URL.
+     * Unlike String.hashCode this is specified independently of the JVM and stays stable across releases.
+     * @param retailerUrl URL to hash
+     * @return 64-bit hash
+     */
+    public static long stableHash(String retailerUrl) {
+        byte[] bytes = normalize(retailerUrl).getBytes(StandardCharsets.UTF_8);
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : bytes) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Normalizes a URL so trivial differences (case, surrounding whitespace, trailing slash) do not move it
+     */
+    private static String normalize(String url) {
+        String normalized = url.trim().toLowerCase(Locale.ROOT);
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    /**
+     * Checks if this shard owns the retailer
+     * @param retailerUrl retailer URL
+     * @return true if the retailer belongs to this shard
+     */
+    public boolean accepts(String retailerUrl) {
+        return shardOf(retailerUrl, shardCount) == shardIndex;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public String toString() {
+        return "shard " + shardIndex + " of " + shardCount;
+    }
+}
@@ -0,0 +1,150 @@
+package Execution;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One sample of the machine's load: system load per CPU, available memory and the resident
+ * memory of the browsers and drivers started by this JVM. Figures that cannot be read on the
+ * current system are -1.
+ */
+public class SystemPressure {
+    private static final Logger log = LogManager.getLogger(SystemPressure.class);
+    private static final Path PROC = Paths.get("/proc");
+    private static final long PAGE_SIZE = 4096;
+
+    private final double loadPerCpu;
+    private final long availableMemoryBytes;
+    private final long sessionRssBytes;
+
+    /**
+     * Constructor for SystemPressure
+     * @param loadPerCpu one-minute load average divided by the number of CPUs, -1 if unknown
+     * @param availableMemoryBytes memory available to new processes without swapping, -1 if unknown
+     * @param sessionRssBytes resident memory of all descendant processes of this JVM, -1 if unknown
+     */
+    public SystemPressure(double loadPerCpu, long availableMemoryBytes, long sessionRssBytes) {
+        this.loadPerCpu = loadPerCpu;
+        this.availableMemoryBytes = availableMemoryBytes;
+        this.sessionRssBytes = sessionRssBytes;
+    }
+
+    /**
+     * Samples the current system, reading {@code /proc} where available
+     * @return current pressure
+     */
+    public static SystemPressure sample() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        double load = os.getSystemLoadAverage();
+        return new SystemPressure(load < 0 ? -1 : load / os.getAvailableProcessors(),
+                availableMemory(os), descendantRss());
+    }
+
+    /**
+     * Reads MemAvailable from /proc/meminfo, falling back to the free physical memory reported by the JVM
+     */
+    private static long availableMemory(OperatingSystemMXBean os) {
+        try {
+            for (String line : Files.readAllLines(PROC.resolve("meminfo"), StandardCharsets.US_ASCII)) {
+                if (line.startsWith("MemAvailable:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Cannot read /proc/meminfo: {}", e.getMessage());
+        }
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return freeMemory((com.sun.management.OperatingSystemMXBean) os);
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the free memory reported by the JVM through getFreeMemorySize, which replaced
+     * getFreePhysicalMemorySize in Java 14 and is looked up by name so the code still runs on Java 8
+     */
+    @SuppressWarnings("deprecation")
+    private static long freeMemory(com.sun.management.OperatingSystemMXBean os) {
+        try {
+            return (Long) com.sun.management.OperatingSystemMXBean.class.getMethod("getFreeMemorySize").invoke(os);
+        } catch (ReflectiveOperationException e) {
+            return os.getFreePhysicalMemorySize();
+        }
+    }
+
+    /**
+     * Sums the resident memory of all descendants of this JVM, i.e. the drivers and their browsers
+     */
+    private static long descendantRss() {
+        if (!Files.isDirectory(PROC)) {
+            return -1;
+        }
+        try {
+            int self = Integer.parseInt(Files.readSymbolicLink(PROC.resolve("self")).toString());
+            Map<Integer, List<Integer>> children = new HashMap<>();
+            Map<Integer, Long> rssPages = new HashMap<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(PROC, "[0-9]*")) {
+                for (Path entry : entries) {
+                    try {
+                        String stat = new String(Files.readAllBytes(entry.resolve("stat")), StandardCharsets.US_ASCII);
+                        // Fields after the command: 1 parent pid, 21 rss (pages)
+                        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+                        int pid = Integer.parseInt(entry.getFileName().toString());
+                        rssPages.put(pid, Long.parseLong(fields[21]));
+                        children.computeIfAbsent(Integer.parseInt(fields[1]), key -> new ArrayList<>()).add(pid);
+                    } catch (IOException | RuntimeException e) {
+                        // process exited while scanning
+                    }
+                }
+            }
+            long rss = 0;
+            Set<Integer> visited = new HashSet<>();
+            List<Integer> pending = new ArrayList<>(children.getOrDefault(self, new ArrayList<>()));
+            while (!pending.isEmpty()) {
+                int pid = pending.remove(pending.size() - 1);
+                if (visited.add(pid)) {
+                    rss += rssPages.getOrDefault(pid, 0L) * PAGE_SIZE;
+                    pending.addAll(children.getOrDefault(pid, new ArrayList<>()));
+                }
+            }
+            return rss;
+        } catch (IOException | RuntimeException e) {
+            log.debug("Cannot read process tree: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    public double getLoadPerCpu() {
+        return loadPerCpu;
+    }
+
+    public long getAvailableMemoryBytes() {
+        return availableMemoryBytes;
+    }
+
+    public long getSessionRssBytes() {
+        return sessionRssBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("loadPerCpu=%.2f availableMb=%d sessionRssMb=%d", loadPerCpu,
+                availableMemoryBytes < 0 ? -1 : availableMemoryBytes / (1024 * 1024),
+                sessionRssBytes < 0 ? -1 : sessionRssBytes / (1024 * 1024));
+    }
+}
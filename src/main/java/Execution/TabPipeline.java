@@ -0,0 +1,235 @@
+package Execution;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads upcoming pages in background tabs of one browser session.
+ *
+ * <p>While the current tab is being extracted, the pages of the next retailers load in other tabs
+ * of the same session, which costs a renderer per tab instead of a whole browser per concurrent
+ * retailer. A page is prefetched by opening a new tab and starting its navigation with a script,
+ * which returns without waiting for the load, after which the current tab is selected again.
+ * {@link #activate(String, Duration)} switches to the tab of a prefetched page once its document
+ * is complete and closes the tab that was current, so the session holds at most {@code maxTabs}
+ * tabs. A background tab may hold a {@link PolitenessScheduler.HostPermit} of its page's host,
+ * released when the tab is selected or closed, or through {@link #releasePermit(String)}.
+ * Not thread-safe; each pipeline belongs to the thread driving its session.</p>
+ */
+public class TabPipeline {
+    private static final Logger log = LogManager.getLogger(TabPipeline.class);
+
+    private final WebDriver webDriver;
+    private final int maxTabs;
+    // Prefetched URL to window handle, oldest first
+    private final Map<String, String> backgroundTabs = new LinkedHashMap<>();
+    // Host permits held by background tabs
+    private final Map<String, PolitenessScheduler.HostPermit> permits = new HashMap<>();
+    private long prefetched;
+    private long hits;
+    private long readyOnActivate;
+    private long discarded;
+    private long waitNanos;
+
+    /**
+     * Constructor for TabPipeline
+     * @param webDriver session whose tabs are managed
+     * @param maxTabs tabs the session may hold, the current one included; at least two
+     */
+    public TabPipeline(WebDriver webDriver, int maxTabs) {
+        if (maxTabs < 2) {
+            throw new IllegalArgumentException("A tab pipeline needs at least two tabs");
+        }
+        this.webDriver = webDriver;
+        this.maxTabs = maxTabs;
+    }
+
+    /**
+     * @return true if another page can be prefetched without exceeding the tab limit
+     */
+    public boolean hasCapacity() {
+        return backgroundTabs.size() < maxTabs - 1;
+    }
+
+    /**
+     * @param url page URL
+     * @return true if the page is loading or loaded in a background tab
+     */
+    public boolean isPrefetched(String url) {
+        return backgroundTabs.containsKey(url);
+    }
+
+    /**
+     * Starts loading a page in a new background tab, keeping the current tab selected
+     * @param url page URL
+     * @return false if the page is already prefetched or the tab limit is reached
+     */
+    public boolean prefetch(String url) {
+        return prefetch(url, null);
+    }
+
+    /**
+     * Starts loading a page in a new background tab that holds a host permit until it is selected or closed
+     * @param url page URL
+     * @param permit permit of the page's host, released right away if the page is not prefetched; may be null
+     * @return false if the page is already prefetched or the tab limit is reached
+     */
+    public boolean prefetch(String url, PolitenessScheduler.HostPermit permit) {
+        if (isPrefetched(url) || !hasCapacity()) {
+            release(permit);
+            return false;
+        }
+        String handle;
+        try {
+            String current = webDriver.getWindowHandle();
+            webDriver.switchTo().newWindow(WindowType.TAB);
+            handle = webDriver.getWindowHandle();
+            try {
+                ((JavascriptExecutor) webDriver).executeScript("window.location.href = arguments[0];", url);
+            } finally {
+                webDriver.switchTo().window(current);
+            }
+        } catch (RuntimeException e) {
+            release(permit);
+            throw e;
+        }
+        backgroundTabs.put(url, handle);
+        if (permit != null) {
+            permits.put(url, permit);
+        }
+        prefetched++;
+        log.debug("Prefetching {} in a background tab", url);
+        return true;
+    }
+
+    /**
+     * Selects the tab of a prefetched page once its document is complete and closes the tab that was current
+     * @param url page URL
+     * @param timeout maximum wait for the page to finish loading
+     * @return false if the page was not prefetched, leaving the current tab selected
+     * @throws org.openqa.selenium.TimeoutException if the page does not finish loading in time
+     */
+    public boolean activate(String url, Duration timeout) {
+        String handle = backgroundTabs.remove(url);
+        if (handle == null) {
+            return false;
+        }
+        releasePermit(url);
+        long start = System.nanoTime();
+        webDriver.close();
+        webDriver.switchTo().window(handle);
+        if (isComplete()) {
+            readyOnActivate++;
+        } else {
+            new WebDriverWait(webDriver, timeout).until(driver -> isComplete());
+        }
+        hits++;
+        waitNanos += System.nanoTime() - start;
+        log.debug("Switched to prefetched tab of {}", url);
+        return true;
+    }
+
+    private boolean isComplete() {
+        return "complete".equals(((JavascriptExecutor) webDriver).executeScript("return document.readyState;"));
+    }
+
+    /**
+     * Closes the background tabs of pages that are no longer expected, e.g. taken by another session
+     * @param expected URLs whose tabs are kept
+     */
+    public void retainOnly(Collection<String> expected) {
+        List<String> stale = new ArrayList<>();
+        for (String url : backgroundTabs.keySet()) {
+            if (!expected.contains(url)) {
+                stale.add(url);
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+        String current = webDriver.getWindowHandle();
+        try {
+            for (String url : stale) {
+                releasePermit(url);
+                webDriver.switchTo().window(backgroundTabs.remove(url)).close();
+                discarded++;
+            }
+        } finally {
+            webDriver.switchTo().window(current);
+        }
+        log.debug("Closed {} unused background tab(s)", stale.size());
+    }
+
+    /**
+     * Releases the host permit held by the background tab of a page, keeping the tab
+     * @param url page URL
+     */
+    public void releasePermit(String url) {
+        release(permits.remove(url));
+    }
+
+    /**
+     * Releases the host permits of all background tabs, e.g. when the session quits
+     */
+    public void releasePermits() {
+        for (PolitenessScheduler.HostPermit permit : permits.values()) {
+            permit.close();
+        }
+        permits.clear();
+    }
+
+    private static void release(PolitenessScheduler.HostPermit permit) {
+        if (permit != null) {
+            permit.close();
+        }
+    }
+
+    public int getMaxTabs() {
+        return maxTabs;
+    }
+
+    public long getPrefetched() {
+        return prefetched;
+    }
+
+    /**
+     * @return number of navigations served by a prefetched tab
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of hits whose page had finished loading when it was selected
+     */
+    public long getReadyOnActivate() {
+        return readyOnActivate;
+    }
+
+    public long getDiscarded() {
+        return discarded;
+    }
+
+    public long getWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("maxTabs=%d prefetched=%d hits=%d ready=%d discarded=%d wait=%dms",
+                maxTabs, prefetched, hits, readyOnActivate, discarded, getWaitMillis());
+    }
+}
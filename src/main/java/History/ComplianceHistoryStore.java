@@ -0,0 +1,507 @@
+package History;
+
+import Execution.FailureClass;
+import Execution.RetailerResult;
+import Pages.ContactDetails;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded, append-only store of retailer results across runs.
+ *
+ * <p>Records are appended to fixed-size memory-mapped segment files. Every record carries the
+ * position of the previous record of the same retailer, so the history of one retailer is a
+ * backward linked chain through the segments. The only heap structure is a small index that maps
+ * each retailer to the head of its chain; it is persisted on {@link #flush()} and rebuilt by
+ * scanning record headers if it is missing or stale.</p>
+ *
+ * <p>Queries walk the chain reading fixed-offset header fields straight from the mapped pages and
+ * decode full records only for the results they return. A store directory may be written by one
+ * process at a time; concurrent appends from threads of that process are serialized.</p>
+ */
+public class ComplianceHistoryStore implements Closeable {
+    private static final Logger log = LogManager.getLogger(ComplianceHistoryStore.class);
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final String SEGMENT_FORMAT = "segment-%05d.dat";
+    private static final String INDEX_FILE = "index.dat";
+    private static final String LOCK_FILE = "store.lock";
+    private static final int INDEX_MAGIC = 0x43484953;
+    private static final int INDEX_VERSION = 1;
+
+    // Record layout; the length is written last so a torn append reads as end of segment
+    private static final int LENGTH_OFFSET = 0;
+    private static final int TIMESTAMP_OFFSET = 4;
+    private static final int RUN_ID_OFFSET = 12;
+    private static final int PREVIOUS_OFFSET = 20;
+    private static final int DURATION_OFFSET = 28;
+    private static final int VERDICT_OFFSET = 36;
+    private static final int FLAGS_OFFSET = 37;
+    private static final int HEADER_SIZE = 38;
+    private static final int NO_RECORD = -1;
+
+    private static final int ADDRESS_VALID = 1;
+    private static final int PHONE_VALID = 2;
+    private static final int HOURS_VALID = 4;
+    private static final int FAILURE_CLASS_SHIFT = 3;
+    private static final int FAILURE_CLASS_MASK = 3;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final Map<String, Long> heads = new ConcurrentHashMap<>();
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private volatile MappedByteBuffer[] segmentView = new MappedByteBuffer[0];
+    private volatile long endPosition;
+
+    /**
+     * Opens or creates a store with the default segment size
+     * @param directory store directory
+     * @throws IOException if the store cannot be opened
+     */
+    public ComplianceHistoryStore(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens or creates a store
+     * @param directory store directory
+     * @param segmentSize size in bytes of newly created segment files
+     * @throws IOException if the store cannot be opened
+     * @throws IllegalStateException if another process holds the store
+     */
+    public ComplianceHistoryStore(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE * 4) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("History store is in use by another process: " + directory);
+        }
+        mapExistingSegments();
+        long recoverFrom = loadIndex();
+        endPosition = scan(recoverFrom);
+        log.info("Opened history store {} with {} retailers", directory, heads.size());
+    }
+
+    /**
+     * Appends one result
+     * @param runId identifier of the run
+     * @param timestamp epoch milliseconds of the result
+     * @param result retailer result
+     * @throws IOException if a new segment cannot be created
+     */
+    public synchronized void append(long runId, long timestamp, RetailerResult result) throws IOException {
+        ContactDetails rolex = result.getRolexDetails();
+        ContactDetails retailer = result.getRetailerDetails();
+        byte[][] strings = {
+                encode(result.getRetailerUrl()),
+                encode(result.getRolexUrl()),
+                encode(result.getError()),
+                encode(rolex != null ? rolex.getAddress() : null),
+                encode(rolex != null ? rolex.getPhoneNumber() : null),
+                encode(rolex != null ? rolex.getOpeningHours() : null),
+                encode(retailer != null ? retailer.getAddress() : null),
+                encode(retailer != null ? retailer.getPhoneNumber() : null),
+                encode(retailer != null ? retailer.getOpeningHours() : null)
+        };
+        int length = HEADER_SIZE;
+        for (byte[] string : strings) {
+            length += 4 + (string != null ? string.length : 0);
+        }
+        // Keep four zero bytes after the last record of a segment as end marker
+        if (length + 4 > segmentSize) {
+            throw new IllegalArgumentException("Record of " + length + " bytes exceeds segment size");
+        }
+
+        int segment = segmentOf(endPosition);
+        int offset = offsetOf(endPosition);
+        if (segment >= segments.size() || offset + length + 4 > segments.get(segment).capacity()) {
+            segment = segments.size();
+            offset = 0;
+            addSegment(segment);
+        }
+
+        ByteBuffer buffer = segments.get(segment).duplicate();
+        buffer.position(offset + TIMESTAMP_OFFSET);
+        buffer.putLong(timestamp);
+        buffer.putLong(runId);
+        buffer.putLong(heads.getOrDefault(result.getRetailerUrl(), (long) NO_RECORD));
+        buffer.putLong(result.getDurationMillis());
+        buffer.put((byte) result.getVerdict().ordinal());
+        buffer.put((byte) ((result.isAddressValid() ? ADDRESS_VALID : 0)
+                | (result.isPhoneValid() ? PHONE_VALID : 0)
+                | (result.isHoursValid() ? HOURS_VALID : 0)
+                | (result.getFailureClass() != null ? result.getFailureClass().ordinal() + 1 : 0) << FAILURE_CLASS_SHIFT));
+        for (byte[] string : strings) {
+            buffer.putInt(string != null ? string.length : NO_RECORD);
+            if (string != null) {
+                buffer.put(string);
+            }
+        }
+        buffer.putInt(offset + LENGTH_OFFSET, length);
+
+        long position = position(segment, offset);
+        heads.put(result.getRetailerUrl(), position);
+        endPosition = position(segment, offset + length);
+    }
+
+    /**
+     * Gets the most recent verdict of a retailer
+     * @param retailerUrl retailer key
+     * @return last verdict, or null if the retailer has no history
+     */
+    public RetailerResult.Verdict lastVerdict(String retailerUrl) {
+        Long head = heads.get(retailerUrl);
+        return head == null ? null : verdictAt(head);
+    }
+
+    /**
+     * Gets the time of the most recent record of a retailer
+     * @param retailerUrl retailer key
+     * @return epoch milliseconds of the last record, or -1 if the retailer has no history
+     */
+    public long lastTimestamp(String retailerUrl) {
+        Long head = heads.get(retailerUrl);
+        return head == null ? NO_RECORD : longAt(head, TIMESTAMP_OFFSET);
+    }
+
+    /**
+     * Gets the most recent record of a retailer
+     * @param retailerUrl retailer key
+     * @return last record, or null if the retailer has no history
+     */
+    public HistoryRecord last(String retailerUrl) {
+        Long head = heads.get(retailerUrl);
+        return head == null ? null : decode(head);
+    }
+
+    /**
+     * Finds the earliest failing record of a retailer at or after a point in time
+     * @param retailerUrl retailer key
+     * @param sinceMillis epoch milliseconds
+     * @return earliest non-passing record since the given time, or null if there is none
+     */
+    public HistoryRecord firstFailureSince(String retailerUrl, long sinceMillis) {
+        Long head = heads.get(retailerUrl);
+        long earliest = NO_RECORD;
+        for (long position = head == null ? NO_RECORD : head; position != NO_RECORD;
+             position = longAt(position, PREVIOUS_OFFSET)) {
+            if (longAt(position, TIMESTAMP_OFFSET) < sinceMillis) {
+                break;
+            }
+            if (verdictAt(position) != RetailerResult.Verdict.PASS) {
+                earliest = position;
+            }
+        }
+        return earliest == NO_RECORD ? null : decode(earliest);
+    }
+
+    /**
+     * Gets the records of a retailer within a time range, most recent first
+     * @param retailerUrl retailer key
+     * @param fromMillis inclusive start, epoch milliseconds
+     * @param toMillis inclusive end, epoch milliseconds
+     * @return matching records
+     */
+    public List<HistoryRecord> history(String retailerUrl, long fromMillis, long toMillis) {
+        List<HistoryRecord> records = new ArrayList<>();
+        Long head = heads.get(retailerUrl);
+        for (long position = head == null ? NO_RECORD : head; position != NO_RECORD;
+             position = longAt(position, PREVIOUS_OFFSET)) {
+            long timestamp = longAt(position, TIMESTAMP_OFFSET);
+            if (timestamp < fromMillis) {
+                break;
+            }
+            if (timestamp <= toMillis) {
+                records.add(decode(position));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Finds retailers whose verdict switched between passing and not passing repeatedly
+     * @param fromMillis inclusive start of the window, epoch milliseconds
+     * @param toMillis inclusive end of the window, epoch milliseconds
+     * @param minTransitions minimum number of verdict changes to report a retailer
+     * @return flapping retailers, most transitions first
+     */
+    public List<FlappingRetailer> flappingRetailers(long fromMillis, long toMillis, int minTransitions) {
+        List<FlappingRetailer> flapping = new ArrayList<>();
+        for (Map.Entry<String, Long> head : heads.entrySet()) {
+            int transitions = 0;
+            int runs = 0;
+            Boolean newerPassed = null;
+            for (long position = head.getValue(); position != NO_RECORD;
+                 position = longAt(position, PREVIOUS_OFFSET)) {
+                long timestamp = longAt(position, TIMESTAMP_OFFSET);
+                if (timestamp < fromMillis) {
+                    break;
+                }
+                if (timestamp > toMillis) {
+                    continue;
+                }
+                boolean passed = verdictAt(position) == RetailerResult.Verdict.PASS;
+                if (newerPassed != null && newerPassed != passed) {
+                    transitions++;
+                }
+                newerPassed = passed;
+                runs++;
+            }
+            if (transitions >= minTransitions) {
+                flapping.add(new FlappingRetailer(head.getKey(), transitions, runs));
+            }
+        }
+        flapping.sort((a, b) -> Integer.compare(b.getTransitions(), a.getTransitions()));
+        return flapping;
+    }
+
+    /**
+     * Gets the number of retailers with history
+     * @return number of retailers
+     */
+    public int retailerCount() {
+        return heads.size();
+    }
+
+    /**
+     * Gets the retailers that have history
+     * @return unmodifiable view of retailer keys
+     */
+    public Set<String> retailers() {
+        return Collections.unmodifiableSet(heads.keySet());
+    }
+
+    /**
+     * Forces appended records to disk and persists the index
+     * @throws IOException if the index cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        Path temporary = directory.resolve(INDEX_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(INDEX_VERSION);
+            out.writeLong(endPosition);
+            out.writeInt(heads.size());
+            for (Map.Entry<String, Long> head : heads.entrySet()) {
+                out.writeUTF(head.getKey());
+                out.writeLong(head.getValue());
+            }
+        }
+        Files.move(temporary, directory.resolve(INDEX_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            lock.release();
+            lockChannel.close();
+            log.info("Closed history store {}", directory);
+        }
+    }
+
+    /**
+     * Maps every existing segment file in order
+     */
+    private void mapExistingSegments() throws IOException {
+        for (int segment = 0; ; segment++) {
+            Path file = directory.resolve(String.format(SEGMENT_FORMAT, segment));
+            if (!Files.exists(file)) {
+                break;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+            }
+        }
+        segmentView = segments.toArray(new MappedByteBuffer[0]);
+    }
+
+    /**
+     * Creates and maps a new zero-filled segment
+     */
+    private void addSegment(int segment) throws IOException {
+        Path file = directory.resolve(String.format(SEGMENT_FORMAT, segment));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+        segmentView = segments.toArray(new MappedByteBuffer[0]);
+        log.info("Created history segment {}", file);
+    }
+
+    /**
+     * Loads the persisted index
+     * @return position from which records must be rescanned
+     */
+    private long loadIndex() {
+        Path file = directory.resolve(INDEX_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+                log.warn("Ignoring history index with unknown format");
+                return 0;
+            }
+            long indexedEnd = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                heads.put(in.readUTF(), in.readLong());
+            }
+            return indexedEnd;
+        } catch (IOException e) {
+            log.warn("Rebuilding unreadable history index: {}", e.getMessage());
+            heads.clear();
+            return 0;
+        }
+    }
+
+    /**
+     * Walks record headers from a position to the end of the store, updating chain heads
+     * @param from position to start at
+     * @return position after the last record
+     */
+    private long scan(long from) {
+        if (from != 0 && segmentOf(from) >= segments.size()) {
+            heads.clear();
+            from = 0;
+        }
+        long end = from;
+        for (int segment = segmentOf(from); segment < segments.size(); segment++) {
+            MappedByteBuffer buffer = segments.get(segment);
+            int offset = segment == segmentOf(from) ? offsetOf(from) : 0;
+            while (offset + HEADER_SIZE <= buffer.capacity()) {
+                int length = buffer.getInt(offset + LENGTH_OFFSET);
+                if (length <= 0) {
+                    break;
+                }
+                long position = position(segment, offset);
+                heads.put(stringAt(position, 0), position);
+                offset += length;
+            }
+            end = position(segment, offset);
+        }
+        return end;
+    }
+
+    /**
+     * Decodes a complete record
+     */
+    private HistoryRecord decode(long position) {
+        String[] strings = new String[9];
+        ByteBuffer buffer = segmentView[segmentOf(position)].duplicate();
+        buffer.position(offsetOf(position) + HEADER_SIZE);
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            if (length != NO_RECORD) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        int flags = segmentView[segmentOf(position)].get(offsetOf(position) + FLAGS_OFFSET);
+        RetailerResult result = new RetailerResult(strings[0], strings[1],
+                (flags & ADDRESS_VALID) != 0,
+                (flags & PHONE_VALID) != 0,
+                (flags & HOURS_VALID) != 0,
+                strings[2],
+                longAt(position, DURATION_OFFSET),
+                details(strings[3], strings[4], strings[5]),
+                details(strings[6], strings[7], strings[8]),
+                failureClass(flags));
+        return new HistoryRecord(longAt(position, RUN_ID_OFFSET), longAt(position, TIMESTAMP_OFFSET), result);
+    }
+
+    /**
+     * Reads the string at the given index of a record, skipping the strings before it
+     */
+    private String stringAt(long position, int index) {
+        ByteBuffer buffer = segmentView[segmentOf(position)].duplicate();
+        buffer.position(offsetOf(position) + HEADER_SIZE);
+        for (int i = 0; i < index; i++) {
+            int length = buffer.getInt();
+            if (length != NO_RECORD) {
+                buffer.position(buffer.position() + length);
+            }
+        }
+        int length = buffer.getInt();
+        if (length == NO_RECORD) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static FailureClass failureClass(int flags) {
+        int failureClass = (flags >> FAILURE_CLASS_SHIFT) & FAILURE_CLASS_MASK;
+        return failureClass == 0 ? null : FailureClass.values()[failureClass - 1];
+    }
+
+    private static ContactDetails details(String address, String phoneNumber, String openingHours) {
+        if (address == null && phoneNumber == null && openingHours == null) {
+            return null;
+        }
+        return new ContactDetails(address, phoneNumber, openingHours);
+    }
+
+    private RetailerResult.Verdict verdictAt(long position) {
+        return RetailerResult.Verdict.values()[segmentView[segmentOf(position)].get(offsetOf(position) + VERDICT_OFFSET)];
+    }
+
+    private long longAt(long position, int fieldOffset) {
+        return segmentView[segmentOf(position)].getLong(offsetOf(position) + fieldOffset);
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long position(int segment, int offset) {
+        return ((long) segment << 32) | (offset & 0xffffffffL);
+    }
+
+    private static int segmentOf(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int offsetOf(long position) {
+        return (int) position;
+    }
+}
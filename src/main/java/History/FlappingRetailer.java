@@ -0,0 +1,39 @@
+package History;
+
+/**
+ * A retailer whose verdict changed repeatedly within a time window
+ */
+public class FlappingRetailer {
+    private final String retailerUrl;
+    private final int transitions;
+    private final int runs;
+
+    /**
+     * Constructor for FlappingRetailer
+     * @param retailerUrl retailer key
+     * @param transitions number of pass/fail verdict changes in the window
+     * @param runs number of recorded runs in the window
+     */
+    public FlappingRetailer(String retailerUrl, int transitions, int runs) {
+        this.retailerUrl = retailerUrl;
+        this.transitions = transitions;
+        this.runs = runs;
+    }
+
+    public String getRetailerUrl() {
+        return retailerUrl;
+    }
+
+    public int getTransitions() {
+        return transitions;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s flipped %d times in %d runs", retailerUrl, transitions, runs);
+    }
+}
@@ -0,0 +1,45 @@
+package History;
+
+import Execution.RetailerResult;
+
+/**
+ * One retailer result as stored in the compliance history
+ */
+public class HistoryRecord {
+    private final long runId;
+    private final long timestamp;
+    private final RetailerResult result;
+
+    /**
+     * Constructor for HistoryRecord
+     * @param runId identifier of the run that produced the result
+     * @param timestamp epoch milliseconds at which the result was recorded
+     * @param result retailer result
+     */
+    public HistoryRecord(long runId, long timestamp, RetailerResult result) {
+        this.runId = runId;
+        this.timestamp = timestamp;
+        this.result = result;
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public RetailerResult getResult() {
+        return result;
+    }
+
+    public RetailerResult.Verdict getVerdict() {
+        return result.getVerdict();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("run %d at %d: %s", runId, timestamp, result);
+    }
+}
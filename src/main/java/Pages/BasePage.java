@@ -1,5 +1,7 @@
 package Pages;
 
+import Constants.Constants;
+import Execution.Deadline;
 import Utilities.ScreenshotUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -10,6 +12,8 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 
 import static org.apache.logging.log4j.LogManager.*;
 
@@ -18,7 +22,6 @@ import static org.apache.logging.log4j.LogManager.*;
  */
 public class BasePage {
     protected WebDriver driver;
-    protected WebDriverWait wait;
     protected CookieBanner cookieBanner;
     protected JavascriptExecutor js;
     protected ScreenshotUtils screenshotUtils;
@@ -35,7 +38,7 @@ public class BasePage {
             throw new IllegalArgumentException("Driver instance cannot be null");
         }
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT));
+        applyDeadline();
         this.cookieBanner = new CookieBanner(driver);
         log.info("Base page initialized");
         this.js = (JavascriptExecutor) driver;
@@ -44,6 +47,24 @@ public class BasePage {
 
     }
 
+    /**
+     * Creates a wait of the default timeout, limited to the remaining budget of the current retailer
+     * @return new wait
+     */
+    protected WebDriverWait newWait() {
+        return new WebDriverWait(driver, Deadline.capped(Duration.ofSeconds(DEFAULT_TIMEOUT)));
+    }
+
+    /**
+     * Limits the implicit wait of element lookups to the remaining budget of the current retailer, if one is running
+     */
+    protected void applyDeadline() {
+        if (Deadline.current() != null) {
+            driver.manage().timeouts().implicitlyWait(
+                    Deadline.capped(Duration.ofSeconds(Constants.Browser.IMPLICIT_WAIT_SECONDS)));
+        }
+    }
+
     /**
      * Waits for element to be clickable
      * @param element WebElement to wait for
@@ -52,9 +73,14 @@ public class BasePage {
     protected WebElement waitForElementClickable(WebElement element) {
         try {
             log.info("Waiting for element to be clickable");
-            return wait.until(ExpectedConditions.elementToBeClickable(element));
+            Deadline.Phase waits = Deadline.phase("waits");
+            try {
+                return newWait().until(ExpectedConditions.elementToBeClickable(element));
+            } finally {
+                waits.end();
+            }
         } catch (Exception e) {
-            log.error("Element not clickable: " + e.getMessage());
+            log.error("Element not clickable: {}", e.getMessage());
             throw e;
         }
     }
@@ -66,21 +92,50 @@ public class BasePage {
      */
     protected void waitForElementPresence(WebElement element, String elementName) {
         try {
-            log.info("Waiting for element presence: " + elementName);
+            log.info("Waiting for element presence: {}", elementName);
+            Deadline.checkCurrent(elementName);
+            applyDeadline();
 
             // Wait for element visibility
-            wait.until(ExpectedConditions.visibilityOf(element));
+            Deadline.Phase waits = Deadline.phase("waits");
+            try {
+                newWait().until(ExpectedConditions.visibilityOf(element));
+            } finally {
+                waits.end();
+            }
 
             // Capture screenshot with highlight
             screenshotUtils.captureElementScreenshot(element, elementName);
 
         } catch (Exception e) {
-            log.error("Element not present: " + elementName + " - " + e.getMessage());
+            log.error("Element not present: {} - {}", elementName, e.getMessage());
+            if (ScreenshotUtils.getPolicy() == ScreenshotUtils.Policy.ON_FAILURE) {
+                screenshotUtils.captureFailureScreenshot(elementName);
+            }
             throw e;
         }
     }
 
 
+    /**
+     * Reads the locations described by schema.org structured data in the page source, so that
+     * contact details can be taken without waiting for the rendered elements. Disabled with
+     * {@code -Dextraction.structuredData=false}.
+     * @return locations with address, phone number and opening hours all given, empty if none or disabled
+     */
+    protected List<ContactDetails> getCompleteStructuredData() {
+        if (!Boolean.parseBoolean(System.getProperty(Constants.Extraction.STRUCTURED_DATA_PROPERTY, "true"))) {
+            return Collections.emptyList();
+        }
+        try {
+            List<ContactDetails> locations = StructuredDataExtractor.extractComplete(driver.getPageSource());
+            log.info("Structured data lists {} complete location(s)", locations.size());
+            return locations;
+        } catch (Exception e) {
+            log.warn("Failed to read structured data: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
 
     /**
      * Handles cookie consent banner if present on the page
@@ -91,7 +146,7 @@ public class BasePage {
             try {
                 cookieBanner.acceptAllCookies();
             } catch (Exception e) {
-                log.error("Failed to handle cookie consent: " + e.getMessage());
+                log.error("Failed to handle cookie consent: {}", e.getMessage());
                 throw e;
             }
         }
@@ -108,7 +163,7 @@ public class BasePage {
             log.info("Page load check completed");
             return loaded;
         } catch (Exception e) {
-            log.error("Error checking page load status: " + e.getMessage());
+            log.error("Error checking page load status: {}", e.getMessage());
             return false;
         }
     }
@@ -120,10 +175,10 @@ public class BasePage {
     public String getCurrentUrl() {
         try {
             String url = driver.getCurrentUrl();
-            log.info("Current URL: " + url);
+            log.info("Current URL: {}", url);
             return url;
         } catch (Exception e) {
-            log.error("Error getting current URL: " + e.getMessage());
+            log.error("Error getting current URL: {}", e.getMessage());
             throw e;
         }
     }
@@ -135,10 +190,10 @@ public class BasePage {
     public String getPageTitle() {
         try {
             String title = driver.getTitle();
-            log.info("Page title: " + title);
+            log.info("Page title: {}", title);
             return title;
         } catch (Exception e) {
-            log.error("Error getting page title: " + e.getMessage());
+            log.error("Error getting page title: {}", e.getMessage());
             throw e;
         }
     }
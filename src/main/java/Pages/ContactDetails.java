@@ -0,0 +1,39 @@
+package Pages;
+
+/**
+ * Immutable contact information captured from a contact page
+ */
+public class ContactDetails {
+    private final String address;
+    private final String phoneNumber;
+    private final String openingHours;
+
+    /**
+     * Constructor for ContactDetails
+     * @param address address text
+     * @param phoneNumber phone number text
+     * @param openingHours opening hours text
+     */
+    public ContactDetails(String address, String phoneNumber, String openingHours) {
+        this.address = address;
+        this.phoneNumber = phoneNumber;
+        this.openingHours = openingHours;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public String getOpeningHours() {
+        return openingHours;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("address='%s' phone='%s' hours='%s'", address, phoneNumber, openingHours);
+    }
+}
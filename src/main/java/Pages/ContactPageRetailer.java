@@ -2,6 +2,7 @@ package Pages;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindAll;
@@ -10,9 +11,40 @@ import org.openqa.selenium.support.PageFactory;
 
 import Constants.Constants;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class ContactPageRetailer extends BasePage {
     private static final Logger log = LogManager.getLogger(ContactPageRetailer.class);
 
+    /**
+     * Locator strategies of the {@code @FindAll} fields, in the same order, used to find every location of a page.
+     * The generic {@code p[class*='body']} address strategy is left out, since it matches ordinary
+     * paragraphs that would be paired with phone numbers as locations.
+     */
+    private static final By[] ADDRESS_LOCATORS = {
+            By.cssSelector("div[class*='address']"),
+            By.cssSelector("span[class*='address']"),
+            By.xpath("//div[contains(@class, 'location')]//p"),
+            By.xpath("//div[contains(@class, 'contact-info')]//address")
+    };
+    private static final By[] PHONE_LOCATORS = {
+            By.cssSelector("a[href*='tel:']"),
+            By.cssSelector("span[class*='phone']"),
+            By.cssSelector("div[class*='phone']"),
+            By.xpath("//p[contains(@class, 'phone')]"),
+            By.xpath("//div[contains(@class, 'contact')]//a[contains(@href, 'tel')]")
+    };
+    private static final By[] HOURS_LOCATORS = {
+            By.cssSelector("div[class*='hours']"),
+            By.cssSelector("p[class*='hours']"),
+            By.cssSelector("div[class*='timing']"),
+            By.xpath("//div[contains(@class, 'store-hours')]"),
+            By.xpath("//div[contains(@class, 'opening-times')]")
+    };
+
 
     /**
      * Constructor for ContactPageRetailer
@@ -63,6 +95,31 @@ public class ContactPageRetailer extends BasePage {
     })
     private WebElement openingHoursElement;
 
+    private By addressLocator;
+    private By numberLocator;
+    private By openingHoursLocator;
+
+    /**
+     * Replaces the default locator strategies with retailer specific CSS selectors
+     * @param addressCss CSS selector of the address, null to keep the defaults
+     * @param phoneCss CSS selector of the phone number, null to keep the defaults
+     * @param hoursCss CSS selector of the opening hours, null to keep the defaults
+     * @return this page
+     */
+    public ContactPageRetailer withLocators(String addressCss, String phoneCss, String hoursCss) {
+        addressLocator = addressCss != null ? By.cssSelector(addressCss) : null;
+        numberLocator = phoneCss != null ? By.cssSelector(phoneCss) : null;
+        openingHoursLocator = hoursCss != null ? By.cssSelector(hoursCss) : null;
+        return this;
+    }
+
+    /**
+     * Resolves an element through its override locator when one is set
+     */
+    private WebElement element(By override, WebElement defaultElement) {
+        return override != null ? driver.findElement(override) : defaultElement;
+    }
+
     /**
      * Gets the address text from the page
      * @return String containing address
@@ -70,7 +127,7 @@ public class ContactPageRetailer extends BasePage {
     public String getAddress() {
         try {
             log.info("Attempting to get retailer address");
-            String address = addressElement.getText();
+            String address = element(addressLocator, addressElement).getText();
             log.info("Retrieved retailer address: {}", address);
             return address;
         } catch (Exception e) {
@@ -86,7 +143,7 @@ public class ContactPageRetailer extends BasePage {
     public String getPhoneNumber() {
         try {
             log.info("Attempting to get retailer phone number");
-            String phoneNumber = numberElement.getText();
+            String phoneNumber = element(numberLocator, numberElement).getText();
             log.info("Retrieved retailer phone number: {}", phoneNumber);
             return phoneNumber;
         } catch (Exception e) {
@@ -102,7 +159,7 @@ public class ContactPageRetailer extends BasePage {
     public String getOpeningHours() {
         try {
             log.info("Attempting to get retailer opening hours");
-            String hours = openingHoursElement.getText();
+            String hours = element(openingHoursLocator, openingHoursElement).getText();
             log.info("Retrieved retailer opening hours: {}", hours);
             return hours;
         } catch (Exception e) {
@@ -111,6 +168,73 @@ public class ContactPageRetailer extends BasePage {
         }
     }
 
+    /**
+     * Gets every location listed on the page. Addresses, phone numbers and opening hours are
+     * paired by their position on the page; when the page lists fewer phone numbers or opening
+     * hours than addresses, the first one is shared by all locations.
+     * @return locations in page order, a single location when the page lists one address
+     */
+    public List<ContactDetails> getLocations() {
+        try {
+            log.info("Attempting to get all retailer locations");
+            List<WebElement> addresses = findAll(addressLocator, ADDRESS_LOCATORS);
+            if (addresses.size() <= 1) {
+                return Collections.singletonList(new ContactDetails(getAddress(), getPhoneNumber(), getOpeningHours()));
+            }
+            List<WebElement> phoneNumbers = findAll(numberLocator, PHONE_LOCATORS);
+            List<WebElement> openingHours = findAll(openingHoursLocator, HOURS_LOCATORS);
+            List<ContactDetails> locations = new ArrayList<>(addresses.size());
+            for (int i = 0; i < addresses.size(); i++) {
+                locations.add(new ContactDetails(addresses.get(i).getText(),
+                        text(phoneNumbers, i), text(openingHours, i)));
+            }
+            log.info("Retrieved {} retailer locations", locations.size());
+            return locations;
+        } catch (Exception e) {
+            log.error("Failed to get retailer locations: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Gets every location described by the structured data of the page
+     * @return locations whose details are all given, empty to fall back to the page elements
+     */
+    public List<ContactDetails> getStructuredLocations() {
+        return getCompleteStructuredData();
+    }
+
+    /**
+     * Finds all elements of the override locator, or of the first default strategy that matches.
+     * The implicit wait is suspended so that strategies without matches fail immediately.
+     */
+    private List<WebElement> findAll(By override, By[] defaults) {
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        Duration implicitWait = timeouts.getImplicitWaitTimeout();
+        timeouts.implicitlyWait(Duration.ZERO);
+        try {
+            if (override != null) {
+                return driver.findElements(override);
+            }
+            for (By locator : defaults) {
+                List<WebElement> elements = driver.findElements(locator);
+                if (!elements.isEmpty()) {
+                    return elements;
+                }
+            }
+            return Collections.emptyList();
+        } finally {
+            timeouts.implicitlyWait(implicitWait);
+        }
+    }
+
+    private static String text(List<WebElement> elements, int index) {
+        if (elements.isEmpty()) {
+            return null;
+        }
+        return elements.get(index < elements.size() ? index : 0).getText();
+    }
+
     /**
      * Checks if all contact information elements are displayed
      * @return boolean indicating if all elements are displayed
@@ -132,9 +256,9 @@ public class ContactPageRetailer extends BasePage {
     public boolean waitForContactDetails() {
         try {
             log.info("Waiting for retailer contact details to be visible");
-            waitForElementPresence(addressElement, Constants.Elements.RETAILER_ADDRESS);
-            waitForElementPresence(numberElement, Constants.Elements.RETAILER_PHONE_NUMBER);
-            waitForElementPresence(openingHoursElement, Constants.Elements.RETAILER_OPENING_HOURS);
+            waitForElementPresence(element(addressLocator, addressElement), Constants.Elements.RETAILER_ADDRESS);
+            waitForElementPresence(element(numberLocator, numberElement), Constants.Elements.RETAILER_PHONE_NUMBER);
+            waitForElementPresence(element(openingHoursLocator, openingHoursElement), Constants.Elements.RETAILER_OPENING_HOURS);
             log.info("All retailer contact details are now visible");
             return true;
         } catch (Exception e) {
@@ -9,6 +9,8 @@ import org.openqa.selenium.support.FindAll;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 
+import java.util.List;
+
 /**
  * Page Object class representing the Contact Page for Rolex website.
  * This class contains all the web elements and methods specific to the Rolex contact page.
@@ -114,6 +116,15 @@ public class ContactPageRolex extends BasePage {
         }
     }
 
+    /**
+     * Gets the contact details from the structured data of the page
+     * @return first location whose details are all given, or null to fall back to the page elements
+     */
+    public ContactDetails getStructuredDetails() {
+        List<ContactDetails> locations = getCompleteStructuredData();
+        return locations.isEmpty() ? null : locations.get(0);
+    }
+
     /**
      * Checks if all contact information elements are displayed
      * @return boolean indicating if all elements are displayed
@@ -1,5 +1,6 @@
 package Pages;
 
+import Execution.Deadline;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
@@ -19,7 +20,7 @@ import java.time.Duration;
 public class CookieBanner {
     private static final Logger log = LogManager.getLogger(CookieBanner.class);
     private static final int COOKIE_TIMEOUT = 10;
-    private final WebDriverWait cookieWait;
+    private final WebDriver driver;
 
 
     // Page elements using PageFactory annotations
@@ -64,17 +65,24 @@ public class CookieBanner {
      */
     public CookieBanner(WebDriver driver) {
         PageFactory.initElements(driver, this);
-        this.cookieWait = new WebDriverWait(driver, Duration.ofSeconds(COOKIE_TIMEOUT));
+        this.driver = driver;
         log.info("Cookie Banner initialized");
     }
 
+    /**
+     * Creates a wait of the cookie timeout, limited to the remaining budget of the current retailer
+     */
+    private WebDriverWait cookieWait() {
+        return new WebDriverWait(driver, Deadline.capped(Duration.ofSeconds(COOKIE_TIMEOUT)));
+    }
+
     /**
      * Waits for banner to be visible
      * @return true if banner is visible, false if timeout occurs
      */
     public boolean waitForBanner() {
         try {
-            cookieWait.until(ExpectedConditions.visibilityOf(bannerContainer));
+            cookieWait().until(ExpectedConditions.visibilityOf(bannerContainer));
             log.info("Cookie banner is visible");
             return true;
         } catch (Exception e) {
@@ -105,7 +113,7 @@ public class CookieBanner {
         try {
             if (waitForBanner()) {
                 log.info("Attempting to accept all cookies");
-                cookieWait.until(ExpectedConditions.elementToBeClickable(acceptAllButton));
+                cookieWait().until(ExpectedConditions.elementToBeClickable(acceptAllButton));
                 acceptAllButton.click();
                 log.info("Accepted all cookies successfully");
                 waitForBannerToDisappear();
@@ -123,7 +131,7 @@ public class CookieBanner {
         try {
             if (waitForBanner()) {
                 log.info("Attempting to reject all cookies");
-                cookieWait.until(ExpectedConditions.elementToBeClickable(rejectAllButton));
+                cookieWait().until(ExpectedConditions.elementToBeClickable(rejectAllButton));
                 rejectAllButton.click();
                 log.info("Rejected all cookies successfully");
                 waitForBannerToDisappear();
@@ -139,9 +147,11 @@ public class CookieBanner {
      */
     private void waitForBannerToDisappear() {
         try {
-            cookieWait.until(ExpectedConditions.invisibilityOf(bannerContainer));
+            cookieWait().until(ExpectedConditions.invisibilityOf(bannerContainer));
             log.info("Cookie banner closed");
         } catch (Exception e) {
+            // Retrying is bounded by the retailer's budget
+            Deadline.checkCurrent("cookie banner");
             acceptAllCookies();
             log.warn("Cookie banner did not close as expected: {}", e.getMessage());
         }
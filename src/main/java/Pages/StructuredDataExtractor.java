@@ -0,0 +1,384 @@
+package Pages;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the contact details of businesses described with schema.org structured data.
+ *
+ * <p>JSON-LD blocks and microdata attributes are found in one pass over the page source. Every
+ * object that has an address and a telephone number or opening hours, such as a
+ * {@code LocalBusiness}, {@code Store} or {@code JewelryStore}, becomes one location; nested
+ * objects and {@code @graph} arrays are searched too. The address is formatted as
+ * "street, postal code locality" (or "street, locality, region postal code" when a region is
+ * given) and an {@code openingHoursSpecification} as one "Monday 10:00 - 18:00" line per day,
+ * days without a specification being closed.</p>
+ */
+public class StructuredDataExtractor {
+    private static final Logger log = LogManager.getLogger(StructuredDataExtractor.class);
+    private static final Pattern MARKUP = Pattern.compile(
+            "<script\\b[^>]*\\btype\\s*=\\s*[\"']application/ld\\+json[\"'][^>]*>(.*?)</script\\s*>"
+                    + "|<[a-zA-Z][a-zA-Z0-9]*\\b([^>]*\\bitem(?:prop|type)\\s*=[^>]*)>",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern ATTRIBUTE = Pattern.compile(
+            "\\b(itemprop|itemtype|content|href|datetime)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')", Pattern.CASE_INSENSITIVE);
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
+    private static final String CLOSED = "Closed";
+
+    private StructuredDataExtractor() {
+    }
+
+    /**
+     * Extracts the locations described in a page source
+     * @param pageSource HTML of the page
+     * @return one entry per described location, in page order; fields the data lacks are null
+     */
+    public static List<ContactDetails> extract(String pageSource) {
+        List<Location> locations = new ArrayList<>();
+        Location microdata = null;
+        Location.DayHours specification = null;
+        Matcher matcher = MARKUP.matcher(pageSource);
+        while (matcher.find()) {
+            if (matcher.group(1) != null) {
+                readJsonLd(matcher.group(1), locations);
+                continue;
+            }
+            Map<String, String> attributes = attributes(matcher.group(2));
+            String type = attributes.get("itemtype");
+            if (type != null) {
+                String name = typeName(type);
+                if ("OpeningHoursSpecification".equalsIgnoreCase(name)) {
+                    specification = microdata == null ? null : microdata.newSpecification();
+                } else if (!"PostalAddress".equalsIgnoreCase(name) && !"GeoCoordinates".equalsIgnoreCase(name)) {
+                    microdata = new Location();
+                    locations.add(microdata);
+                    specification = null;
+                }
+            }
+            String property = attributes.get("itemprop");
+            if (property == null || microdata == null) {
+                continue;
+            }
+            String value = attributes.containsKey("content") ? attributes.get("content")
+                    : attributes.containsKey("datetime") ? attributes.get("datetime")
+                    : "dayofweek".equalsIgnoreCase(property) && attributes.containsKey("href") ? attributes.get("href")
+                    : text(pageSource, matcher.end());
+            if (specification != null && specification.accepts(property)) {
+                specification.set(property, unescape(value));
+            } else {
+                microdata.set(property, unescape(value));
+            }
+        }
+
+        List<ContactDetails> details = new ArrayList<>();
+        for (Location location : locations) {
+            if (location.isBusiness()) {
+                details.add(location.toContactDetails());
+            }
+        }
+        log.debug("Structured data describes {} location(s)", details.size());
+        return details;
+    }
+
+    /**
+     * Gets the locations whose address, phone number and opening hours are all given
+     * @param pageSource HTML of the page
+     * @return complete locations, empty if the page has none
+     */
+    public static List<ContactDetails> extractComplete(String pageSource) {
+        List<ContactDetails> complete = new ArrayList<>();
+        for (ContactDetails details : extract(pageSource)) {
+            if (isComplete(details)) {
+                complete.add(details);
+            }
+        }
+        return complete;
+    }
+
+    /**
+     * @param details contact details
+     * @return true if address, phone number and opening hours are all non-blank
+     */
+    public static boolean isComplete(ContactDetails details) {
+        return isPresent(details.getAddress()) && isPresent(details.getPhoneNumber()) && isPresent(details.getOpeningHours());
+    }
+
+    private static boolean isPresent(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private static void readJsonLd(String json, List<Location> locations) {
+        try {
+            collect(new Json().toType(json.trim(), Object.class), locations);
+        } catch (JsonException | ClassCastException e) {
+            log.debug("Skipping unreadable JSON-LD block: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Walks a JSON-LD value and adds every object that looks like a business
+     */
+    private static void collect(Object value, List<Location> locations) {
+        if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                collect(item, locations);
+            }
+            return;
+        }
+        if (!(value instanceof Map)) {
+            return;
+        }
+        Map<?, ?> object = (Map<?, ?>) value;
+        Location location = new Location();
+        for (Map.Entry<?, ?> property : object.entrySet()) {
+            String name = String.valueOf(property.getKey());
+            Object propertyValue = property.getValue();
+            switch (name) {
+                case "address":
+                    readAddress(propertyValue, location);
+                    break;
+                case "telephone":
+                    location.telephone = first(propertyValue);
+                    break;
+                case "openingHours":
+                    for (Object hours : asList(propertyValue)) {
+                        location.openingHours.add(String.valueOf(hours));
+                    }
+                    break;
+                case "openingHoursSpecification":
+                    for (Object item : asList(propertyValue)) {
+                        if (item instanceof Map) {
+                            Location.DayHours specification = location.newSpecification();
+                            for (Map.Entry<?, ?> field : ((Map<?, ?>) item).entrySet()) {
+                                for (Object fieldValue : asList(field.getValue())) {
+                                    specification.set(String.valueOf(field.getKey()), String.valueOf(fieldValue));
+                                }
+                            }
+                        }
+                    }
+                    break;
+                default:
+                    collect(propertyValue, locations);
+            }
+        }
+        if (location.isBusiness()) {
+            locations.add(location);
+        }
+    }
+
+    private static void readAddress(Object address, Location location) {
+        Object value = address instanceof Collection && !((Collection<?>) address).isEmpty()
+                ? ((Collection<?>) address).iterator().next() : address;
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> field : ((Map<?, ?>) value).entrySet()) {
+                Object fieldValue = field.getValue() instanceof Map ? ((Map<?, ?>) field.getValue()).get("name") : field.getValue();
+                location.set(String.valueOf(field.getKey()), first(fieldValue));
+            }
+        } else if (value != null) {
+            location.address = String.valueOf(value);
+        }
+    }
+
+    private static List<?> asList(Object value) {
+        if (value instanceof List) {
+            return (List<?>) value;
+        }
+        return value == null ? Collections.emptyList() : Collections.singletonList(value);
+    }
+
+    private static String first(Object value) {
+        List<?> values = asList(value);
+        return values.isEmpty() || values.get(0) == null ? null : String.valueOf(values.get(0));
+    }
+
+    private static Map<String, String> attributes(String markup) {
+        Map<String, String> attributes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Matcher matcher = ATTRIBUTE.matcher(markup);
+        while (matcher.find()) {
+            attributes.put(matcher.group(1), matcher.group(2) != null ? matcher.group(2) : matcher.group(3));
+        }
+        return attributes;
+    }
+
+    /**
+     * Gets the text following a start tag up to the next tag
+     */
+    private static String text(String pageSource, int from) {
+        int end = pageSource.indexOf('<', from);
+        return pageSource.substring(from, end < 0 ? pageSource.length() : end).trim();
+    }
+
+    /**
+     * Gets the last segment of a schema.org type or day URL, e.g. "Store" of "https://schema.org/Store"
+     */
+    private static String typeName(String value) {
+        String trimmed = value.trim();
+        int space = trimmed.indexOf(' ');
+        if (space > 0) {
+            trimmed = trimmed.substring(0, space);
+        }
+        return trimmed.substring(trimmed.lastIndexOf('/') + 1);
+    }
+
+    private static String unescape(String text) {
+        return text.replace("&nbsp;", " ").replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&#39;", "'").replace("&apos;", "'").replace("&amp;", "&").trim();
+    }
+
+    /**
+     * Contact details of one business gathered from its properties
+     */
+    private static class Location {
+        private String address;
+        private String street;
+        private String postalCode;
+        private String locality;
+        private String region;
+        private String telephone;
+        private final List<String> openingHours = new ArrayList<>();
+        private final List<DayHours> specifications = new ArrayList<>();
+
+        /**
+         * Opening and closing time of the days of one specification
+         */
+        private static class DayHours {
+            private final List<Integer> days = new ArrayList<>();
+            private String opens;
+            private String closes;
+
+            boolean accepts(String property) {
+                return "dayOfWeek".equalsIgnoreCase(property) || "opens".equalsIgnoreCase(property)
+                        || "closes".equalsIgnoreCase(property);
+            }
+
+            void set(String property, String value) {
+                if ("dayOfWeek".equalsIgnoreCase(property)) {
+                    String day = typeName(value);
+                    for (int i = 0; i < DAYS.length; i++) {
+                        if (DAYS[i].equalsIgnoreCase(day)) {
+                            days.add(i);
+                        }
+                    }
+                } else if ("opens".equalsIgnoreCase(property)) {
+                    opens = time(value);
+                } else if ("closes".equalsIgnoreCase(property)) {
+                    closes = time(value);
+                }
+            }
+
+            /**
+             * Shortens "10:00:00" to "10:00"
+             */
+            private static String time(String value) {
+                String time = value.trim();
+                return time.matches("\\d{1,2}:\\d{2}:\\d{2}.*") ? time.substring(0, time.lastIndexOf(':')) : time;
+            }
+        }
+
+        DayHours newSpecification() {
+            DayHours specification = new DayHours();
+            specifications.add(specification);
+            return specification;
+        }
+
+        void set(String property, String value) {
+            if (value == null) {
+                return;
+            }
+            switch (property.toLowerCase(Locale.ROOT)) {
+                case "streetaddress":
+                    street = value;
+                    break;
+                case "postalcode":
+                    postalCode = value;
+                    break;
+                case "addresslocality":
+                    locality = value;
+                    break;
+                case "addressregion":
+                    region = value;
+                    break;
+                case "telephone":
+                    telephone = value.startsWith("tel:") ? value.substring(4) : value;
+                    break;
+                case "openinghours":
+                    openingHours.add(value);
+                    break;
+                case "address":
+                    if (!value.isEmpty()) {
+                        address = value;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        boolean hasAddress() {
+            return address != null || street != null || locality != null;
+        }
+
+        boolean isBusiness() {
+            return hasAddress() && (telephone != null || !openingHours.isEmpty() || !specifications.isEmpty());
+        }
+
+        ContactDetails toContactDetails() {
+            return new ContactDetails(formatAddress(), telephone, formatHours());
+        }
+
+        private String formatAddress() {
+            if (street == null && locality == null) {
+                return address;
+            }
+            StringBuilder formatted = new StringBuilder();
+            append(formatted, street, ", ");
+            if (region != null) {
+                append(formatted, locality, ", ");
+                append(formatted, region + (postalCode == null ? "" : " " + postalCode), ", ");
+            } else {
+                append(formatted, ((postalCode == null ? "" : postalCode + " ") + (locality == null ? "" : locality)).trim(), ", ");
+            }
+            return formatted.toString();
+        }
+
+        private static void append(StringBuilder builder, String part, String separator) {
+            if (part == null || part.isEmpty()) {
+                return;
+            }
+            if (builder.length() > 0) {
+                builder.append(separator);
+            }
+            builder.append(part);
+        }
+
+        private String formatHours() {
+            if (!specifications.isEmpty()) {
+                String[] byDay = new String[DAYS.length];
+                for (DayHours specification : specifications) {
+                    boolean closed = specification.opens == null || specification.opens.equals(specification.closes);
+                    for (int day : specification.days) {
+                        byDay[day] = closed ? CLOSED : specification.opens + " - " + specification.closes;
+                    }
+                }
+                List<String> lines = new ArrayList<>();
+                for (int day = 0; day < DAYS.length; day++) {
+                    lines.add(DAYS[day] + " " + (byDay[day] == null ? CLOSED : byDay[day]));
+                }
+                return String.join("\n", lines);
+            }
+            return openingHours.isEmpty() ? null : String.join("\n", openingHours);
+        }
+    }
+}
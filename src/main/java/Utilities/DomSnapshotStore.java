@@ -0,0 +1,196 @@
+package Utilities;
+
+import Constants.Constants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores compressed snapshots of contact pages and serves them back for offline replay.
+ *
+ * <p>In RECORD mode the page source is compacted (scripts other than schema.org JSON-LD,
+ * comments, embedded media, images, links to other sites' resources and insignificant whitespace
+ * removed, a UTF-8 charset added) and written gzipped as {@code <hash>.html.gz}. No base href is
+ * added, so a replayed page never loads anything from the live site. In REPLAY mode a snapshot is unpacked once
+ * into {@code replay/<hash>.html} and the page objects load it through a {@code file://} URL
+ * instead of the live site.</p>
+ */
+public class DomSnapshotStore {
+    private static final Logger log = LogManager.getLogger(DomSnapshotStore.class);
+    private static final String SNAPSHOT_EXTENSION = ".html.gz";
+    private static final String REPLAY_DIR = "replay";
+    private static final Pattern REMOVED_ELEMENTS = Pattern.compile(
+            "<(script(?![^>]*\\btype\\s*=\\s*[\"']?application/ld\\+json)|noscript|svg|iframe|template)\\b[^>]*>.*?</\\1\\s*>",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern REMOTE_RESOURCES = Pattern.compile(
+            "<(?:img|source)\\b[^>]*>|<link\\b[^>]*href=[\"']?(?:https?:)?//[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMMENTS = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
+    private static final Pattern PRELOAD_LINKS = Pattern.compile(
+            "<link\\b[^>]*rel=[\"']?(preload|prefetch|modulepreload|dns-prefetch|preconnect)[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHITESPACE = Pattern.compile("[ \\t\\r\\n]{2,}");
+    private static final Pattern HEAD = Pattern.compile("<head\\b[^>]*>", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Snapshot handling of a run
+     */
+    public enum Mode {
+        OFF,
+        RECORD,
+        REPLAY
+    }
+
+    private final Path directory;
+    private final Mode mode;
+    private final Map<String, String> replayUrls = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for DomSnapshotStore
+     * @param directory directory holding the snapshots
+     * @param mode whether snapshots are recorded, replayed or ignored
+     */
+    public DomSnapshotStore(Path directory, Mode mode) {
+        this.directory = directory;
+        this.mode = mode;
+    }
+
+    /**
+     * Creates a store configured from system properties: snapshot.mode (off, record or replay)
+     * and snapshot.dir
+     * @return configured store
+     */
+    public static DomSnapshotStore fromSystemProperties() {
+        Mode mode = Mode.valueOf(System.getProperty(Constants.Snapshots.MODE_PROPERTY, "off").trim().toUpperCase(Locale.ROOT));
+        Path directory = Paths.get(System.getProperty(Constants.Snapshots.DIR_PROPERTY, Constants.Snapshots.DEFAULT_DIR));
+        if (mode != Mode.OFF) {
+            log.info("DOM snapshots in {} mode from {}", mode, directory.toAbsolutePath());
+        }
+        return new DomSnapshotStore(directory, mode);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public boolean isRecording() {
+        return mode == Mode.RECORD;
+    }
+
+    public boolean isReplaying() {
+        return mode == Mode.REPLAY;
+    }
+
+    /**
+     * Reduces a page source to the markup relevant for extraction
+     * @param html full page source
+     * @return compacted markup
+     */
+    public static String compact(String html) {
+        String compacted = REMOVED_ELEMENTS.matcher(html).replaceAll("");
+        compacted = COMMENTS.matcher(compacted).replaceAll("");
+        compacted = PRELOAD_LINKS.matcher(compacted).replaceAll("");
+        compacted = REMOTE_RESOURCES.matcher(compacted).replaceAll("");
+        compacted = WHITESPACE.matcher(compacted).replaceAll(" ");
+        String replayHead = "<meta charset=\"utf-8\">";
+        Matcher head = HEAD.matcher(compacted);
+        if (head.find()) {
+            return compacted.substring(0, head.end()) + replayHead + compacted.substring(head.end());
+        }
+        return "<head>" + replayHead + "</head>" + compacted;
+    }
+
+    /**
+     * Compacts and stores the snapshot of a page, replacing any earlier snapshot of the URL
+     * @param url URL the page was loaded from
+     * @param html full page source
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void record(String url, String html) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(key(url) + SNAPSHOT_EXTENSION);
+        Path temp = Files.createTempFile(directory, "snapshot", ".tmp");
+        byte[] compacted = compact(html).getBytes(StandardCharsets.UTF_8);
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            outputStream.write(compacted);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Snapshot of {} saved: {} of {} characters kept, {} bytes compressed",
+                url, compacted.length, html.length(), Files.size(file));
+    }
+
+    /**
+     * Loads the stored snapshot of a URL
+     * @param url original page URL
+     * @return compacted markup, null if no snapshot exists
+     * @throws IOException if the snapshot cannot be read
+     */
+    public String load(String url) throws IOException {
+        Path file = directory.resolve(key(url) + SNAPSHOT_EXTENSION);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(file))) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Resolves a page URL to the local file URL of its unpacked snapshot
+     * @param url original page URL
+     * @return file URL of the snapshot
+     * @throws IllegalStateException if no snapshot of the URL exists or it cannot be unpacked
+     */
+    public String resolve(String url) {
+        return replayUrls.computeIfAbsent(url, key -> {
+            try {
+                String html = load(key);
+                if (html == null) {
+                    throw new IllegalStateException("No snapshot recorded for " + key);
+                }
+                Path replayDir = directory.resolve(REPLAY_DIR);
+                Files.createDirectories(replayDir);
+                Path file = replayDir.resolve(key(key) + ".html");
+                Files.write(file, html.getBytes(StandardCharsets.UTF_8));
+                return file.toAbsolutePath().toUri().toString();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to unpack snapshot of " + key, e);
+            }
+        });
+    }
+
+    private static String key(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                name.append(String.format("%02x", digest[i]));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package Utilities;
+
+import Constants.Constants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates configured WebDriver sessions of one browser type.
+ * Sessions start with an empty profile unless a profile directory or a {@link ProfileTemplate} is set;
+ * sessions on a template copy must be ended with {@link #quit(WebDriver)} so that the copy is deleted.
+ */
+public class DriverFactory {
+    private static final Logger log = LogManager.getLogger(DriverFactory.class);
+    private static final Map<WebDriver, Path> sessionProfiles = new ConcurrentHashMap<>();
+
+    private final String browser;
+    private final boolean headless;
+    private Path profileDirectory;
+    private ProfileTemplate profileTemplate;
+
+    /**
+     * Constructor for DriverFactory
+     * @param browser chrome, firefox or edge
+     * @param headless true to start sessions without a visible window
+     */
+    public DriverFactory(String browser, boolean headless) {
+        this.browser = browser.toLowerCase(Locale.ROOT);
+        this.headless = headless;
+    }
+
+    /**
+     * Starts sessions on an existing profile directory, used as is
+     * @param profileDirectory profile directory
+     * @return this factory
+     */
+    public DriverFactory withProfileDirectory(Path profileDirectory) {
+        this.profileDirectory = profileDirectory;
+        return this;
+    }
+
+    /**
+     * Starts every session on a private copy of a profile template
+     * @param profileTemplate warmed template of the same browser
+     * @return this factory
+     */
+    public DriverFactory withProfileTemplate(ProfileTemplate profileTemplate) {
+        this.profileTemplate = profileTemplate;
+        return this;
+    }
+
+    /**
+     * Quits a session and deletes its profile copy when it was started on a template
+     * @param webDriver session to quit
+     */
+    public static void quit(WebDriver webDriver) {
+        try {
+            webDriver.quit();
+        } finally {
+            Path profile = sessionProfiles.remove(webDriver);
+            if (profile != null) {
+                deleteQuietly(profile);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path profile) {
+        try {
+            ProfileTemplate.delete(profile);
+        } catch (IOException e) {
+            log.warn("Failed to delete session profile {}: {}", profile, e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a new browser session with the common timeouts set
+     * @return started WebDriver
+     * @throws RuntimeException if the browser type is not supported or the session cannot be started
+     */
+    public WebDriver create() {
+        log.info("Starting {} WebDriver{}", browser, headless ? " (headless)" : "");
+        Path profile = profileTemplate != null ? profileTemplate.newSessionProfile() : profileDirectory;
+        WebDriver webDriver;
+        try {
+            webDriver = start(profile);
+        } catch (RuntimeException e) {
+            if (profileTemplate != null) {
+                deleteQuietly(profile);
+            }
+            throw e;
+        }
+        if (profileTemplate != null) {
+            sessionProfiles.put(webDriver, profile);
+        }
+
+        applyDefaultTimeouts(webDriver);
+        return webDriver;
+    }
+
+    /**
+     * Sets the common implicit wait and page load timeout, e.g. again after a retailer deadline capped them
+     * @param webDriver session to configure
+     */
+    public static void applyDefaultTimeouts(WebDriver webDriver) {
+        webDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(Constants.Browser.IMPLICIT_WAIT_SECONDS));
+        webDriver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(Constants.Browser.PAGE_LOAD_TIMEOUT_SECONDS));
+    }
+
+    private WebDriver start(Path profile) {
+        WebDriver webDriver;
+        switch (browser) {
+            case "chrome":
+                ChromeOptions chromeOptions = new ChromeOptions();
+                if (headless) {
+                    chromeOptions.addArguments("--headless=new", "--window-size=1920,1080");
+                }
+                chromeOptions.addArguments("--start-maximized");
+                chromeOptions.addArguments("--disable-notifications");
+                chromeOptions.addArguments("--remote-allow-origins=*");
+                if (profile != null) {
+                    chromeOptions.addArguments("--user-data-dir=" + profile.toAbsolutePath());
+                }
+                webDriver = new ChromeDriver(chromeOptions);
+                break;
+
+            case "firefox":
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
+                if (headless) {
+                    firefoxOptions.addArguments("-headless", "--width=1920", "--height=1080");
+                }
+                firefoxOptions.addArguments("--start-maximized");
+                firefoxOptions.addArguments("--disable-notifications");
+                if (profile != null) {
+                    firefoxOptions.addArguments("-profile", profile.toAbsolutePath().toString());
+                }
+                webDriver = new FirefoxDriver(firefoxOptions);
+                // Firefox requires explicit maximize
+                if (!headless) {
+                    webDriver.manage().window().maximize();
+                }
+                break;
+
+            case "edge":
+                EdgeOptions edgeOptions = new EdgeOptions();
+                if (headless) {
+                    edgeOptions.addArguments("--headless=new", "--window-size=1920,1080");
+                }
+                edgeOptions.addArguments("--start-maximized");
+                edgeOptions.addArguments("--disable-notifications");
+                edgeOptions.addArguments("--remote-allow-origins=*");
+                if (profile != null) {
+                    edgeOptions.addArguments("--user-data-dir=" + profile.toAbsolutePath());
+                }
+                webDriver = new EdgeDriver(edgeOptions);
+                break;
+
+            default:
+                log.error("Unsupported browser type: {}", browser);
+                throw new RuntimeException("Unsupported browser type: " + browser);
+        }
+        return webDriver;
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+}
@@ -0,0 +1,222 @@
+package Utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Browser profile warmed once per run and copied for every new session.
+ *
+ * <p>The warm-up pass starts one session on the template directory itself and loads a list of
+ * pages, filling the HTTP cache, code cache and service worker registrations. Cookies, local and
+ * session storage and IndexedDB are then deleted from the template, so each session starts with
+ * the cached static assets of the warm-up but with no state of its own. Sessions get a private
+ * copy of the template under {@code sessions/}, deleted when the session quits through
+ * {@link DriverFactory#quit(WebDriver)}; profile lock files are not copied. Copies of the same
+ * browser left behind by earlier runs are deleted when the template is created.</p>
+ */
+public class ProfileTemplate {
+    private static final Logger log = LogManager.getLogger(ProfileTemplate.class);
+    private static final List<String> CHROMIUM_PRIVATE_DATA = Arrays.asList(
+            "Default/Cookies", "Default/Cookies-journal", "Default/Network/Cookies", "Default/Network/Cookies-journal",
+            "Default/Local Storage", "Default/Session Storage", "Default/IndexedDB", "Default/Sessions",
+            "Default/Current Session", "Default/Current Tabs", "Default/Login Data", "Default/Web Data");
+    private static final List<String> FIREFOX_PRIVATE_DATA = Arrays.asList(
+            "cookies.sqlite", "cookies.sqlite-wal", "cookies.sqlite-shm", "webappsstore.sqlite",
+            "webappsstore.sqlite-wal", "webappsstore.sqlite-shm", "storage/default", "sessionstore.jsonlz4",
+            "sessionstore-backups", "formhistory.sqlite");
+    private static final Set<String> LOCK_FILES = new HashSet<>(Arrays.asList(
+            "SingletonLock", "SingletonCookie", "SingletonSocket", "lockfile", "lock", ".parentlock", "parent.lock"));
+
+    private final String browser;
+    private final Path template;
+    private final Path sessions;
+    private final AtomicInteger sessionNumber = new AtomicInteger();
+    private volatile boolean warm;
+
+    /**
+     * Creates an empty template, removing templates and session copies of earlier runs
+     * @param browser chrome, firefox or edge
+     * @param root directory holding the template and the session copies
+     * @throws UncheckedIOException if the directories cannot be prepared
+     */
+    public ProfileTemplate(String browser, Path root) {
+        this.browser = browser.toLowerCase(Locale.ROOT);
+        this.template = root.resolve(this.browser + "-template");
+        this.sessions = root.resolve("sessions");
+        try {
+            delete(template);
+            Files.createDirectories(template);
+            Files.createDirectories(sessions);
+            deleteStaleSessionProfiles();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare profile template " + template, e);
+        }
+    }
+
+    /**
+     * Deletes the session copies of this browser left in {@code sessions/} by earlier runs
+     * @throws IOException if a copy cannot be deleted
+     */
+    private void deleteStaleSessionProfiles() throws IOException {
+        List<Path> stale = new ArrayList<>();
+        try (DirectoryStream<Path> copies = Files.newDirectoryStream(sessions, browser + "-*")) {
+            copies.forEach(stale::add);
+        }
+        for (Path copy : stale) {
+            delete(copy);
+        }
+        if (!stale.isEmpty()) {
+            log.info("Deleted {} {} session profiles of earlier runs", stale.size(), browser);
+        }
+    }
+
+    /**
+     * Fills the template by loading pages in one session that uses the template directory, then removes private data.
+     * Pages that fail to load are skipped.
+     * @param factory factory of the template's browser, without profile settings
+     * @param urls pages to load
+     * @param beforeVisit called with each URL before it is loaded, for rate limiting
+     */
+    public void warm(DriverFactory factory, List<String> urls, Consumer<String> beforeVisit) {
+        long start = System.currentTimeMillis();
+        WebDriver webDriver = new DriverFactory(factory.getBrowser(), factory.isHeadless())
+                .withProfileDirectory(template).create();
+        int loaded = 0;
+        try {
+            for (String url : urls) {
+                try {
+                    beforeVisit.accept(url);
+                    webDriver.get(url);
+                    loaded++;
+                } catch (RuntimeException e) {
+                    log.warn("Profile warm-up could not load {}: {}", url, e.getMessage());
+                }
+            }
+        } finally {
+            webDriver.quit();
+        }
+        removePrivateData();
+        warm = true;
+        log.info("Warmed {} profile template with {} of {} pages in {}ms ({} KB)", browser, loaded, urls.size(),
+                System.currentTimeMillis() - start, size(template) / 1024);
+    }
+
+    /**
+     * Deletes cookies and storage from the template, keeping caches
+     */
+    private void removePrivateData() {
+        List<String> privateData = "firefox".equals(browser) ? FIREFOX_PRIVATE_DATA : CHROMIUM_PRIVATE_DATA;
+        for (String relative : privateData) {
+            try {
+                delete(template.resolve(relative));
+            } catch (IOException e) {
+                log.warn("Failed to remove {} from profile template: {}", relative, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Copies the template to a new directory private to one session
+     * @return session profile directory
+     * @throws UncheckedIOException if the copy fails
+     */
+    public Path newSessionProfile() {
+        Path target = sessions.resolve(browser + "-" + sessionNumber.incrementAndGet());
+        try {
+            delete(target);
+            Files.walkFileTree(template, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                    Files.createDirectories(target.resolve(template.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    if (attributes.isRegularFile() && !LOCK_FILES.contains(file.getFileName().toString())) {
+                        Files.copy(file, target.resolve(template.relativize(file).toString()),
+                                StandardCopyOption.COPY_ATTRIBUTES);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to copy profile template to " + target, e);
+        }
+        return target;
+    }
+
+    /**
+     * Deletes a file or directory tree if it exists
+     * @param path file or directory
+     * @throws IOException if deletion fails
+     */
+    public static void delete(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static long size(Path directory) {
+        long[] size = {0};
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    size[0] += attributes.size();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            return -1;
+        }
+        return size[0];
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public Path getTemplateDirectory() {
+        return template;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+}
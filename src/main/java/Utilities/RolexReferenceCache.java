@@ -0,0 +1,260 @@
+package Utilities;
+
+import Constants.Constants;
+import Pages.ContactDetails;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches the contact details extracted from Rolex reference pages, in process and on disk.
+ * Rolex pages change far less often than retailer pages, so a cached entry younger than the
+ * TTL is reused instead of loading the page again. Concurrent requests for the same URL
+ * load it only once.
+ */
+public class RolexReferenceCache {
+    private static final Logger log = LogManager.getLogger(RolexReferenceCache.class);
+    private static final String URL_KEY = "url";
+    private static final String FETCHED_AT_KEY = "fetchedAt";
+    private static final String ADDRESS_KEY = "address";
+    private static final String PHONE_KEY = "phone";
+    private static final String HOURS_KEY = "hours";
+    private static final String FILE_EXTENSION = ".properties";
+
+    /**
+     * Cached details with the time they were extracted
+     */
+    private static class Entry {
+        private final ContactDetails details;
+        private final long fetchedAt;
+
+        private Entry(ContactDetails details, long fetchedAt) {
+            this.details = details;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private final Path directory;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for RolexReferenceCache
+     * @param directory directory for the on-disk cache, null to keep entries in process only
+     * @param ttl maximum age of a reusable entry; zero disables caching
+     */
+    public RolexReferenceCache(Path directory, Duration ttl) {
+        this.directory = directory;
+        this.ttlMillis = ttl.toMillis();
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                log.error("Failed to create Rolex cache directory {}: {}", directory, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Creates a cache configured from system properties:
+     * rolex.cache.ttl.minutes, rolex.cache.dir and rolex.cache.invalidate
+     * (either "all" or a comma-separated list of Rolex URLs to drop on startup)
+     * @return configured cache
+     */
+    public static RolexReferenceCache fromSystemProperties() {
+        RolexReferenceCache cache = new RolexReferenceCache(
+                Paths.get(System.getProperty(Constants.RolexCache.DIR_PROPERTY, Constants.RolexCache.DEFAULT_DIR)),
+                Duration.ofMinutes(Long.getLong(Constants.RolexCache.TTL_PROPERTY, Constants.RolexCache.DEFAULT_TTL_MINUTES)));
+        String invalidate = System.getProperty(Constants.RolexCache.INVALIDATE_PROPERTY, "").trim();
+        if ("all".equalsIgnoreCase(invalidate)) {
+            cache.invalidateAll();
+        } else if (!invalidate.isEmpty()) {
+            for (String url : invalidate.split(",")) {
+                cache.invalidate(url.trim());
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Gets the Rolex details for a URL, loading them only if no fresh entry exists
+     * @param url Rolex contact page URL
+     * @param loader extracts the details from the live page
+     * @return cached or freshly loaded details
+     */
+    public ContactDetails get(String url, Function<String, ContactDetails> loader) {
+        ContactDetails cached = getIfFresh(url);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (loadLocks.computeIfAbsent(url, key -> new Object())) {
+            cached = getIfFresh(url);
+            if (cached != null) {
+                return cached;
+            }
+            log.info("Rolex reference cache miss: {}", url);
+            ContactDetails details = loader.apply(url);
+            put(url, details);
+            return details;
+        }
+    }
+
+    /**
+     * Gets the cached details for a URL if they are younger than the TTL
+     * @param url Rolex contact page URL
+     * @return fresh cached details, or null
+     */
+    public ContactDetails getIfFresh(String url) {
+        if (ttlMillis <= 0) {
+            return null;
+        }
+        Entry entry = entries.get(url);
+        if (entry == null) {
+            entry = readFromDisk(url);
+            if (entry != null) {
+                entries.put(url, entry);
+            }
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.fetchedAt > ttlMillis) {
+            log.info("Rolex reference cache entry expired: {}", url);
+            return null;
+        }
+        log.info("Rolex reference cache hit: {}", url);
+        return entry.details;
+    }
+
+    /**
+     * Stores details for a URL
+     * @param url Rolex contact page URL
+     * @param details extracted details
+     */
+    public void put(String url, ContactDetails details) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        Entry entry = new Entry(details, System.currentTimeMillis());
+        entries.put(url, entry);
+        writeToDisk(url, entry);
+    }
+
+    /**
+     * Drops the cached details of a URL, in process and on disk
+     * @param url Rolex contact page URL
+     */
+    public void invalidate(String url) {
+        entries.remove(url);
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(fileFor(url));
+            log.info("Invalidated Rolex reference cache entry: {}", url);
+        } catch (IOException e) {
+            log.error("Failed to invalidate Rolex cache entry {}: {}", url, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops every cached entry, in process and on disk
+     */
+    public void invalidateAll() {
+        entries.clear();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            log.info("Invalidated all Rolex reference cache entries");
+        } catch (IOException e) {
+            log.error("Failed to invalidate Rolex cache: {}", e.getMessage());
+        }
+    }
+
+    private Entry readFromDisk(String url) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = fileFor(url);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            if (!url.equals(properties.getProperty(URL_KEY))) {
+                return null;
+            }
+            return new Entry(new ContactDetails(
+                    properties.getProperty(ADDRESS_KEY),
+                    properties.getProperty(PHONE_KEY),
+                    properties.getProperty(HOURS_KEY)),
+                    Long.parseLong(properties.getProperty(FETCHED_AT_KEY, "0")));
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable Rolex cache file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String url, Entry entry) {
+        if (directory == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty(URL_KEY, url);
+        properties.setProperty(FETCHED_AT_KEY, String.valueOf(entry.fetchedAt));
+        setIfPresent(properties, ADDRESS_KEY, entry.details.getAddress());
+        setIfPresent(properties, PHONE_KEY, entry.details.getPhoneNumber());
+        setIfPresent(properties, HOURS_KEY, entry.details.getOpeningHours());
+        Path file = fileFor(url);
+        try {
+            Path temporary = Files.createTempFile(directory, "entry", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                properties.store(out, "Rolex reference details");
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to write Rolex cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void setIfPresent(Properties properties, String key, String value) {
+        if (value != null) {
+            properties.setProperty(key, value);
+        }
+    }
+
+    private Path fileFor(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                name.append(String.format("%02x", digest[i]));
+            }
+            return directory.resolve(name + FILE_EXTENSION);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package Utilities;
 
+import Constants.Constants;
+import Execution.Deadline;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
@@ -11,17 +13,42 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Locale;
 
 public class ScreenshotUtils {
     private static final Logger log = LogManager.getLogger(ScreenshotUtils.class);
     private final WebDriver driver;
     private final JavascriptExecutor js;
     private static final String SCREENSHOT_DIR = "test-output/screenshots";
+    private static final Policy POLICY = Policy.valueOf(System.getProperty(
+            Constants.Browser.SCREENSHOT_POLICY_PROPERTY, Policy.ALWAYS.name()).trim().toUpperCase(Locale.ROOT));
+
+    /**
+     * When screenshots are taken, set with -Dscreenshot.policy
+     */
+    public enum Policy {
+        /** Every located element is highlighted and captured */
+        ALWAYS,
+        /** Only the page is captured when an element cannot be found */
+        ON_FAILURE,
+        /** No screenshots */
+        NEVER
+    }
 
     public ScreenshotUtils(WebDriver driver) {
         this.driver = driver;
         this.js = (JavascriptExecutor) driver;
-        createScreenshotDirectory();
+        if (POLICY != Policy.NEVER) {
+            createScreenshotDirectory();
+        }
+    }
+
+    /**
+     * Gets the screenshot policy of this run
+     * @return screenshot policy
+     */
+    public static Policy getPolicy() {
+        return POLICY;
     }
 
     /**
@@ -32,10 +59,10 @@ public class ScreenshotUtils {
             Path screenshotPath = Paths.get(SCREENSHOT_DIR);
             if (!Files.exists(screenshotPath)) {
                 Files.createDirectories(screenshotPath);
-                log.info("Created screenshot directory: " + SCREENSHOT_DIR);
+                log.info("Created screenshot directory: {}", SCREENSHOT_DIR);
             }
         } catch (IOException e) {
-            log.error("Failed to create screenshot directory: " + e.getMessage());
+            log.error("Failed to create screenshot directory: {}", e.getMessage());
         }
     }
 
@@ -45,6 +72,10 @@ public class ScreenshotUtils {
      * @param elementName Name of the element for the file name
      */
     public void captureElementScreenshot(WebElement element, String elementName) {
+        if (POLICY != Policy.ALWAYS || isOverBudget()) {
+            return;
+        }
+        Deadline.Phase screenshots = Deadline.phase("screenshots");
         try {
             // Scroll element into view
             js.executeScript("arguments[0].scrollIntoView({behavior: 'auto', block: 'center'});", element);
@@ -56,26 +87,56 @@ public class ScreenshotUtils {
             File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
 
             // Generate filename
-            String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-            String fileName = String.format("screenshot_%s_%s.png", elementName, timestamp);
+            String fileName = generateUniqueFileName(elementName);
             Path destinationPath = Paths.get(SCREENSHOT_DIR, fileName);
 
             // Copy screenshot to destination
             try {
                 Files.copy(screenshot.toPath(), destinationPath);
-                log.info("Screenshot saved: " + destinationPath);
+                log.info("Screenshot saved: {}", destinationPath);
             } catch (IOException e) {
-                log.error("Failed to save screenshot: " + e.getMessage());
+                log.error("Failed to save screenshot: {}", e.getMessage());
             }
 
             // Remove highlight
             unhighlightElement(element);
 
         } catch (Exception e) {
-            log.error("Failed to capture screenshot: " + e.getMessage());
+            log.error("Failed to capture screenshot: {}", e.getMessage());
+        } finally {
+            screenshots.end();
         }
     }
 
+    /**
+     * Takes a screenshot of the page after an element could not be found, unless screenshots are disabled
+     * @param elementName Name of the missing element for the file name
+     */
+    public void captureFailureScreenshot(String elementName) {
+        if (POLICY == Policy.NEVER || isOverBudget()) {
+            return;
+        }
+        Deadline.Phase screenshots = Deadline.phase("screenshots");
+        try {
+            File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
+            Path destinationPath = Paths.get(SCREENSHOT_DIR, generateUniqueFileName("missing_" + elementName));
+            Files.copy(screenshot.toPath(), destinationPath);
+            log.info("Failure screenshot saved: {}", destinationPath);
+        } catch (Exception e) {
+            log.error("Failed to capture failure screenshot: {}", e.getMessage());
+        } finally {
+            screenshots.end();
+        }
+    }
+
+    /**
+     * Checks whether the current retailer has used up its budget, in which case screenshots are skipped
+     */
+    private static boolean isOverBudget() {
+        Deadline deadline = Deadline.current();
+        return deadline != null && deadline.isExpired();
+    }
+
     /**
      * Highlights an element
      * @param element Element to highlight
@@ -90,7 +151,7 @@ public class ScreenshotUtils {
                     originalStyle
             );
         } catch (Exception e) {
-            log.error("Failed to highlight element: " + e.getMessage());
+            log.error("Failed to highlight element: {}", e.getMessage());
         }
     }
 
@@ -110,17 +171,18 @@ public class ScreenshotUtils {
                     originalStyle != null ? originalStyle : ""
             );
         } catch (Exception e) {
-            log.error("Failed to unhighlight element: " + e.getMessage());
+            log.error("Failed to unhighlight element: {}", e.getMessage());
         }
     }
 
     /**
-     * Generates a unique filename for the screenshot
+     * Generates a unique filename for the screenshot.
+     * Includes milliseconds and the thread id so parallel sessions never collide.
      * @param elementName Name of the element
      * @return String unique filename
      */
     private String generateUniqueFileName(String elementName) {
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        return String.format("screenshot_%s_%s.png", elementName, timestamp);
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(new Date());
+        return String.format("screenshot_%s_%s_t%d.png", elementName, timestamp, Thread.currentThread().getId());
     }
 }
@@ -3,19 +3,57 @@ package Validations;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 public class AddressComplianceCheck {
     private static final Logger log = LogManager.getLogger(AddressComplianceCheck.class);
+    private static final RuleEngine<Address> rules = new RuleEngine<>("Address", RuleOutcome.NOT_COMPLIANT, Arrays.asList(
+            ComplianceRule.of("exactMatch", 1, true, RuleOutcome.COMPLIANT,
+                    "✅ COMPLIANT: Addresses match exactly",
+                    (rolex, retailer) -> rolex.normalized.equals(retailer.normalized)),
+            ComplianceRule.of("componentMatch", 3, true, RuleOutcome.COMPLIANT,
+                    "✅ COMPLIANT: Street, number, postal code and city match",
+                    (rolex, retailer) -> rolex.parsed.isComplete() && retailer.parsed.isComplete()
+                            && rolex.parsed.matches(retailer.parsed)),
+            ComplianceRule.of("formatDifference", 10, true, RuleOutcome.COMPLIANT,
+                    "✅ COMPLIANT: Addresses match with different formatting",
+                    (rolex, retailer) -> isFormatDifference(rolex.raw, retailer.raw)
+                            && containsSameInformation(rolex.normalized, retailer.normalized)),
+            ComplianceRule.of("missingComponents", 5, false, RuleOutcome.NOT_COMPLIANT,
+                    "❌ NOT COMPLIANT: Essential address components are missing",
+                    (rolex, retailer) -> !hasRequiredComponents(retailer.parsed)),
+            ComplianceRule.of("streetNameMismatch", 10, false, RuleOutcome.NOT_COMPLIANT,
+                    "❌ NOT COMPLIANT: Street name mismatch detected",
+                    (rolex, retailer) -> hasStreetNameMismatch(rolex.parsed, retailer.parsed)),
+            ComplianceRule.of("postalCodeMismatch", 5, false, RuleOutcome.NOT_COMPLIANT,
+                    "❌ NOT COMPLIANT: ZIP code mismatch or missing",
+                    (rolex, retailer) -> !hasMatchingPostalCode(rolex.parsed, retailer.parsed)),
+            ComplianceRule.of("shoppingCentreMismatch", 3, false, RuleOutcome.NOT_COMPLIANT,
+                    "❌ NOT COMPLIANT: Shopping centre name inconsistency",
+                    (rolex, retailer) -> hasShoppingCentreMismatch(rolex.raw, retailer.raw, rolex.rules))));
 
     /**
-     * Checks if retailer address matches Rolex address and determines compliance level
+     * Checks if retailer address matches Rolex address using the default rules
      * @param rolexAddress address from Rolex website
      * @param retailerAddress address from Retailer website
      * @return true if compliant, false if not
      */
     public boolean isAddressCompliant(String rolexAddress, String retailerAddress) {
+        return isAddressCompliant(rolexAddress, retailerAddress, CountryRules.defaults());
+    }
+
+    /**
+     * Checks if retailer address matches Rolex address and determines compliance level
+     * @param rolexAddress address from Rolex website
+     * @param retailerAddress address from Retailer website
+     * @param countryRules rules of the retailer's country
+     * @return true if compliant, false if not
+     */
+    public boolean isAddressCompliant(String rolexAddress, String retailerAddress, CountryRules countryRules) {
         log.info("Checking address compliance");
-        log.debug("Rolex address: " + rolexAddress);
-        log.debug("Retailer address: " + retailerAddress);
+        log.debug("Rolex address: {}", rolexAddress);
+        log.debug("Retailer address: {}", retailerAddress);
 
         // Check if either address is null or empty
         if (rolexAddress == null || retailerAddress == null ||
@@ -30,49 +68,39 @@ public class AddressComplianceCheck {
         String normalizedRetailerAddress = normalizeAddress(retailerAddress);
         log.info("Normalized Retailer Address: {}", normalizedRetailerAddress);
 
-        // Check for exact match after normalization
-        if (normalizedRolexAddress.equals(normalizedRetailerAddress)) {
-            log.info("✅ COMPLIANT: Addresses match exactly");
+        RuleEngine.Evaluation evaluation = rules.evaluate(
+                new Address(rolexAddress, normalizedRolexAddress, countryRules),
+                new Address(retailerAddress, normalizedRetailerAddress, countryRules));
+        if (evaluation.isCompliant()) {
+            log.info(evaluation.getRule().getMessage());
             return true;
         }
+        log.error(evaluation.getRule() != null ? evaluation.getRule().getMessage()
+                : "❌ NOT COMPLIANT: Address information does not match required criteria");
+        return false;
+    }
 
-        // Check if addresses contain same information but different format
-        if (containsSameInformation(normalizedRolexAddress, normalizedRetailerAddress)) {
-            if (isFormatDifference(rolexAddress, retailerAddress)) {
-                log.info("✅ COMPLIANT: Addresses match with different formatting");
-                return true;
-            }
-        }
-
-        // Check for specific non-compliance issues
-        if (!hasRequiredComponents(normalizedRetailerAddress)) {
-            log.error("❌ NOT COMPLIANT: Essential address components are missing");
-            return false;
-        }
-
-        if (hasStreetNameMismatch(normalizedRolexAddress, normalizedRetailerAddress)) {
-            log.error("❌ NOT COMPLIANT: Street name mismatch detected");
-            return false;
-        }
-
-        if (!hasMatchingPostalCode(normalizedRolexAddress, normalizedRetailerAddress)) {
-            log.error("❌ NOT COMPLIANT: ZIP code mismatch or missing");
-            return false;
-        }
-
-        if (hasShoppingCentreMismatch(rolexAddress, retailerAddress)) {
-            log.error("❌ NOT COMPLIANT: Shopping centre name inconsistency");
-            return false;
+    /**
+     * Address as published, in normalized form and split into components, with the rules of the retailer's country
+     */
+    private static class Address {
+        private final String raw;
+        private final String normalized;
+        private final ParsedAddress parsed;
+        private final CountryRules rules;
+
+        Address(String raw, String normalized, CountryRules rules) {
+            this.raw = raw;
+            this.normalized = normalized;
+            this.parsed = AddressParser.parse(raw, rules);
+            this.rules = rules;
         }
-
-        log.error("❌ NOT COMPLIANT: Address information does not match required criteria");
-        return false;
     }
 
     /**
      * Normalizes address string for comparison
      */
-    private String normalizeAddress(String address) {
+    private static String normalizeAddress(String address) {
         return address.toLowerCase()
                 .replaceAll("\\s+", " ")
                 .replaceAll("straße", "strasse")
@@ -82,7 +110,7 @@ public class AddressComplianceCheck {
     /**
      * Checks if addresses contain the same core information
      */
-    private boolean containsSameInformation(String address1, String address2) {
+    private static boolean containsSameInformation(String address1, String address2) {
         String[] components1 = address1.split("[,\\s]+");
         String[] components2 = address2.split("[,\\s]+");
 
@@ -102,7 +130,7 @@ public class AddressComplianceCheck {
     /**
      * Checks if differences are only in formatting
      */
-    private boolean isFormatDifference(String address1, String address2) {
+    private static boolean isFormatDifference(String address1, String address2) {
         String stripped1 = address1.replaceAll("[^a-zA-Z0-9]", "");
         String stripped2 = address2.replaceAll("[^a-zA-Z0-9]", "");
         return stripped1.equalsIgnoreCase(stripped2);
@@ -111,49 +139,33 @@ public class AddressComplianceCheck {
     /**
      * Checks if address has all required components
      */
-    private boolean hasRequiredComponents(String address) {
-        boolean hasStreetNumber = address.matches(".*\\d+.*");
-        boolean hasBasicComponents = address.matches(".*[a-zA-Z]+.*\\d+.*[a-zA-Z]+.*");
-        return hasStreetNumber && hasBasicComponents;
+    private static boolean hasRequiredComponents(ParsedAddress address) {
+        return address.getStreet() != null && address.getHouseNumber() != null
+                && (address.getPostalCode() != null || address.getCity() != null);
     }
 
     /**
-     * Checks for street name mismatches
+     * Checks for street name or house number mismatches
      */
-    private boolean hasStreetNameMismatch(String address1, String address2) {
-        String street1 = address1.split(",")[0];
-        String street2 = address2.split(",")[0];
-        return !containsSameInformation(street1, street2);
+    private static boolean hasStreetNameMismatch(ParsedAddress address1, ParsedAddress address2) {
+        return address1.getStreet() == null || address2.getStreet() == null
+                || !address1.getStreet().equals(address2.getStreet())
+                || !Objects.equals(address1.getHouseNumber(), address2.getHouseNumber());
     }
 
     /**
      * Checks for matching postal codes
      */
-    private boolean hasMatchingPostalCode(String address1, String address2) {
-        String postalCode1 = extractPostalCode(address1);
-        String postalCode2 = extractPostalCode(address2);
-        return postalCode1 != null && postalCode2 != null && postalCode1.equals(postalCode2);
-    }
-
-    /**
-     * Extracts postal code from address string
-     */
-    private String extractPostalCode(String address) {
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("\\b\\d{5}\\b");
-        java.util.regex.Matcher matcher = pattern.matcher(address);
-        return matcher.find() ? matcher.group() : null;
+    private static boolean hasMatchingPostalCode(ParsedAddress address1, ParsedAddress address2) {
+        return address1.getPostalCode() != null && address1.getPostalCode().equals(address2.getPostalCode());
     }
 
     /**
      * Checks for shopping centre name consistency
      */
-    private boolean hasShoppingCentreMismatch(String address1, String address2) {
-        boolean hasShoppingCentre1 = address1.toLowerCase().contains("centre") ||
-                address1.toLowerCase().contains("center") ||
-                address1.toLowerCase().contains("mall");
-        boolean hasShoppingCentre2 = address2.toLowerCase().contains("centre") ||
-                address2.toLowerCase().contains("center") ||
-                address2.toLowerCase().contains("mall");
+    private static boolean hasShoppingCentreMismatch(String address1, String address2, CountryRules countryRules) {
+        boolean hasShoppingCentre1 = countryRules.mentionsShoppingCentre(address1.toLowerCase());
+        boolean hasShoppingCentre2 = countryRules.mentionsShoppingCentre(address2.toLowerCase());
         return hasShoppingCentre1 != hasShoppingCentre2;
     }
 }
@@ -0,0 +1,243 @@
+package Validations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Splits addresses into street, house number, unit, postal code, city and country.
+ *
+ * <p>The address is cut into segments at commas, semicolons and line breaks and each segment into
+ * words, by hand and in one pass. The postal code is located with the postal grammar of the
+ * retailer's country ({@link CountryRules#findPostalCode}); the city is the text after it, or the
+ * text before it without the state abbreviation, or the previous segment. The first remaining
+ * segment holding both letters and digits is the street line, with the house number before the
+ * street name in countries that write it so. Parsed addresses are cached, since the same Rolex
+ * reference address is compared with every location of a retailer.</p>
+ */
+public class AddressParser {
+    private static final int MAX_CACHED = 4096;
+    private static final Map<String, ParsedAddress> cache = new ConcurrentHashMap<>();
+
+    private AddressParser() {
+    }
+
+    /**
+     * Parses an address, reusing the result of an earlier call with the same address and country
+     * @param address address as published
+     * @param rules rules of the retailer's country
+     * @return parsed address, with null for components that were not found
+     */
+    public static ParsedAddress parse(String address, CountryRules rules) {
+        String key = rules.getCountry() + '\n' + address;
+        ParsedAddress parsed = cache.get(key);
+        if (parsed == null) {
+            parsed = parseUncached(address, rules);
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            cache.put(key, parsed);
+        }
+        return parsed;
+    }
+
+    private static ParsedAddress parseUncached(String address, CountryRules rules) {
+        List<String> segments = segments(address);
+        String country = null;
+        if (!segments.isEmpty() && rules.isCountryName(String.join(" ", words(segments.get(segments.size() - 1))))) {
+            country = rules.getCountry();
+            segments.remove(segments.size() - 1);
+        }
+
+        boolean[] used = new boolean[segments.size()];
+        String remainder = null;
+        String postalCode = null;
+        String city = null;
+        for (int i = segments.size() - 1; i >= 0 && postalCode == null; i--) {
+            String segment = segments.get(i);
+            int[] span = rules.findPostalCode(segment, 0, segment.length());
+            if (span == null) {
+                continue;
+            }
+            used[i] = true;
+            postalCode = PostalCodeFormat.canonical(segment.substring(span[0], span[1]));
+            List<String> after = words(segment.substring(span[1]));
+            List<String> before = words(segment.substring(0, span[0]));
+            if (!before.isEmpty() && rules.isRegion(before.get(before.size() - 1))) {
+                before.remove(before.size() - 1);
+            }
+            if (!after.isEmpty()) {
+                city = String.join(" ", after);
+                remainder = before.isEmpty() ? null : String.join(" ", before);
+            } else if (!before.isEmpty()) {
+                // "100 main st springfield": the city starts after the last street type word
+                int split = before.size() - 1;
+                while (split > 0 && !rules.isStreetType(before.get(split - 1))) {
+                    split--;
+                }
+                city = String.join(" ", before.subList(split, before.size()));
+                remainder = split == 0 ? null : String.join(" ", before.subList(0, split));
+            } else if (i > 0 && !hasDigit(segments.get(i - 1))) {
+                used[i - 1] = true;
+                city = String.join(" ", withoutRegion(words(segments.get(i - 1)), rules));
+            }
+        }
+        if (postalCode == null && segments.size() > 1 && !hasDigit(segments.get(segments.size() - 1))) {
+            used[segments.size() - 1] = true;
+            city = String.join(" ", words(segments.get(segments.size() - 1)));
+        }
+        List<String> streetCandidates = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            if (!used[i]) {
+                streetCandidates.add(segments.get(i));
+            }
+        }
+        if (remainder != null) {
+            streetCandidates.add(remainder);
+        }
+
+        String unit = null;
+        String street = null;
+        String houseNumber = null;
+        String streetWithoutNumber = null;
+        for (String candidate : streetCandidates) {
+            List<String> tokens = words(candidate);
+            List<String> streetWords = new ArrayList<>();
+            String number = null;
+            for (int t = 0; t < tokens.size(); t++) {
+                String token = tokens.get(t);
+                if (token.startsWith("#") && token.length() > 1) {
+                    unit = unit == null ? token.substring(1) : unit;
+                } else if (rules.isUnitWord(token) && t + 1 < tokens.size()) {
+                    unit = unit == null ? tokens.get(++t) : unit;
+                } else if (isHouseNumber(token) && (number == null || !rules.isNumberFirst())) {
+                    // keep the first number where it precedes the street name, otherwise the last one
+                    if (number != null) {
+                        streetWords.add(number);
+                    }
+                    number = token;
+                } else {
+                    streetWords.add(rules.expandAbbreviation(token));
+                }
+            }
+            if (streetWords.isEmpty() || street != null) {
+                continue;
+            }
+            if (number != null) {
+                street = String.join(" ", streetWords);
+                houseNumber = number;
+            } else if (streetWithoutNumber == null) {
+                streetWithoutNumber = String.join(" ", streetWords);
+            }
+        }
+        if (street == null) {
+            street = streetWithoutNumber;
+        }
+        return new ParsedAddress(street, houseNumber, unit, postalCode, city, country);
+    }
+
+    /**
+     * Cuts an address into lower case segments at commas, semicolons and line breaks, collapsing whitespace
+     */
+    private static List<String> segments(String address) {
+        List<String> segments = new ArrayList<>();
+        StringBuilder segment = new StringBuilder();
+        boolean pendingSpace = false;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (c == ',' || c == ';' || c == '\n' || c == '\r') {
+                addSegment(segments, segment);
+                pendingSpace = false;
+            } else if (Character.isWhitespace(c) || c == ' ') {
+                pendingSpace = segment.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    segment.append(' ');
+                    pendingSpace = false;
+                }
+                if (c == 'ß') {
+                    segment.append("ss");
+                } else {
+                    segment.append(Character.toLowerCase(c));
+                }
+            }
+        }
+        addSegment(segments, segment);
+        return segments;
+    }
+
+    private static void addSegment(List<String> segments, StringBuilder segment) {
+        if (segment.length() > 0) {
+            segments.add(segment.toString());
+            segment.setLength(0);
+        }
+    }
+
+    /**
+     * Splits a segment into words, trimming dots, colons and brackets from their ends
+     */
+    private static List<String> words(String segment) {
+        List<String> words = new ArrayList<>();
+        int start = 0;
+        while (start < segment.length()) {
+            int end = segment.indexOf(' ', start);
+            if (end < 0) {
+                end = segment.length();
+            }
+            int from = start;
+            int to = end;
+            while (from < to && isTrimmed(segment.charAt(from))) {
+                from++;
+            }
+            while (to > from && isTrimmed(segment.charAt(to - 1))) {
+                to--;
+            }
+            if (from < to) {
+                words.add(segment.substring(from, to).toLowerCase(Locale.ROOT));
+            }
+            start = end + 1;
+        }
+        return words;
+    }
+
+    private static List<String> withoutRegion(List<String> words, CountryRules rules) {
+        if (!words.isEmpty() && rules.isRegion(words.get(words.size() - 1))) {
+            words.remove(words.size() - 1);
+        }
+        return words;
+    }
+
+    private static boolean isTrimmed(char c) {
+        return c == '.' || c == ':' || c == '(' || c == ')' || c == '"' || c == '\'';
+    }
+
+    /**
+     * Checks whether a word is a house number such as {@code 5}, {@code 5b} or {@code 12-14}
+     */
+    private static boolean isHouseNumber(String word) {
+        if (word.isEmpty() || word.length() > 7 || !Character.isDigit(word.charAt(0))) {
+            return false;
+        }
+        int letters = 0;
+        for (int i = 1; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (Character.isLetter(c) && ++letters > 1) {
+                return false;
+            } else if (!Character.isLetterOrDigit(c) && c != '-' && c != '/') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasDigit(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isDigit(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package Validations;
+
+import java.util.function.BiPredicate;
+
+/**
+ * A single compliance rule comparing a Rolex value with a retailer value.
+ *
+ * <p>Decisive rules settle the verdict as soon as they hit, so the engine runs them first and
+ * stops at the first hit. Non-decisive rules only explain a verdict that no decisive rule reached
+ * and run after them.</p>
+ * @param <T> type of the compared values
+ */
+public interface ComplianceRule<T> {
+
+    /**
+     * Gets the rule name used in logs and statistics
+     * @return rule name
+     */
+    String getName();
+
+    /**
+     * Gets the estimated relative evaluation cost, used until measured timings are available
+     * @return estimated cost, 1 for a plain comparison
+     */
+    double getCost();
+
+    /**
+     * Tells whether a hit of this rule settles the verdict
+     * @return true if decisive
+     */
+    boolean isDecisive();
+
+    /**
+     * Gets the message logged when this rule hits
+     * @return log message
+     */
+    String getMessage();
+
+    /**
+     * Evaluates the rule
+     * @param rolexValue value from the Rolex website
+     * @param retailerValue value from the retailer website
+     * @return outcome of the rule, INCONCLUSIVE when it does not hit
+     */
+    RuleOutcome evaluate(T rolexValue, T retailerValue);
+
+    /**
+     * Creates a rule that yields a fixed outcome when a predicate holds
+     * @param name rule name
+     * @param cost estimated relative cost
+     * @param decisive whether a hit settles the verdict
+     * @param outcome outcome when the predicate holds
+     * @param message message logged when the rule hits
+     * @param predicate condition of the rule
+     * @param <T> type of the compared values
+     * @return compliance rule
+     */
+    static <T> ComplianceRule<T> of(String name, double cost, boolean decisive, RuleOutcome outcome,
+                                    String message, BiPredicate<T, T> predicate) {
+        return new ComplianceRule<T>() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public double getCost() {
+                return cost;
+            }
+
+            @Override
+            public boolean isDecisive() {
+                return decisive;
+            }
+
+            @Override
+            public String getMessage() {
+                return message;
+            }
+
+            @Override
+            public RuleOutcome evaluate(T rolexValue, T retailerValue) {
+                return predicate.test(rolexValue, retailerValue) ? outcome : RuleOutcome.INCONCLUSIVE;
+            }
+        };
+    }
+}
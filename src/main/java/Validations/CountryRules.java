@@ -0,0 +1,334 @@
+package Validations;
+
+import Constants.Constants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * Country specific compliance rules, loaded from {@code compliance-rules/<COUNTRY>.properties}
+ * and compiled once when the class is initialized.
+ *
+ * <p>Each country file overrides keys of {@code default.properties}. Rules are looked up by
+ * country code or by the region of a locale tag in a hash map; unknown countries get the
+ * default rules.</p>
+ */
+public class CountryRules {
+    private static final Logger log = LogManager.getLogger(CountryRules.class);
+    private static final String POSTAL_CODE_FORMATS = "postal.code.formats";
+    private static final String MOBILE_PREFIXES = "phone.mobile.prefixes";
+    private static final String LANDLINE_PREFIXES = "phone.landline.prefixes";
+    private static final String CALLING_CODE = "phone.country.code";
+    private static final String TRUNK_PREFIX = "phone.trunk.prefix";
+    private static final String CLOSED_WORDS = "hours.closed.words";
+    private static final String CENTRE_WORDS = "address.centre.words";
+    private static final String NUMBER_FIRST = "address.number.first";
+    private static final String UNIT_WORDS = "address.unit.words";
+    private static final String REGIONS = "address.regions";
+    private static final String COUNTRY_NAMES = "address.country.names";
+    private static final String STREET_ABBREVIATIONS = "address.street.abbreviations";
+    private static final Pattern NEVER = Pattern.compile("(?!)");
+
+    private static final CountryRules DEFAULT_RULES;
+    private static final Map<String, CountryRules> rulesByCountry = new HashMap<>();
+
+    static {
+        Properties defaults = load(Constants.ComplianceRules.DEFAULT_RULES, null);
+        DEFAULT_RULES = new CountryRules(Constants.ComplianceRules.DEFAULT_RULES, defaults);
+        for (String country : Constants.ComplianceRules.COUNTRIES) {
+            rulesByCountry.put(country, new CountryRules(country, load(country, defaults)));
+        }
+        log.info("Compiled compliance rules for {}", rulesByCountry.keySet());
+    }
+
+    private final String country;
+    private final List<PostalCodeFormat> postalCodeFormats;
+    private final Pattern mobileNumber;
+    private final Pattern landlineNumber;
+    private final String callingCode;
+    private final String trunkPrefix;
+    private final List<String> closedWords;
+    private final List<String> centreWords;
+    private final boolean numberFirst;
+    private final List<String> unitWords;
+    private final List<String> regions;
+    private final List<String> countryNames;
+    private final Map<String, String> streetAbbreviations;
+
+    private CountryRules(String country, Properties properties) {
+        this.country = country;
+        this.postalCodeFormats = PostalCodeFormat.parseList(properties.getProperty(POSTAL_CODE_FORMATS));
+        this.mobileNumber = prefixPattern(properties.getProperty(MOBILE_PREFIXES));
+        this.landlineNumber = prefixPattern(properties.getProperty(LANDLINE_PREFIXES));
+        this.callingCode = properties.getProperty(CALLING_CODE, "").trim();
+        this.trunkPrefix = properties.getProperty(TRUNK_PREFIX, "0").trim();
+        this.closedWords = words(properties.getProperty(CLOSED_WORDS));
+        this.centreWords = words(properties.getProperty(CENTRE_WORDS));
+        this.numberFirst = Boolean.parseBoolean(properties.getProperty(NUMBER_FIRST));
+        this.unitWords = words(properties.getProperty(UNIT_WORDS));
+        this.regions = words(properties.getProperty(REGIONS));
+        this.countryNames = words(properties.getProperty(COUNTRY_NAMES));
+        this.streetAbbreviations = abbreviations(properties.getProperty(STREET_ABBREVIATIONS));
+    }
+
+    /**
+     * Gets the rules used when no country is known
+     * @return default rules
+     */
+    public static CountryRules defaults() {
+        return DEFAULT_RULES;
+    }
+
+    /**
+     * Selects the rules of a retailer from its country, or the region of its locale when no country is given
+     * @param country ISO 3166 country code, may be empty or null
+     * @param locale BCP 47 locale tag such as {@code sv-SE}, may be empty or null
+     * @return rules of the country, default rules if none match
+     */
+    public static CountryRules of(String country, String locale) {
+        String key = country;
+        if ((key == null || key.isEmpty()) && locale != null && !locale.isEmpty()) {
+            key = Locale.forLanguageTag(locale).getCountry();
+        }
+        if (key == null || key.isEmpty()) {
+            return DEFAULT_RULES;
+        }
+        CountryRules rules = rulesByCountry.get(key.toUpperCase(Locale.ROOT));
+        return rules != null ? rules : DEFAULT_RULES;
+    }
+
+    /**
+     * Loads a rule file, falling back to the given defaults for missing keys
+     */
+    private static Properties load(String name, Properties defaults) {
+        String resource = Constants.ComplianceRules.RESOURCE_DIR + name + ".properties";
+        Properties properties = new Properties(defaults);
+        try (InputStream inputStream = CountryRules.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Missing compliance rule file " + resource);
+            }
+            try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load compliance rule file " + resource, e);
+        }
+        return properties;
+    }
+
+    /**
+     * Compiles a comma separated prefix list into one alternation anchored at the start of the
+     * national number, a list that never matches when empty
+     */
+    private static Pattern prefixPattern(String prefixes) {
+        List<String> alternatives = new ArrayList<>();
+        for (String prefix : words(prefixes)) {
+            alternatives.add(Pattern.quote(prefix));
+        }
+        return alternatives.isEmpty() ? NEVER : Pattern.compile("(?:" + String.join("|", alternatives) + ")\\d+");
+    }
+
+    private static List<String> words(String list) {
+        List<String> words = new ArrayList<>();
+        if (list != null) {
+            for (String word : list.split(",")) {
+                if (!word.trim().isEmpty()) {
+                    words.add(word.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return Collections.unmodifiableList(words);
+    }
+
+    /**
+     * Parses a comma separated list of {@code abbreviation=word} pairs
+     */
+    private static Map<String, String> abbreviations(String list) {
+        Map<String, String> abbreviations = new HashMap<>();
+        for (String pair : words(list)) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                abbreviations.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+            }
+        }
+        return Collections.unmodifiableMap(abbreviations);
+    }
+
+    /**
+     * Extracts the postal code of an address using the postal grammar of this country
+     * @param address address text
+     * @return postal code without optional spaces, null if none is found
+     */
+    public String extractPostalCode(String address) {
+        int[] span = findPostalCode(address, 0, address.length());
+        return span == null ? null : PostalCodeFormat.canonical(address.substring(span[0], span[1]));
+    }
+
+    /**
+     * Finds the last postal code in a range of a text
+     * @param text text to search
+     * @param from first index to search
+     * @param to index after the last character to search
+     * @return start and end index of the postal code, null if none is found
+     */
+    public int[] findPostalCode(CharSequence text, int from, int to) {
+        return PostalCodeFormat.findLast(postalCodeFormats, text, from, to);
+    }
+
+    /**
+     * Checks whether a digits-only phone number starts with a mobile prefix
+     * @param normalizedNumber phone number without formatting, national or with the calling code
+     * @return true if the number looks like a mobile number
+     */
+    public boolean isMobileNumber(String normalizedNumber) {
+        return mobileNumber.matcher(nationalNumber(normalizedNumber)).matches();
+    }
+
+    /**
+     * Checks whether a digits-only phone number starts with a landline prefix
+     * @param normalizedNumber phone number without formatting, national or with the calling code
+     * @return true if the number looks like a landline number
+     */
+    public boolean isLandlineNumber(String normalizedNumber) {
+        return landlineNumber.matcher(nationalNumber(normalizedNumber)).matches();
+    }
+
+    /**
+     * Writes a number given with the calling code of this country, e.g. 46701234567, in the
+     * national form with trunk prefix that the prefix lists use, e.g. 0701234567
+     */
+    private String nationalNumber(String digits) {
+        String number = digits.startsWith("00") ? digits.substring(2) : digits;
+        if (!callingCode.isEmpty() && !number.startsWith("0") && number.startsWith(callingCode)) {
+            return "0" + number.substring(callingCode.length());
+        }
+        return number;
+    }
+
+    /**
+     * Gets the international form of a phone number, so that numbers written with or without the
+     * country calling code, a trunk prefix or formatting get the same key. Only numbers written with
+     * {@code +} or {@code 00} are taken to include a calling code; a national number loses its trunk
+     * prefix and gets this country's calling code.
+     * @param phoneNumber phone number as published
+     * @return digits including the calling code, or the digits as written when this country has no
+     *         calling code; null if the number holds no digits
+     */
+    public String canonicalPhoneNumber(String phoneNumber) {
+        String trimmed = phoneNumber.trim();
+        String digits = trimmed.replaceAll("[^0-9]", "");
+        if (digits.isEmpty()) {
+            return null;
+        }
+        if (trimmed.startsWith("+")) {
+            return digits;
+        }
+        if (digits.startsWith("00")) {
+            return digits.substring(2);
+        }
+        if (callingCode.isEmpty()) {
+            return digits;
+        }
+        String national = !trunkPrefix.isEmpty() && digits.startsWith(trunkPrefix)
+                ? digits.substring(trunkPrefix.length()) : digits;
+        return callingCode + national;
+    }
+
+    /**
+     * Checks whether opening hours text marks a day as closed
+     * @param hours lower case opening hours text
+     * @return true if a closed word of this country occurs
+     */
+    public boolean isClosed(String hours) {
+        return containsAny(hours, closedWords);
+    }
+
+    /**
+     * Checks whether an address names a shopping centre
+     * @param address lower case address text
+     * @return true if a shopping centre word of this country occurs
+     */
+    public boolean mentionsShoppingCentre(String address) {
+        return containsAny(address, centreWords);
+    }
+
+    private static boolean containsAny(String text, List<String> words) {
+        for (String word : words) {
+            if (text.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    /**
+     * @return true if the house number is written before the street name, as in {@code "100 Main St"}
+     */
+    public boolean isNumberFirst() {
+        return numberFirst;
+    }
+
+    /**
+     * @param word lower case word
+     * @return true if the word introduces a unit such as a shop or suite number
+     */
+    public boolean isUnitWord(String word) {
+        return unitWords.contains(word);
+    }
+
+    /**
+     * @param word lower case word
+     * @return true if the word is a state or region abbreviation written next to the postal code
+     */
+    public boolean isRegion(String word) {
+        return regions.contains(word);
+    }
+
+    /**
+     * @param name lower case country name
+     * @return true if the name is a name of this country
+     */
+    public boolean isCountryName(String name) {
+        return countryNames.contains(name);
+    }
+
+    /**
+     * Expands a street type abbreviation such as {@code "st"} to its full word
+     * @param word lower case word without trailing dot
+     * @return full word, or the word itself when it is not an abbreviation
+     */
+    public String expandAbbreviation(String word) {
+        String expanded = streetAbbreviations.get(word);
+        return expanded != null ? expanded : word;
+    }
+
+    /**
+     * @param word lower case word without trailing dot
+     * @return true if the word is a street type such as {@code "st"} or {@code "avenue"}
+     */
+    public boolean isStreetType(String word) {
+        return streetAbbreviations.containsKey(word) || streetAbbreviations.containsValue(word);
+    }
+
+    @Override
+    public String toString() {
+        return "CountryRules[" + country + "]";
+    }
+}
@@ -0,0 +1,415 @@
+package Validations;
+
+import Pages.ContactDetails;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds contact records of different retailers that share a phone number or have nearly the same
+ * address, without comparing every pair of records.
+ *
+ * <p>Records are indexed as they are added during a run. Phone numbers are indexed exactly by their
+ * international form ({@link CountryRules#canonicalPhoneNumber}). Addresses are normalized (lower
+ * case, accents and punctuation removed, street abbreviations expanded, country names dropped),
+ * cut into character shingles and summarized by a MinHash signature, whose fraction of equal
+ * values estimates the Jaccard similarity of two shingle sets. The signature is split into bands
+ * for locality-sensitive hashing: records sharing any band are candidates, and only candidates are
+ * compared, so adding a record costs time proportional to its candidates rather than to the index
+ * size. With 32 bands of 4 rows, pairs of similarity 0.8 become candidates with a probability
+ * above 0.999 and pairs of similarity 0.3 with about 0.23.</p>
+ *
+ * <p>Pairs with the same phone key or an estimated address similarity of at least the threshold
+ * are linked; linked records form the clusters reported by {@link #clusters()}. Records of the
+ * same owner, e.g. the locations listed on one retailer page, are never linked.</p>
+ */
+public class DuplicateContactIndex {
+    private static final Logger log = LogManager.getLogger(DuplicateContactIndex.class);
+    private static final int SHINGLE_LENGTH = 3;
+    private static final int BANDS = 32;
+    private static final int ROWS = 4;
+    private static final long[] SEEDS = new long[BANDS * ROWS];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < SEEDS.length; i++) {
+            seed = mix(seed + i);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final double threshold;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<String, Set<String>> byPhone = new HashMap<>();
+    private final List<Map<Long, Set<String>>> bands = new ArrayList<>(BANDS);
+    private final Map<String, Link> links = new LinkedHashMap<>();
+    private long comparisons;
+
+    /**
+     * Indexed contact record
+     */
+    private static class Entry {
+        private final String id;
+        private final String owner;
+        private final ContactDetails details;
+        private final String phoneKey;
+        private final int[] signature;
+
+        private Entry(String id, String owner, ContactDetails details, String phoneKey, int[] signature) {
+            this.id = id;
+            this.owner = owner;
+            this.details = details;
+            this.phoneKey = phoneKey;
+            this.signature = signature;
+        }
+    }
+
+    /**
+     * Two records found to be near duplicates
+     */
+    public static class Link {
+        private final String first;
+        private final String second;
+        private final boolean samePhone;
+        private final double addressSimilarity;
+
+        private Link(String first, String second, boolean samePhone, double addressSimilarity) {
+            this.first = first;
+            this.second = second;
+            this.samePhone = samePhone;
+            this.addressSimilarity = addressSimilarity;
+        }
+
+        public String getFirst() {
+            return first;
+        }
+
+        public String getSecond() {
+            return second;
+        }
+
+        public boolean isSamePhone() {
+            return samePhone;
+        }
+
+        /**
+         * @return estimated Jaccard similarity of the address shingles, 0 to 1
+         */
+        public double getAddressSimilarity() {
+            return addressSimilarity;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s ~ %s address=%.2f%s", first, second, addressSimilarity,
+                    samePhone ? " phone=same" : "");
+        }
+    }
+
+    /**
+     * Records connected by links, directly or through other records
+     */
+    public static class Cluster {
+        private final Map<String, ContactDetails> records;
+        private final List<Link> links;
+
+        private Cluster(Map<String, ContactDetails> records, List<Link> links) {
+            this.records = Collections.unmodifiableMap(records);
+            this.links = Collections.unmodifiableList(links);
+        }
+
+        /**
+         * @return contact details by record id, in the order the records were added
+         */
+        public Map<String, ContactDetails> getRecords() {
+            return records;
+        }
+
+        public List<Link> getLinks() {
+            return links;
+        }
+
+        /**
+         * @return highest address similarity of the links, 1 if any link shares a phone number
+         */
+        public double getScore() {
+            double score = 0;
+            for (Link link : links) {
+                score = Math.max(score, link.isSamePhone() ? 1 : link.getAddressSimilarity());
+            }
+            return score;
+        }
+    }
+
+    /**
+     * Constructor for DuplicateContactIndex
+     * @param threshold estimated address similarity from which two records are linked, 0 to 1
+     */
+    public DuplicateContactIndex(double threshold) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("Similarity threshold must be in (0, 1]");
+        }
+        this.threshold = threshold;
+        for (int band = 0; band < BANDS; band++) {
+            bands.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds a contact record, linking it to the near duplicates already indexed.
+     * A record added again under the same id replaces the earlier one.
+     * @param id record id, unique in the run
+     * @param owner retailer the record belongs to; records of one owner are not linked
+     * @param details contact details; a missing address or phone number is not indexed
+     * @param rules rules of the record's country, used to normalize the address and phone number
+     * @return links created for the record
+     */
+    public synchronized List<Link> add(String id, String owner, ContactDetails details, CountryRules rules) {
+        remove(id);
+        String phoneKey = details.getPhoneNumber() == null ? null : rules.canonicalPhoneNumber(details.getPhoneNumber());
+        String address = details.getAddress() == null ? "" : normalize(details.getAddress(), rules);
+        int[] signature = address.isEmpty() ? null : signature(shingles(address));
+        Entry entry = new Entry(id, owner, details, phoneKey, signature);
+
+        Set<String> candidates = new HashSet<>();
+        if (phoneKey != null) {
+            Set<String> samePhone = byPhone.computeIfAbsent(phoneKey, key -> new HashSet<>());
+            candidates.addAll(samePhone);
+            samePhone.add(id);
+        }
+        if (signature != null) {
+            for (int band = 0; band < BANDS; band++) {
+                Set<String> bucket = bands.get(band).computeIfAbsent(bandKey(signature, band), key -> new HashSet<>());
+                candidates.addAll(bucket);
+                bucket.add(id);
+            }
+        }
+        entries.put(id, entry);
+
+        List<Link> created = new ArrayList<>();
+        for (String candidateId : candidates) {
+            Entry candidate = entries.get(candidateId);
+            if (candidate.owner.equals(owner)) {
+                continue;
+            }
+            comparisons++;
+            boolean samePhone = phoneKey != null && phoneKey.equals(candidate.phoneKey);
+            double similarity = signature == null || candidate.signature == null ? 0 : similarity(signature, candidate.signature);
+            if (samePhone || similarity >= threshold) {
+                Link link = new Link(candidateId, id, samePhone, similarity);
+                links.put(linkKey(candidateId, id), link);
+                created.add(link);
+                log.info("Possible duplicate contact record: {}", link);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Removes a record and its links from the index
+     */
+    private void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        if (entry.phoneKey != null) {
+            byPhone.get(entry.phoneKey).remove(id);
+        }
+        if (entry.signature != null) {
+            for (int band = 0; band < BANDS; band++) {
+                bands.get(band).get(bandKey(entry.signature, band)).remove(id);
+            }
+        }
+        links.values().removeIf(link -> link.getFirst().equals(id) || link.getSecond().equals(id));
+    }
+
+    /**
+     * Groups the linked records into clusters
+     * @return clusters of at least two records, highest score first
+     */
+    public synchronized List<Cluster> clusters() {
+        Map<String, String> parents = new HashMap<>();
+        for (Link link : links.values()) {
+            parents.put(root(parents, link.getFirst()), root(parents, link.getSecond()));
+        }
+        Map<String, Map<String, ContactDetails>> records = new LinkedHashMap<>();
+        Map<String, List<Link>> linksByRoot = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            if (parents.containsKey(entry.id)) {
+                records.computeIfAbsent(root(parents, entry.id), key -> new LinkedHashMap<>()).put(entry.id, entry.details);
+            }
+        }
+        for (Link link : links.values()) {
+            linksByRoot.computeIfAbsent(root(parents, link.getFirst()), key -> new ArrayList<>()).add(link);
+        }
+        List<Cluster> clusters = new ArrayList<>();
+        for (Map.Entry<String, Map<String, ContactDetails>> cluster : records.entrySet()) {
+            clusters.add(new Cluster(cluster.getValue(), linksByRoot.get(cluster.getKey())));
+        }
+        clusters.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        return clusters;
+    }
+
+    /**
+     * Finds the representative of a record in the union-find forest, halving the path on the way
+     */
+    private static String root(Map<String, String> parents, String id) {
+        parents.putIfAbsent(id, id);
+        String current = id;
+        while (!parents.get(current).equals(current)) {
+            String parent = parents.get(current);
+            parents.put(current, parents.get(parent));
+            current = parent;
+        }
+        return current;
+    }
+
+    /**
+     * Logs the number of indexed records, comparisons and clusters
+     */
+    public void logSummary() {
+        List<Cluster> clusters = clusters();
+        log.info("Duplicate contact records: {} cluster(s) among {} records, {} candidate comparisons",
+                clusters.size(), size(), getComparisons());
+    }
+
+    /**
+     * Writes the clusters as text, one block per cluster with its records and links
+     * @param file report file, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void writeReport(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        List<Cluster> clusters = clusters();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < clusters.size(); i++) {
+                Cluster cluster = clusters.get(i);
+                writer.write(String.format(Locale.ROOT, "cluster %d score=%.2f records=%d%n",
+                        i + 1, cluster.getScore(), cluster.getRecords().size()));
+                for (Map.Entry<String, ContactDetails> record : cluster.getRecords().entrySet()) {
+                    writer.write("  record " + record.getKey() + " | " + oneLine(record.getValue().getAddress())
+                            + " | " + oneLine(record.getValue().getPhoneNumber()) + System.lineSeparator());
+                }
+                for (Link link : cluster.getLinks()) {
+                    writer.write("  link " + link + System.lineSeparator());
+                }
+            }
+        }
+    }
+
+    private static String oneLine(String text) {
+        return text == null ? "-" : text.replaceAll("\\s+", " ").trim();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of candidate pairs compared so far
+     */
+    public synchronized long getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Reduces an address to lower case letters and digits of its words, without accents, with street
+     * abbreviations expanded and country names removed; words are joined without spaces so that
+     * "123 45" and "12345" agree
+     */
+    static String normalize(String address, CountryRules rules) {
+        String plain = Normalizer.normalize(address, Normalizer.Form.NFD).replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(plain.length());
+        for (String segment : plain.split("[,;\\n]")) {
+            String words = segment.replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+            if (words.isEmpty() || rules.isCountryName(words)) {
+                continue;
+            }
+            for (String word : words.split(" ")) {
+                normalized.append(rules.expandAbbreviation(word));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static Set<Integer> shingles(String text) {
+        Set<Integer> shingles = new HashSet<>();
+        if (text.length() <= SHINGLE_LENGTH) {
+            shingles.add(text.hashCode());
+            return shingles;
+        }
+        for (int i = 0; i + SHINGLE_LENGTH <= text.length(); i++) {
+            shingles.add(text.substring(i, i + SHINGLE_LENGTH).hashCode());
+        }
+        return shingles;
+    }
+
+    /**
+     * Computes the MinHash signature: per seeded hash function, the smallest hash of any shingle
+     */
+    private static int[] signature(Set<Integer> shingles) {
+        int[] signature = new int[SEEDS.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int shingle : shingles) {
+            for (int i = 0; i < SEEDS.length; i++) {
+                int hash = (int) (mix(shingle ^ SEEDS[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / first.length;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = mix(key * 31 + signature[row]);
+        }
+        return key;
+    }
+
+    private static String linkKey(String first, String second) {
+        return first.compareTo(second) < 0 ? first + '\n' + second : second + '\n' + first;
+    }
+
+    /**
+     * SplitMix64 finalizer, spreading the bits of a value over the whole word
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
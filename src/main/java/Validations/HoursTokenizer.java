@@ -0,0 +1,397 @@
+package Validations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Tokenizes opening hours text into day, closure, time and range tokens in one linear pass.
+ *
+ * <p>Day names, abbreviations and closure words of English, German, Swedish and French are
+ * matched case-insensitively by an Aho-Corasick automaton; only whole words count, so
+ * {@code "tue"} never matches inside {@code "tuesday"}. Short abbreviations that are also common
+ * words, such as {@code "do"}, {@code "so"} or {@code "sun"}, only count as days next to a time,
+ * a range, a list separator or a closure word, so prose around the hours adds no days. Times such as {@code 9:30},
+ * {@code 18.00}, {@code 10h00} or {@code 6 pm} are read digit by digit into minutes of the day.
+ * Tokens are pushed to a {@link TokenSink} as they are found, without building intermediate
+ * strings. The automaton is built once and is safe to share between threads.</p>
+ */
+public class HoursTokenizer {
+    public static final String[] DAY_NAMES = {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"};
+    public static final int CLOSED = -1;
+
+    private static final String[][] DAY_WORDS = {
+            // English
+            {"monday", "mon"}, {"tuesday", "tue", "tues"}, {"wednesday", "wed"}, {"thursday", "thu", "thur", "thurs"},
+            {"friday", "fri"}, {"saturday", "sat"}, {"sunday", "sun"},
+            // German
+            {"montag", "mo"}, {"dienstag", "di"}, {"mittwoch", "mi"}, {"donnerstag", "do"},
+            {"freitag", "fr"}, {"samstag", "sonnabend", "sa"}, {"sonntag", "so"},
+            // Swedish
+            {"måndag", "mån"}, {"tisdag", "tis"}, {"onsdag", "ons"}, {"torsdag", "tor", "tors"},
+            {"fredag", "fre"}, {"lördag", "lör"}, {"söndag", "sön"},
+            // French
+            {"lundi", "lun"}, {"mardi", "mar"}, {"mercredi", "mer"}, {"jeudi", "jeu"},
+            {"vendredi", "ven"}, {"samedi", "sam"}, {"dimanche", "dim"}
+    };
+    private static final String[] CLOSED_WORDS = {"closed", "geschlossen", "ruhetag", "stängt", "stängd", "fermé", "ferme"};
+    private static final String[] RANGE_WORDS = {"to", "till", "bis", "à"};
+    // Day abbreviations that are also ordinary words in one of the languages
+    private static final List<String> AMBIGUOUS_WORDS = Arrays.asList(
+            "so", "do", "mo", "di", "mi", "fr", "sa", "mar", "mer", "tor", "sun", "sam", "ven");
+    private static final List<String> CONTEXT_WORDS = new ArrayList<>();
+
+    static {
+        CONTEXT_WORDS.addAll(Arrays.asList(CLOSED_WORDS));
+        CONTEXT_WORDS.addAll(Arrays.asList(RANGE_WORDS));
+    }
+    private static final int RANGE = -2;
+
+    private static final HoursTokenizer DEFAULT = new HoursTokenizer();
+
+    /**
+     * Kind of token
+     */
+    public enum TokenType {
+        /** Day of week, value 0 (Monday) to 6 (Sunday) */
+        DAY,
+        /** The day is closed */
+        CLOSED,
+        /** Time of day, value in minutes after midnight */
+        TIME,
+        /** Separator between the start and end of a range */
+        RANGE,
+        /** Line break, separating the entries of different days */
+        LINE
+    }
+
+    /**
+     * Receives tokens as they are found
+     */
+    @FunctionalInterface
+    public interface TokenSink {
+        void token(TokenType type, int value);
+    }
+
+    // Automaton: per state, sorted transition characters and targets, failure link and matched word
+    private final char[][] transitionChars;
+    private final int[][] transitionTargets;
+    private final int[] failure;
+    private final int[] outputValue;
+    private final int[] outputLength;
+    private final boolean[] outputAmbiguous;
+    private final int[] dictionarySuffix;
+
+    /**
+     * Builds the automaton over the built-in dictionary
+     */
+    private HoursTokenizer() {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<int[]> outputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        outputs.add(null);
+        for (int day = 0; day < DAY_WORDS.length; day++) {
+            for (String word : DAY_WORDS[day]) {
+                add(trie, outputs, word, day % 7);
+            }
+        }
+        for (String word : CLOSED_WORDS) {
+            add(trie, outputs, word, CLOSED);
+        }
+        for (String word : RANGE_WORDS) {
+            add(trie, outputs, word, RANGE);
+        }
+
+        int states = trie.size();
+        transitionChars = new char[states][];
+        transitionTargets = new int[states][];
+        failure = new int[states];
+        outputValue = new int[states];
+        outputLength = new int[states];
+        outputAmbiguous = new boolean[states];
+        dictionarySuffix = new int[states];
+        for (int state = 0; state < states; state++) {
+            TreeMap<Character, Integer> edges = trie.get(state);
+            transitionChars[state] = new char[edges.size()];
+            transitionTargets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                transitionChars[state][i] = edge.getKey();
+                transitionTargets[state][i++] = edge.getValue();
+            }
+            int[] output = outputs.get(state);
+            outputLength[state] = output != null ? output[1] : 0;
+            outputValue[state] = output != null ? output[0] : 0;
+            outputAmbiguous[state] = output != null && output[2] == 1;
+        }
+
+        // Breadth-first failure links; dictionarySuffix points to the nearest shorter suffix that is a word
+        Queue<Integer> queue = new LinkedList<>();
+        dictionarySuffix[0] = -1;
+        for (int target : transitionTargets[0]) {
+            failure[target] = 0;
+            dictionarySuffix[target] = -1;
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            for (int i = 0; i < transitionChars[state].length; i++) {
+                char c = transitionChars[state][i];
+                int target = transitionTargets[state][i];
+                int fallback = failure[state];
+                while (fallback != 0 && next(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int link = next(fallback, c);
+                failure[target] = link >= 0 && link != target ? link : 0;
+                dictionarySuffix[target] = outputLength[failure[target]] > 0 ? failure[target] : dictionarySuffix[failure[target]];
+                queue.add(target);
+            }
+        }
+    }
+
+    private static void add(List<TreeMap<Character, Integer>> trie, List<int[]> outputs, String word, int value) {
+        int state = 0;
+        for (int i = 0; i < word.length(); i++) {
+            Integer next = trie.get(state).get(word.charAt(i));
+            if (next == null) {
+                next = trie.size();
+                trie.get(state).put(word.charAt(i), next);
+                trie.add(new TreeMap<>());
+                outputs.add(null);
+            }
+            state = next;
+        }
+        outputs.set(state, new int[]{value, word.length(), AMBIGUOUS_WORDS.contains(word) ? 1 : 0});
+    }
+
+    private int next(int state, char c) {
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index >= 0 ? transitionTargets[state][index] : -1;
+    }
+
+    /**
+     * Gets the shared tokenizer
+     * @return tokenizer over the built-in EN/DE/SV/FR dictionary
+     */
+    public static HoursTokenizer getInstance() {
+        return DEFAULT;
+    }
+
+    /**
+     * Tokenizes opening hours text
+     * @param text opening hours as published
+     * @param sink receives the tokens in text order
+     */
+    public void tokenize(CharSequence text, TokenSink sink) {
+        int state = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (c >= '0' && c <= '9') {
+                state = 0;
+                i = readTime(text, i, sink);
+                continue;
+            }
+            if (c == '\n') {
+                state = 0;
+                sink.token(TokenType.LINE, 0);
+                i++;
+                continue;
+            }
+            if (c == '-' || c == '–' || c == '—') {
+                state = 0;
+                sink.token(TokenType.RANGE, 0);
+                i++;
+                continue;
+            }
+
+            int target;
+            while ((target = next(state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = Math.max(target, 0);
+            // Report the longest word ending here that stands as a whole word
+            for (int match = state; match > 0; match = dictionarySuffix[match]) {
+                if (outputLength[match] == 0) {
+                    continue;
+                }
+                int start = i - outputLength[match] + 1;
+                if (!isLetterAt(text, start - 1) && !isLetterAt(text, i + 1)) {
+                    if (!outputAmbiguous[match] || isNextToHours(text, start, i + 1)) {
+                        emitWord(outputValue[match], sink);
+                    }
+                    break;
+                }
+            }
+            i++;
+        }
+    }
+
+    private static void emitWord(int value, TokenSink sink) {
+        if (value == CLOSED) {
+            sink.token(TokenType.CLOSED, 0);
+        } else if (value == RANGE) {
+            sink.token(TokenType.RANGE, 0);
+        } else {
+            sink.token(TokenType.DAY, value);
+        }
+    }
+
+    /**
+     * Checks whether a word is followed by a time, range, list separator, closure or range word,
+     * or preceded by a range, list separator or range word, as day abbreviations are
+     * @param start index of the word's first character
+     * @param end index after the word's last character
+     */
+    private static boolean isNextToHours(CharSequence text, int start, int end) {
+        int after = end;
+        while (after < text.length() && (text.charAt(after) == ' ' || text.charAt(after) == '.' || text.charAt(after) == ':')) {
+            after++;
+        }
+        if (after < text.length() && (isDigit(text.charAt(after)) || isSeparator(text.charAt(after)))) {
+            return true;
+        }
+        if (CONTEXT_WORDS.contains(wordAt(text, after))) {
+            return true;
+        }
+        int before = start - 1;
+        while (before >= 0 && text.charAt(before) == ' ') {
+            before--;
+        }
+        if (before >= 0 && isSeparator(text.charAt(before))) {
+            return true;
+        }
+        int wordStart = before;
+        while (wordStart >= 0 && Character.isLetter(text.charAt(wordStart))) {
+            wordStart--;
+        }
+        return before >= 0 && Arrays.asList(RANGE_WORDS).contains(wordAt(text, wordStart + 1));
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '-' || c == '–' || c == '—' || c == ',' || c == '/' || c == '&';
+    }
+
+    /**
+     * Gets the lower case word starting at an index, empty if none starts there
+     */
+    private static String wordAt(CharSequence text, int index) {
+        int end = index;
+        while (end < text.length() && Character.isLetter(text.charAt(end))) {
+            end++;
+        }
+        return text.subSequence(Math.min(index, end), end).toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isLetterAt(CharSequence text, int index) {
+        return index >= 0 && index < text.length() && Character.isLetter(text.charAt(index));
+    }
+
+    /**
+     * Reads a time starting at a digit and emits it
+     * @return index after the time
+     */
+    private static int readTime(CharSequence text, int start, TokenSink sink) {
+        int length = text.length();
+        int i = start;
+        int hours = 0;
+        int digits = 0;
+        while (i < length && isDigit(text.charAt(i))) {
+            hours = hours * 10 + text.charAt(i++) - '0';
+            digits++;
+        }
+        int minutes = 0;
+        if (i + 2 < length && isTimeSeparator(text.charAt(i))
+                && isDigit(text.charAt(i + 1)) && isDigit(text.charAt(i + 2))) {
+            minutes = (text.charAt(i + 1) - '0') * 10 + text.charAt(i + 2) - '0';
+            i += 3;
+        }
+        // Optional am/pm, also written a.m./p.m., possibly after a space
+        int marker = i;
+        while (marker < length && text.charAt(marker) == ' ') {
+            marker++;
+        }
+        char meridiem = marker < length ? Character.toLowerCase(text.charAt(marker)) : 0;
+        if ((meridiem == 'a' || meridiem == 'p') && !isLetterAt(text, marker - 1)) {
+            int end = marker + 1;
+            if (end < length && text.charAt(end) == '.') {
+                end++;
+            }
+            if (end < length && Character.toLowerCase(text.charAt(end)) == 'm') {
+                end++;
+                if (end < length && text.charAt(end) == '.') {
+                    end++;
+                }
+                if (!isLetterAt(text, end)) {
+                    hours = hours % 12 + (meridiem == 'p' ? 12 : 0);
+                    i = end;
+                }
+            }
+        }
+        if (digits <= 2 && hours <= 24 && minutes < 60) {
+            sink.token(TokenType.TIME, hours * 60 + minutes);
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isTimeSeparator(char c) {
+        return c == ':' || c == '.' || c == 'h' || c == 'H' || c == ',';
+    }
+
+    /**
+     * Renders opening hours in canonical form: English day names, "closed", times as HHhMM and
+     * "-" for ranges, one line per input line
+     * @param text opening hours as published
+     * @return canonical opening hours
+     */
+    public String normalize(CharSequence text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        tokenize(text, (type, value) -> {
+            if (type == TokenType.LINE) {
+                trimTrailingSpace(normalized);
+                if (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != '\n') {
+                    normalized.append('\n');
+                }
+                return;
+            }
+            switch (type) {
+                case DAY:
+                    normalized.append(DAY_NAMES[value]);
+                    break;
+                case CLOSED:
+                    normalized.append("closed");
+                    break;
+                case TIME:
+                    int hours = value / 60;
+                    int minutes = value % 60;
+                    normalized.append((char) ('0' + hours / 10)).append((char) ('0' + hours % 10)).append('h')
+                            .append((char) ('0' + minutes / 10)).append((char) ('0' + minutes % 10));
+                    break;
+                default:
+                    normalized.append('-');
+                    break;
+            }
+            normalized.append(' ');
+        });
+        trimTrailingSpace(normalized);
+        return normalized.toString();
+    }
+
+    private static void trimTrailingSpace(StringBuilder builder) {
+        while (builder.length() > 0 && (builder.charAt(builder.length() - 1) == ' '
+                || builder.charAt(builder.length() - 1) == '\n')) {
+            builder.setLength(builder.length() - 1);
+        }
+    }
+}
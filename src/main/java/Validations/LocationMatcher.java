@@ -0,0 +1,132 @@
+package Validations;
+
+import Pages.ContactDetails;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the location of a multi-location contact page that corresponds to a Rolex reference location.
+ *
+ * <p>Every location address is parsed once and filed under blocking keys, its postal code and its
+ * city. A reference is compared only with the locations sharing its postal code, or its city when
+ * no location has its postal code, so matching costs one pass to build the index plus the size of
+ * one block, instead of comparing every pair. Locations without postal code and city are kept in
+ * an unblocked list that is searched when no block matches.</p>
+ */
+public class LocationMatcher {
+    private static final Logger log = LogManager.getLogger(LocationMatcher.class);
+
+    private final List<ContactDetails> locations;
+    private final List<ParsedAddress> addresses = new ArrayList<>();
+    private final Map<String, List<Integer>> blocks = new HashMap<>();
+    private final List<Integer> unblocked = new ArrayList<>();
+    private final CountryRules rules;
+
+    /**
+     * Parses and indexes the locations of a page
+     * @param locations locations in page order
+     * @param rules rules of the retailer's country
+     */
+    public LocationMatcher(List<ContactDetails> locations, CountryRules rules) {
+        this.locations = locations;
+        this.rules = rules;
+        for (int i = 0; i < locations.size(); i++) {
+            String address = locations.get(i).getAddress();
+            ParsedAddress parsed = AddressParser.parse(address == null ? "" : address, rules);
+            addresses.add(parsed);
+            List<String> keys = blockingKeys(parsed);
+            if (keys.isEmpty()) {
+                unblocked.add(i);
+            }
+            for (String key : keys) {
+                blocks.computeIfAbsent(key, k -> new ArrayList<>(2)).add(i);
+            }
+        }
+    }
+
+    /**
+     * Convenience method matching one reference against the locations of a page
+     * @param reference Rolex reference location
+     * @param locations locations of the retailer page, at least one
+     * @param rules rules of the retailer's country
+     * @return best matching location, the first location when none shares a blocking key
+     */
+    public static ContactDetails match(ContactDetails reference, List<ContactDetails> locations, CountryRules rules) {
+        if (locations.size() == 1) {
+            return locations.get(0);
+        }
+        ContactDetails match = new LocationMatcher(locations, rules).bestMatch(reference);
+        return match != null ? match : locations.get(0);
+    }
+
+    /**
+     * Finds the location that best matches a reference. Candidates are ranked by the number of
+     * address components they share with the reference; a full component match wins outright.
+     * @param reference Rolex reference location
+     * @return best matching location, null if no candidate shares a blocking key
+     */
+    public ContactDetails bestMatch(ContactDetails reference) {
+        ParsedAddress parsed = AddressParser.parse(reference.getAddress() == null ? "" : reference.getAddress(), rules);
+        Set<Integer> candidates = new LinkedHashSet<>();
+        // the postal code block is the narrowest; the city block is only searched when it is empty
+        for (String key : blockingKeys(parsed)) {
+            candidates.addAll(blocks.getOrDefault(key, Collections.emptyList()));
+            if (!candidates.isEmpty()) {
+                break;
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates.addAll(unblocked);
+        }
+
+        int best = -1;
+        int bestScore = -1;
+        for (int candidate : candidates) {
+            ParsedAddress address = addresses.get(candidate);
+            int score = address.matches(parsed) ? Integer.MAX_VALUE : sharedComponents(parsed, address);
+            if (score > bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        log.debug("Compared reference with {} of {} locations", candidates.size(), locations.size());
+        if (best < 0) {
+            return null;
+        }
+        log.info("Matched location {} of {}: {}", best + 1, locations.size(), locations.get(best).getAddress());
+        return locations.get(best);
+    }
+
+    private static List<String> blockingKeys(ParsedAddress address) {
+        List<String> keys = new ArrayList<>(2);
+        if (address.getPostalCode() != null) {
+            keys.add("postal:" + address.getPostalCode());
+        }
+        if (address.getCity() != null) {
+            keys.add("city:" + address.getCity());
+        }
+        return keys;
+    }
+
+    private static int sharedComponents(ParsedAddress address1, ParsedAddress address2) {
+        int shared = 0;
+        shared += same(address1.getPostalCode(), address2.getPostalCode());
+        shared += same(address1.getStreet(), address2.getStreet());
+        shared += same(address1.getHouseNumber(), address2.getHouseNumber());
+        shared += same(address1.getUnit(), address2.getUnit());
+        shared += same(address1.getCity(), address2.getCity());
+        return shared;
+    }
+
+    private static int same(String component1, String component2) {
+        return component1 != null && component1.equals(component2) ? 1 : 0;
+    }
+}
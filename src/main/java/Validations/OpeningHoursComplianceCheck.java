@@ -3,19 +3,42 @@ package Validations;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Arrays;
+
 public class OpeningHoursComplianceCheck {
     private static final Logger log = LogManager.getLogger(OpeningHoursComplianceCheck.class);
+    private static final RuleEngine<Hours> rules = new RuleEngine<>("Opening hours", RuleOutcome.NOT_COMPLIANT, Arrays.asList(
+            ComplianceRule.of("exactMatch", 1, true, RuleOutcome.COMPLIANT,
+                    "✅ COMPLIANT: Opening hours match exactly",
+                    (rolex, retailer) -> rolex.normalized.equals(retailer.normalized)),
+            ComplianceRule.of("matchIgnoringClosingDays", 20, true, RuleOutcome.COMPLIANT,
+                    "✅ COMPLIANT: Opening hours match (closing days not reported in Rolex section)",
+                    (rolex, retailer) -> hoursMatchIgnoringClosingDays(rolex.normalized, retailer.normalized, rolex.rules)),
+            ComplianceRule.of("differentDaysOrHours", 20, false, RuleOutcome.NOT_COMPLIANT,
+                    "❌ NOT COMPLIANT: Different days or opening hours detected",
+                    (rolex, retailer) -> hasDifferentDaysOrHours(rolex.normalized, retailer.normalized))));
 
     /**
-     * Checks if retailer opening hours match Rolex opening hours and determines compliance level
+     * Checks if retailer opening hours match Rolex opening hours using the default rules
      * @param rolexHours opening hours from Rolex website
      * @param retailerHours opening hours from Retailer website
      * @return true if compliant, false if not
      */
     public boolean isOpeningHoursCompliant(String rolexHours, String retailerHours) {
+        return isOpeningHoursCompliant(rolexHours, retailerHours, CountryRules.defaults());
+    }
+
+    /**
+     * Checks if retailer opening hours match Rolex opening hours and determines compliance level
+     * @param rolexHours opening hours from Rolex website
+     * @param retailerHours opening hours from Retailer website
+     * @param countryRules rules of the retailer's country
+     * @return true if compliant, false if not
+     */
+    public boolean isOpeningHoursCompliant(String rolexHours, String retailerHours, CountryRules countryRules) {
         log.info("Checking opening hours compliance");
-        log.debug("Rolex hours: " + rolexHours);
-        log.debug("Retailer hours: " + retailerHours);
+        log.debug("Rolex hours: {}", rolexHours);
+        log.debug("Retailer hours: {}", retailerHours);
 
         // Check if opening hours are available
         if (rolexHours == null || retailerHours == null ||
@@ -28,68 +51,69 @@ public class OpeningHoursComplianceCheck {
         String normalizedRolexHours = normalizeOpeningHours(rolexHours);
         String normalizedRetailerHours = normalizeOpeningHours(retailerHours);
 
-        // Check for exact match after normalization
-        if (normalizedRolexHours.equals(normalizedRetailerHours)) {
-            log.info("✅ COMPLIANT: Opening hours match exactly");
+        RuleEngine.Evaluation evaluation = rules.evaluate(
+                new Hours(normalizedRolexHours, countryRules), new Hours(normalizedRetailerHours, countryRules));
+        if (evaluation.isCompliant()) {
+            log.info(evaluation.getRule().getMessage());
             return true;
         }
+        log.error(evaluation.getRule() != null ? evaluation.getRule().getMessage()
+                : "❌ NOT COMPLIANT: Opening hours do not match required criteria");
+        return false;
+    }
 
-        // Check if hours match when ignoring closing days in Rolex section
-        if (hoursMatchIgnoringClosingDays(normalizedRolexHours, normalizedRetailerHours)) {
-            log.info("✅ COMPLIANT: Opening hours match (closing days not reported in Rolex section)");
-            return true;
-        }
+    /**
+     * Normalized opening hours with the rules of the retailer's country
+     */
+    private static class Hours {
+        private final String normalized;
+        private final CountryRules rules;
 
-        // Check for different days/hours
-        if (hasDifferentDaysOrHours(normalizedRolexHours, normalizedRetailerHours)) {
-            log.error("❌ NOT COMPLIANT: Different days or opening hours detected");
-            return false;
+        Hours(String normalized, CountryRules rules) {
+            this.normalized = normalized;
+            this.rules = rules;
         }
-
-        log.error("❌ NOT COMPLIANT: Opening hours do not match required criteria");
-        return false;
     }
 
     /**
-     * Normalizes opening hours string for comparison
+     * Normalizes opening hours string for comparison: day names and closure words of any supported
+     * language become English names and "closed", times become 24-hour HHhMM
      */
-    private String normalizeOpeningHours(String hours) {
-        return hours.toLowerCase()
-                .replaceAll("\\s+", " ")
-                .replaceAll("(:|\\.|,)(?=\\d)", "h") // normalize time separators
-                .replaceAll("(am|pm)", "") // remove AM/PM indicators
-                .replaceAll("(monday|mon)", "monday")
-                .replaceAll("(tuesday|tue|tues)", "tuesday")
-                .replaceAll("(wednesday|wed)", "wednesday")
-                .replaceAll("(thursday|thu|thurs)", "thursday")
-                .replaceAll("(friday|fri)", "friday")
-                .replaceAll("(saturday|sat)", "saturday")
-                .replaceAll("(sunday|sun)", "sunday")
-                .trim();
+    private static String normalizeOpeningHours(String hours) {
+        return HoursTokenizer.getInstance().normalize(hours);
     }
 
     /**
-     * Checks if hours match when ignoring closing days
+     * Checks if hours match when ignoring closing days. Days missing from the Rolex hours are skipped,
+     * but the retailer must list every day the Rolex hours list; hours without any day never match.
      */
-    private boolean hoursMatchIgnoringClosingDays(String hours1, String hours2) {
+    private static boolean hoursMatchIgnoringClosingDays(String rolexHours, String retailerHours, CountryRules countryRules) {
         // Extract operating hours for each day
-        String[] days1 = extractDailyHours(hours1);
-        String[] days2 = extractDailyHours(hours2);
+        String[] rolexDays = extractDailyHours(rolexHours);
+        String[] retailerDays = extractDailyHours(retailerHours);
 
+        boolean anyDay = false;
         for (int i = 0; i < 7; i++) {
-            if (!days1[i].contains("closed") && !days2[i].contains("closed")) {
-                if (!days1[i].equals(days2[i])) {
+            if (rolexDays[i] == null) {
+                continue;
+            }
+            anyDay = true;
+            if (retailerDays[i] == null) {
+                return false;
+            }
+            if (!countryRules.isClosed(rolexDays[i]) && !countryRules.isClosed(retailerDays[i])) {
+                if (!rolexDays[i].equals(retailerDays[i])) {
                     return false;
                 }
             }
         }
-        return true;
+        return anyDay;
     }
 
     /**
      * Extracts daily hours into an array
      */
-    private String[] extractDailyHours(String hours) {
+    private static String[] extractDailyHours(String hours) {
         String[] daysOfWeek = new String[7];
         String[] lines = hours.split("\n");
 
@@ -110,7 +134,7 @@ public class OpeningHoursComplianceCheck {
     /**
      * Extracts hours from a single line
      */
-    private String extractHoursFromLine(String line) {
+    private static String extractHoursFromLine(String line) {
         // Remove day name and extract time
         return line.replaceAll("^.*?(?=\\d|closed)", "").trim();
     }
@@ -118,7 +142,7 @@ public class OpeningHoursComplianceCheck {
     /**
      * Checks for different days or hours
      */
-    private boolean hasDifferentDaysOrHours(String hours1, String hours2) {
+    private static boolean hasDifferentDaysOrHours(String hours1, String hours2) {
         String[] days1 = extractDailyHours(hours1);
         String[] days2 = extractDailyHours(hours2);
 
@@ -133,24 +157,15 @@ public class OpeningHoursComplianceCheck {
     /**
      * Validates time format
      */
-    private boolean isValidTimeFormat(String time) {
+    private static boolean isValidTimeFormat(String time) {
         // Check if time follows standard format (e.g., 09:00-18:00 or 9h00-18h00)
         return time.matches("\\d{1,2}[h:]\\d{2}-\\d{1,2}[h:]\\d{2}");
     }
 
-    /**
-     * Checks if the hours indicate a full day closure
-     */
-    private boolean isClosedDay(String hours) {
-        return hours.toLowerCase().contains("closed") ||
-                hours.toLowerCase().contains("fermé") ||
-                hours.toLowerCase().contains("geschlossen");
-    }
-
     /**
      * Validates if hours are within reasonable range
      */
-    private boolean isReasonableHours(String hours) {
+    private static boolean isReasonableHours(String hours) {
         // Extract hours from time string
         String[] times = hours.split("-");
         if (times.length != 2) return false;
@@ -167,7 +182,7 @@ public class OpeningHoursComplianceCheck {
     /**
      * Extracts hour from time string
      */
-    private int extractHour(String time) {
+    private static int extractHour(String time) {
         // Extract numeric hour from time string (e.g., "09:00" or "9h00")
         return Integer.parseInt(time.split("[h:]")[0]);
     }
@@ -0,0 +1,101 @@
+package Validations;
+
+import java.util.Objects;
+
+/**
+ * Address split into its components by {@link AddressParser}.
+ * All components are lower case and normalized; components that were not found are null.
+ */
+public class ParsedAddress {
+    private final String street;
+    private final String houseNumber;
+    private final String unit;
+    private final String postalCode;
+    private final String city;
+    private final String country;
+
+    public ParsedAddress(String street, String houseNumber, String unit, String postalCode, String city, String country) {
+        this.street = street;
+        this.houseNumber = houseNumber;
+        this.unit = unit;
+        this.postalCode = postalCode;
+        this.city = city;
+        this.country = country;
+    }
+
+    /**
+     * Checks whether the address names a street, a house number and either a postal code or a city
+     * @return true if the address can be compared component by component
+     */
+    public boolean isComplete() {
+        return street != null && houseNumber != null && (postalCode != null || city != null);
+    }
+
+    /**
+     * Compares two addresses component by component. Street and house number must be equal;
+     * unit, postal code, city and country must be equal where both addresses name them.
+     * @param other address to compare with
+     * @return true if no component differs
+     */
+    public boolean matches(ParsedAddress other) {
+        return Objects.equals(street, other.street)
+                && Objects.equals(houseNumber, other.houseNumber)
+                && sameIfBothPresent(unit, other.unit)
+                && sameIfBothPresent(postalCode, other.postalCode)
+                && sameIfBothPresent(city, other.city)
+                && sameIfBothPresent(country, other.country);
+    }
+
+    private static boolean sameIfBothPresent(String component1, String component2) {
+        return component1 == null || component2 == null || component1.equals(component2);
+    }
+
+    public String getStreet() {
+        return street;
+    }
+
+    public String getHouseNumber() {
+        return houseNumber;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public String getPostalCode() {
+        return postalCode;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ParsedAddress)) {
+            return false;
+        }
+        ParsedAddress that = (ParsedAddress) o;
+        return Objects.equals(street, that.street) && Objects.equals(houseNumber, that.houseNumber)
+                && Objects.equals(unit, that.unit) && Objects.equals(postalCode, that.postalCode)
+                && Objects.equals(city, that.city) && Objects.equals(country, that.country);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(street, houseNumber, unit, postalCode, city, country);
+    }
+
+    @Override
+    public String toString() {
+        return "ParsedAddress[street=" + street + ", houseNumber=" + houseNumber + ", unit=" + unit
+                + ", postalCode=" + postalCode + ", city=" + city + ", country=" + country + "]";
+    }
+}
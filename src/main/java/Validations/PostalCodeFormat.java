@@ -0,0 +1,114 @@
+package Validations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Postal code grammar of one country, written as a template such as {@code "### ##"} or {@code "#####-####"}.
+ *
+ * <p>In a template {@code #} stands for a digit, a space for an optional single space and any
+ * other character for itself. Templates are matched character by character, without regular
+ * expressions, and a match must be delimited by non-alphanumeric characters on both sides.</p>
+ */
+public class PostalCodeFormat {
+    private final char[] template;
+
+    private PostalCodeFormat(String template) {
+        this.template = template.toCharArray();
+    }
+
+    /**
+     * Parses a comma separated list of templates, longest first so that ZIP+4 wins over ZIP
+     * @param templates templates such as {@code "#####-####,#####"}
+     * @return formats in the order they should be tried
+     */
+    public static List<PostalCodeFormat> parseList(String templates) {
+        List<PostalCodeFormat> formats = new ArrayList<>();
+        if (templates != null) {
+            for (String template : templates.split(",")) {
+                if (!template.trim().isEmpty()) {
+                    formats.add(new PostalCodeFormat(template.trim()));
+                }
+            }
+        }
+        formats.sort(Comparator.comparingInt((PostalCodeFormat format) -> format.template.length).reversed());
+        return Collections.unmodifiableList(formats);
+    }
+
+    /**
+     * Matches the template at a position of a text
+     * @param text text to match
+     * @param start index the postal code starts at
+     * @return index after the postal code, -1 if the template does not match there
+     */
+    public int match(CharSequence text, int start) {
+        if (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+            return -1;
+        }
+        int position = start;
+        for (char expected : template) {
+            if (expected == ' ') {
+                if (position < text.length() && text.charAt(position) == ' ') {
+                    position++;
+                }
+            } else if (position >= text.length()) {
+                return -1;
+            } else if (expected == '#' ? !isDigit(text.charAt(position)) : text.charAt(position) != expected) {
+                return -1;
+            } else {
+                position++;
+            }
+        }
+        return position < text.length() && Character.isLetterOrDigit(text.charAt(position)) ? -1 : position;
+    }
+
+    /**
+     * Finds the last postal code of a text; postal codes follow street numbers, so the last match is the right one
+     * @param formats formats to try, longest first
+     * @param text text to search
+     * @param from first index to search
+     * @param to index after the last character to search
+     * @return start and end index of the postal code, null if none is found
+     */
+    public static int[] findLast(List<PostalCodeFormat> formats, CharSequence text, int from, int to) {
+        CharSequence range = text.subSequence(0, to);
+        for (int start = to - 1; start >= from; start--) {
+            if (!isDigit(range.charAt(start))) {
+                continue;
+            }
+            for (PostalCodeFormat format : formats) {
+                int end = format.match(range, start);
+                if (end > 0) {
+                    return new int[]{start, end};
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the optional spaces of a matched postal code
+     * @param postalCode postal code as written
+     * @return canonical postal code
+     */
+    public static String canonical(CharSequence postalCode) {
+        StringBuilder builder = new StringBuilder(postalCode.length());
+        for (int i = 0; i < postalCode.length(); i++) {
+            if (postalCode.charAt(i) != ' ') {
+                builder.append(postalCode.charAt(i));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    @Override
+    public String toString() {
+        return new String(template);
+    }
+}
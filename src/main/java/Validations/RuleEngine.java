@@ -0,0 +1,189 @@
+package Validations;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evaluates compliance rules in order of expected cost per hit and stops at the first decisive hit.
+ *
+ * <p>Rules are ranked by cost divided by hit rate, so cheap and selective rules lead. The cost is
+ * the declared estimate until every rule of a phase has been measured {@value #WARMUP_EVALUATIONS}
+ * times, after which the measured mean time is used. The order is recomputed every
+ * {@value #REORDER_INTERVAL} evaluations from per-rule statistics shared by all threads.
+ * Decisive rules run first; non-decisive rules only run when no decisive rule hit,
+ * to explain the default verdict.</p>
+ * @param <T> type of the compared values
+ */
+public class RuleEngine<T> {
+    private static final Logger log = LogManager.getLogger(RuleEngine.class);
+    private static final List<RuleEngine<?>> engines = new CopyOnWriteArrayList<>();
+    static final int WARMUP_EVALUATIONS = 20;
+    static final int REORDER_INTERVAL = 64;
+
+    private final String name;
+    private final RuleOutcome defaultOutcome;
+    private final List<Ranked<T>> decisive = new ArrayList<>();
+    private final List<Ranked<T>> diagnostic = new ArrayList<>();
+    private final AtomicLong evaluations = new AtomicLong();
+    private volatile List<Ranked<T>> decisiveOrder;
+    private volatile List<Ranked<T>> diagnosticOrder;
+
+    /**
+     * Constructor for RuleEngine
+     * @param name engine name used in logs
+     * @param defaultOutcome verdict when no decisive rule hits
+     * @param rules rules to evaluate
+     */
+    public RuleEngine(String name, RuleOutcome defaultOutcome, List<ComplianceRule<T>> rules) {
+        this.name = name;
+        this.defaultOutcome = defaultOutcome;
+        for (ComplianceRule<T> rule : rules) {
+            (rule.isDecisive() ? decisive : diagnostic).add(new Ranked<>(rule));
+        }
+        this.decisiveOrder = rank(decisive);
+        this.diagnosticOrder = rank(diagnostic);
+        engines.add(this);
+    }
+
+    /**
+     * Evaluates the rules against a pair of values
+     * @param rolexValue value from the Rolex website
+     * @param retailerValue value from the retailer website
+     * @return verdict and the rule that explains it
+     */
+    public Evaluation evaluate(T rolexValue, T retailerValue) {
+        if (evaluations.incrementAndGet() % REORDER_INTERVAL == 0) {
+            decisiveOrder = rank(decisive);
+            diagnosticOrder = rank(diagnostic);
+        }
+        Ranked<T> hit = firstHit(decisiveOrder, rolexValue, retailerValue);
+        if (hit != null) {
+            return new Evaluation(hit.outcome, hit.rule);
+        }
+        hit = firstHit(diagnosticOrder, rolexValue, retailerValue);
+        return new Evaluation(defaultOutcome, hit != null ? hit.rule : null);
+    }
+
+    /**
+     * Evaluates rules in order until one hits
+     */
+    private Ranked<T> firstHit(List<Ranked<T>> rules, T rolexValue, T retailerValue) {
+        for (Ranked<T> ranked : rules) {
+            long start = System.nanoTime();
+            RuleOutcome outcome = ranked.rule.evaluate(rolexValue, retailerValue);
+            boolean hit = outcome != RuleOutcome.INCONCLUSIVE;
+            ranked.stats.record(hit, System.nanoTime() - start);
+            if (hit) {
+                log.debug("{} rule {} hit with {}", name, ranked.rule.getName(), outcome);
+                return new Ranked<>(ranked.rule, ranked.stats, outcome);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Orders rules by expected cost per hit
+     */
+    private static <T> List<Ranked<T>> rank(List<Ranked<T>> rules) {
+        boolean measured = !rules.isEmpty();
+        for (Ranked<T> ranked : rules) {
+            measured &= ranked.stats.getEvaluations() >= WARMUP_EVALUATIONS;
+        }
+        boolean useMeasured = measured;
+        List<Ranked<T>> ordered = new ArrayList<>(rules);
+        ordered.sort(Comparator.comparingDouble(ranked -> {
+            double cost = useMeasured ? ranked.stats.getMeanNanos() : ranked.rule.getCost();
+            return cost / ranked.stats.getHitRate();
+        }));
+        return Collections.unmodifiableList(ordered);
+    }
+
+    /**
+     * Gets the current evaluation order, decisive rules first
+     * @return rule names in evaluation order
+     */
+    public List<String> getOrder() {
+        List<String> order = new ArrayList<>();
+        decisiveOrder.forEach(ranked -> order.add(ranked.rule.getName()));
+        diagnosticOrder.forEach(ranked -> order.add(ranked.rule.getName()));
+        return order;
+    }
+
+    /**
+     * Gets the statistics of every rule
+     * @return per-rule statistics in declaration order
+     */
+    public List<RuleStats> getStats() {
+        List<RuleStats> stats = new ArrayList<>();
+        decisive.forEach(ranked -> stats.add(ranked.stats));
+        diagnostic.forEach(ranked -> stats.add(ranked.stats));
+        return stats;
+    }
+
+    /**
+     * Logs the rule statistics and current order of every engine created in this JVM
+     */
+    public static void logStatistics() {
+        for (RuleEngine<?> engine : engines) {
+            log.info("=== {} rules, order {} ===", engine.name, engine.getOrder());
+            for (RuleStats stats : engine.getStats()) {
+                log.info("{}", stats);
+            }
+        }
+    }
+
+    /**
+     * Verdict of an evaluation with the rule that explains it
+     */
+    public static class Evaluation {
+        private final RuleOutcome outcome;
+        private final ComplianceRule<?> rule;
+
+        Evaluation(RuleOutcome outcome, ComplianceRule<?> rule) {
+            this.outcome = outcome;
+            this.rule = rule;
+        }
+
+        public boolean isCompliant() {
+            return outcome == RuleOutcome.COMPLIANT;
+        }
+
+        public RuleOutcome getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * Gets the rule that decided or explains the verdict
+         * @return rule, null if no rule hit
+         */
+        public ComplianceRule<?> getRule() {
+            return rule;
+        }
+    }
+
+    /**
+     * A rule with its statistics, and the outcome once it hit
+     */
+    private static class Ranked<T> {
+        private final ComplianceRule<T> rule;
+        private final RuleStats stats;
+        private final RuleOutcome outcome;
+
+        Ranked(ComplianceRule<T> rule) {
+            this(rule, new RuleStats(rule.getName()), null);
+        }
+
+        Ranked(ComplianceRule<T> rule, RuleStats stats, RuleOutcome outcome) {
+            this.rule = rule;
+            this.stats = stats;
+            this.outcome = outcome;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package Validations;
+
+/**
+ * Outcome of evaluating one compliance rule
+ */
+public enum RuleOutcome {
+    COMPLIANT,
+    NOT_COMPLIANT,
+    INCONCLUSIVE
+}
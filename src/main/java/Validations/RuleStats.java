@@ -0,0 +1,70 @@
+package Validations;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluation counters of one compliance rule, safe to update from many threads
+ */
+public class RuleStats {
+    private final String ruleName;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Constructor for RuleStats
+     * @param ruleName name of the measured rule
+     */
+    public RuleStats(String ruleName) {
+        this.ruleName = ruleName;
+    }
+
+    /**
+     * Records one evaluation
+     * @param hit whether the rule hit
+     * @param nanos evaluation time in nanoseconds
+     */
+    void record(boolean hit, long nanos) {
+        evaluations.increment();
+        totalNanos.add(nanos);
+        if (hit) {
+            hits.increment();
+        }
+    }
+
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the hit rate with add-one smoothing, 0.5 before the first evaluation
+     * @return smoothed hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        return (hits.sum() + 1.0) / (evaluations.sum() + 2.0);
+    }
+
+    /**
+     * Gets the mean evaluation time
+     * @return mean nanoseconds per evaluation, 0 before the first evaluation
+     */
+    public double getMeanNanos() {
+        long count = evaluations.sum();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d evaluations, %d hits, %.1f%% hit rate, %.1fus mean",
+                ruleName, getEvaluations(), getHits(), 100.0 * getHits() / Math.max(1, getEvaluations()),
+                getMeanNanos() / 1000);
+    }
+}
@@ -0,0 +1,119 @@
+package Benchmark;
+
+import Constants.Constants;
+import Execution.RetailerResult;
+import Execution.ShardResults;
+import Fixtures.FixtureSuiteListener;
+import Scripts.ValidateRetailerInformationTest;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs one benchmark configuration in the current JVM: the catalog suite against the fixture
+ * server, measured end to end. Started by {@link PipelineBenchmark} in a fresh JVM and working
+ * directory per configuration, so static pipeline state and output files never leak between runs.
+ *
+ * <p>Usage: {@code java -Dcatalog.threads=4 -Dbrowser.headless=true ... Benchmark.BenchmarkRun <result.json>}</p>
+ */
+public class BenchmarkRun {
+    private static final Logger log = LogManager.getLogger(BenchmarkRun.class);
+    private static final long SAMPLE_INTERVAL_MILLIS = 500;
+
+    public static void main(String[] args) throws IOException {
+        Path resultFile = Paths.get(args.length > 0 ? args[0] : "result.json");
+        int poolSize = Integer.getInteger(Constants.Parallel.THREADS_PROPERTY, 1);
+        String browser = System.getProperty(Constants.Benchmark.BROWSER_PROPERTY, "chrome");
+
+        long start = System.nanoTime();
+        ProcessTreeSampler sampler;
+        // The sampler is closed, taking its last sample, before the run is summarized
+        try (ProcessTreeSampler running = new ProcessTreeSampler(SAMPLE_INTERVAL_MILLIS)) {
+            sampler = running;
+            TestNG testng = new TestNG();
+            testng.setXmlSuites(Collections.singletonList(suite(poolSize, browser)));
+            testng.setUseDefaultListeners(false);
+            testng.run();
+        }
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+        Map<String, Object> result = summarize(wallSeconds, sampler);
+        Files.write(resultFile, new Json().toJson(result).getBytes(StandardCharsets.UTF_8));
+        log.info("Benchmark result written to {}: {}", resultFile, result);
+    }
+
+    private static XmlSuite suite(int poolSize, String browser) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("Benchmark");
+        suite.setParallel(XmlSuite.ParallelMode.METHODS);
+        suite.setThreadCount(poolSize);
+        suite.setDataProviderThreadCount(poolSize);
+        suite.addListener(FixtureSuiteListener.class.getName());
+
+        XmlTest test = new XmlTest(suite);
+        test.setName("Benchmark");
+        test.addParameter("browser", browser);
+        XmlClass testClass = new XmlClass(ValidateRetailerInformationTest.class.getName());
+        testClass.setIncludedMethods(Collections.singletonList(new XmlInclude("validateCatalogRetailer")));
+        test.setXmlClasses(Collections.singletonList(testClass));
+        return suite;
+    }
+
+    /**
+     * Summarizes the shard result file written by the catalog suite
+     */
+    private static Map<String, Object> summarize(double wallSeconds, ProcessTreeSampler sampler) throws IOException {
+        Path shardFile = Paths.get(Constants.Sharding.OUTPUT_DIR, ShardResults.fileName(0, 1));
+        List<RetailerResult> results = Files.exists(shardFile)
+                ? ShardResults.read(shardFile).getResults() : new ArrayList<>();
+        List<Long> durations = new ArrayList<>();
+        Map<RetailerResult.Verdict, Integer> verdicts = new EnumMap<>(RetailerResult.Verdict.class);
+        for (RetailerResult result : results) {
+            durations.add(result.getDurationMillis());
+            verdicts.merge(result.getVerdict(), 1, Integer::sum);
+        }
+        Collections.sort(durations);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("validated", results.size());
+        summary.put("passed", verdicts.getOrDefault(RetailerResult.Verdict.PASS, 0));
+        summary.put("failed", verdicts.getOrDefault(RetailerResult.Verdict.FAIL, 0));
+        summary.put("errors", verdicts.getOrDefault(RetailerResult.Verdict.ERROR, 0));
+        summary.put("wallSeconds", wallSeconds);
+        summary.put("retailersPerMinute", results.size() / (wallSeconds / 60));
+        summary.put("latencyP50Millis", percentile(durations, 50));
+        summary.put("latencyP95Millis", percentile(durations, 95));
+        summary.put("latencyP99Millis", percentile(durations, 99));
+        summary.put("cpuMillis", sampler.getCpuMillis());
+        summary.put("peakRssBytes", sampler.getPeakRssBytes());
+        summary.put("peakProcesses", sampler.getPeakProcesses());
+        return summary;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values
+     */
+    static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return -1;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+}
@@ -0,0 +1,163 @@
+package Benchmark;
+
+import Constants.Constants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput benchmark of the validation pipeline against the fixture server.
+ *
+ * <p>Every combination of session pool size, tabs per session, headless mode, screenshot policy and
+ * extraction strategy runs in its own JVM ({@link BenchmarkRun}). The matrix is configured with
+ * comma-separated system properties, e.g.
+ * {@code mvn test -DsuiteXmlFile=src/test/java/Suites/Test-Benchmark.xml -Dbenchmark.poolSizes=1,4
+ * -Dbenchmark.tabs=1,4 -Dbenchmark.headless=true -Dbenchmark.screenshots=ALWAYS,NEVER
+ * -Dbenchmark.extraction=findall,css}. Each result also reports throughput per GB of peak RSS.
+ * fixture.* properties are passed on to every run. Results are written as a JSON array to
+ * {@code target/benchmark/results.json}.</p>
+ */
+public class PipelineBenchmark {
+    private static final Logger log = LogManager.getLogger(PipelineBenchmark.class);
+    private static final long RUN_TIMEOUT_MINUTES = 60;
+
+    @Test(description = "Benchmark the validation pipeline across the configured matrix")
+    public void runBenchmark() throws Exception {
+        main(new String[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path outputDir = Paths.get(args.length > 0 ? args[0] : Constants.Benchmark.OUTPUT_DIR).toAbsolutePath();
+        Files.createDirectories(outputDir);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String poolSize : list(Constants.Benchmark.POOL_SIZES_PROPERTY, "1,2,4")) {
+            for (String tabs : list(Constants.Benchmark.TABS_PROPERTY, "1")) {
+                for (String headless : list(Constants.Benchmark.HEADLESS_PROPERTY, "true,false")) {
+                    for (String screenshots : list(Constants.Benchmark.SCREENSHOTS_PROPERTY, "ALWAYS,NEVER")) {
+                        for (String extraction : list(Constants.Benchmark.EXTRACTION_PROPERTY, "findall,css")) {
+                            Map<String, Object> configuration = new LinkedHashMap<>();
+                            configuration.put("poolSize", Integer.parseInt(poolSize));
+                            configuration.put("tabs", Integer.parseInt(tabs));
+                            configuration.put("headless", Boolean.parseBoolean(headless));
+                            configuration.put("screenshotPolicy", screenshots);
+                            configuration.put("extraction", extraction);
+                            results.add(run(outputDir, configuration));
+                        }
+                    }
+                }
+            }
+        }
+
+        Path resultsFile = outputDir.resolve(Constants.Benchmark.RESULTS_FILE);
+        Files.write(resultsFile, new Json().toJson(results).getBytes(StandardCharsets.UTF_8));
+        log.info("=== Benchmark results ({}) ===", resultsFile);
+        for (Map<String, Object> result : results) {
+            log.info("{}", result);
+        }
+    }
+
+    /**
+     * Runs one configuration in a fresh JVM and working directory
+     */
+    private static Map<String, Object> run(Path outputDir, Map<String, Object> configuration) throws Exception {
+        String name = String.format("pool%s-tabs%s-%s-%s-%s", configuration.get("poolSize"), configuration.get("tabs"),
+                Boolean.TRUE.equals(configuration.get("headless")) ? "headless" : "headed",
+                configuration.get("screenshotPolicy"), configuration.get("extraction")).toLowerCase();
+        Path workDir = Files.createDirectories(outputDir.resolve(name));
+        Path resultFile = workDir.resolve("result.json");
+        Files.deleteIfExists(resultFile);
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(classPath());
+        command.add("-D" + Constants.Parallel.THREADS_PROPERTY + "=" + configuration.get("poolSize"));
+        command.add("-D" + Constants.Browser.TABS_PROPERTY + "=" + configuration.get("tabs"));
+        command.add("-D" + Constants.Browser.HEADLESS_PROPERTY + "=" + configuration.get("headless"));
+        command.add("-D" + Constants.Browser.SCREENSHOT_POLICY_PROPERTY + "=" + configuration.get("screenshotPolicy"));
+        command.add("-D" + Constants.Fixtures.LOCATORS_PROPERTY + "=" + "css".equals(configuration.get("extraction")));
+        command.add("-D" + Constants.Fixtures.RETAILERS_PROPERTY + "="
+                + Integer.getInteger(Constants.Benchmark.RETAILERS_PROPERTY, Constants.Fixtures.DEFAULT_RETAILERS));
+        command.add("-D" + Constants.Benchmark.BROWSER_PROPERTY + "="
+                + System.getProperty(Constants.Benchmark.BROWSER_PROPERTY, "chrome"));
+        // The Rolex reference cache would hide page loads from every run after the first
+        command.add("-D" + Constants.RolexCache.TTL_PROPERTY + "=0");
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("fixture.") && !key.equals(Constants.Fixtures.LOCATORS_PROPERTY)
+                    && !key.equals(Constants.Fixtures.RETAILERS_PROPERTY)) {
+                command.add("-D" + key + "=" + System.getProperty(key));
+            }
+        }
+        command.add(BenchmarkRun.class.getName());
+        command.add(resultFile.toString());
+
+        log.info("Benchmark run {}", name);
+        Process process = new ProcessBuilder(command)
+                .directory(workDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("run.log").toFile())
+                .start();
+        if (!process.waitFor(RUN_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>(configuration);
+        if (Files.exists(resultFile)) {
+            Map<String, Object> measured = new Json().toType(
+                    new String(Files.readAllBytes(resultFile), StandardCharsets.UTF_8), Json.MAP_TYPE);
+            result.putAll(measured);
+            Object throughput = measured.get("retailersPerMinute");
+            Object peakRss = measured.get("peakRssBytes");
+            if (throughput instanceof Number && peakRss instanceof Number && ((Number) peakRss).longValue() > 0) {
+                result.put("retailersPerMinutePerGb", ((Number) throughput).doubleValue()
+                        / (((Number) peakRss).doubleValue() / (1024L * 1024 * 1024)));
+            }
+        } else {
+            result.put("error", "Run produced no result, see " + workDir.resolve("run.log"));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the class path of the current run, also when started from a class loader other than the system one
+     */
+    private static String classPath() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader instanceof URLClassLoader) {
+            List<String> entries = new ArrayList<>();
+            for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+                entries.add(url.getPath());
+            }
+            if (!entries.isEmpty()) {
+                return String.join(File.pathSeparator, entries);
+            }
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    private static List<String> list(String property, String defaultValue) {
+        List<String> values = new ArrayList<>();
+        for (String value : System.getProperty(property, defaultValue).split(",")) {
+            if (!value.trim().isEmpty()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+}
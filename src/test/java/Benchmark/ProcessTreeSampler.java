@@ -0,0 +1,149 @@
+package Benchmark;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Samples CPU time and resident memory of this JVM and all of its descendant processes
+ * (drivers and browsers) from {@code /proc}. On systems without {@code /proc} every
+ * figure is reported as -1.
+ */
+public class ProcessTreeSampler implements AutoCloseable {
+    private static final Logger log = LogManager.getLogger(ProcessTreeSampler.class);
+    private static final Path PROC = Paths.get("/proc");
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    private static final long PAGE_SIZE = 4096;
+
+    private final long intervalMillis;
+    private final Thread thread;
+    private final Map<Integer, Long> cpuTicksByPid = new HashMap<>();
+    private volatile boolean running = true;
+    private long peakRssBytes;
+    private int peakProcesses;
+
+    /**
+     * Starts sampling in a daemon thread
+     * @param intervalMillis sampling interval
+     */
+    public ProcessTreeSampler(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        this.thread = new Thread(this::run, "process-tree-sampler");
+        this.thread.setDaemon(true);
+        if (Files.isDirectory(PROC)) {
+            thread.start();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            sample();
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes one sample of the process tree
+     */
+    private synchronized void sample() {
+        try {
+            int self = Integer.parseInt(Files.readSymbolicLink(PROC.resolve("self")).toString());
+            Map<Integer, List<Integer>> children = new HashMap<>();
+            Map<Integer, String[]> stats = new HashMap<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(PROC, "[0-9]*")) {
+                for (Path entry : entries) {
+                    String[] fields = readStat(entry);
+                    if (fields != null) {
+                        int pid = Integer.parseInt(entry.getFileName().toString());
+                        stats.put(pid, fields);
+                        children.computeIfAbsent(Integer.parseInt(fields[1]), key -> new ArrayList<>()).add(pid);
+                    }
+                }
+            }
+
+            long rss = 0;
+            Set<Integer> tree = new HashSet<>();
+            List<Integer> pending = new ArrayList<>();
+            pending.add(self);
+            while (!pending.isEmpty()) {
+                int pid = pending.remove(pending.size() - 1);
+                String[] fields = stats.get(pid);
+                if (fields == null || !tree.add(pid)) {
+                    continue;
+                }
+                // Fields after the command: 11 utime, 12 stime, 21 rss (pages)
+                cpuTicksByPid.merge(pid, Long.parseLong(fields[11]) + Long.parseLong(fields[12]), Math::max);
+                rss += Long.parseLong(fields[21]) * PAGE_SIZE;
+                pending.addAll(children.getOrDefault(pid, new ArrayList<>()));
+            }
+            peakRssBytes = Math.max(peakRssBytes, rss);
+            peakProcesses = Math.max(peakProcesses, tree.size());
+        } catch (IOException | RuntimeException e) {
+            log.debug("Process sample failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the fields of /proc/&lt;pid&gt;/stat that follow the command name
+     */
+    private static String[] readStat(Path processDir) {
+        try {
+            String stat = new String(Files.readAllBytes(processDir.resolve("stat")), StandardCharsets.US_ASCII);
+            return stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the CPU time used by the process tree, counting exited processes up to their last sample
+     * @return CPU milliseconds, -1 without /proc
+     */
+    public synchronized long getCpuMillis() {
+        if (cpuTicksByPid.isEmpty()) {
+            return -1;
+        }
+        long ticks = 0;
+        for (long value : cpuTicksByPid.values()) {
+            ticks += value;
+        }
+        return ticks * 1000 / CLOCK_TICKS_PER_SECOND;
+    }
+
+    /**
+     * Gets the highest resident memory of the whole process tree seen in one sample
+     * @return bytes, -1 without /proc
+     */
+    public synchronized long getPeakRssBytes() {
+        return cpuTicksByPid.isEmpty() ? -1 : peakRssBytes;
+    }
+
+    public synchronized int getPeakProcesses() {
+        return peakProcesses;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        if (Files.isDirectory(PROC)) {
+            sample();
+        }
+    }
+}
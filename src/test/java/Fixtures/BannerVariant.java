@@ -0,0 +1,18 @@
+package Fixtures;
+
+/**
+ * Cookie consent banners served by the fixture sites, each matching a different
+ * locator strategy of {@link Pages.CookieBanner}
+ */
+public enum BannerVariant {
+    /** No consent banner */
+    NONE,
+    /** Element with a "banner" class and an "Accept all" text button */
+    CLASS_BANNER,
+    /** Element with role="dialog" and a cc-allow-button id */
+    DIALOG,
+    /** #cookie-consent container with an accept data-testid button */
+    CONSENT_ID,
+    /** Class banner injected by a script some time after load */
+    DELAYED
+}
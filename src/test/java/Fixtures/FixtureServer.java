@@ -0,0 +1,468 @@
+package Fixtures;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP server serving synthetic Rolex and retailer contact pages for offline runs.
+ *
+ * <p>Pages use the markup the page objects locate ({@code div[class*='address']},
+ * {@code a[href*='tel:']}, {@code div[class*='hours']}) and one of the {@link BannerVariant}
+ * consent banners. Contact details are derived from the retailer id, so both pages of a
+ * retailer agree unless a mismatch is requested.</p>
+ *
+ * <p>Routes: {@code /rolex/<id>} and {@code /retailer/<id>}, plus a small retailer site under
+ * {@code /site/<id>} (homepage, about, collections, Rolex section and a sitemap linked with
+ * {@code <link rel="sitemap">}) for contact page discovery. Server-wide settings can be
+ * overridden per request with the query parameters {@code latency} (milliseconds),
+ * {@code padding} (bytes), {@code banner} (variant name), {@code js} (true to render the
+ * details from a script), {@code country} (SE, DE, US or AU) and, on retailer pages,
+ * {@code mismatch} (address, phone or hours) and {@code locations} (number of boutiques listed,
+ * the Rolex location among them). With {@code structured} set to true the locations are also
+ * described by a schema.org JSON-LD block, as many store locators do.</p>
+ */
+public class FixtureServer implements AutoCloseable {
+    private static final Logger log = LogManager.getLogger(FixtureServer.class);
+    private static final String[] COUNTRIES = {"SE", "DE", "US", "AU"};
+    private static final int RENDER_DELAY_MILLIS = 300;
+    private static final int BANNER_DELAY_MILLIS = 500;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong requests = new AtomicLong();
+    private volatile long latencyMillis;
+    private volatile int paddingBytes;
+    private volatile BannerVariant banner = BannerVariant.CLASS_BANNER;
+    private volatile boolean jsRendering;
+    private volatile boolean virtualHosts;
+    private volatile int locations = 1;
+    private volatile boolean structuredData;
+
+    /**
+     * Starts a fixture server on an ephemeral loopback port
+     * @param threads number of request handling threads
+     * @throws IOException if the server cannot bind
+     */
+    public FixtureServer(int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/rolex/", exchange -> handle(exchange, true));
+        server.createContext("/retailer/", exchange -> handle(exchange, false));
+        server.createContext("/site/", this::handleSite);
+        server.start();
+        log.info("Fixture server listening on {}", getBaseUrl());
+    }
+
+    /**
+     * Sets the delay added before every response
+     * @param latencyMillis delay in milliseconds
+     * @return this server
+     */
+    public FixtureServer withLatency(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    /**
+     * Sets the size of the hidden filler appended to every page
+     * @param paddingBytes filler size in bytes
+     * @return this server
+     */
+    public FixtureServer withPadding(int paddingBytes) {
+        this.paddingBytes = paddingBytes;
+        return this;
+    }
+
+    /**
+     * Sets the consent banner shown on every page
+     * @param banner banner variant
+     * @return this server
+     */
+    public FixtureServer withBanner(BannerVariant banner) {
+        this.banner = banner;
+        return this;
+    }
+
+    /**
+     * Sets whether contact details are rendered by a script after load instead of served in the markup
+     * @param jsRendering true to render from a script
+     * @return this server
+     */
+    public FixtureServer withJsRendering(boolean jsRendering) {
+        this.jsRendering = jsRendering;
+        return this;
+    }
+
+    /**
+     * Sets whether URLs use one {@code <id>.localhost} host per retailer, so per-host
+     * politeness and affinity behave as with real sites. Browsers resolve these to loopback;
+     * plain Java clients may not.
+     * @param virtualHosts true for one host per retailer
+     * @return this server
+     */
+    public FixtureServer withVirtualHosts(boolean virtualHosts) {
+        this.virtualHosts = virtualHosts;
+        return this;
+    }
+
+    /**
+     * Sets the number of boutiques listed on retailer pages; one of them is the Rolex location
+     * @param locations number of locations, at least one
+     * @return this server
+     */
+    public FixtureServer withLocations(int locations) {
+        this.locations = Math.max(1, locations);
+        return this;
+    }
+
+    /**
+     * Sets whether pages describe their locations with schema.org JSON-LD in addition to the markup
+     * @param structuredData true to add a JSON-LD block
+     * @return this server
+     */
+    public FixtureServer withStructuredData(boolean structuredData) {
+        this.structuredData = structuredData;
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Gets the Rolex contact page URL of a synthetic retailer
+     * @param retailerId retailer id
+     * @return page URL
+     */
+    public String rolexUrl(String retailerId) {
+        return baseUrl(retailerId) + "/rolex/" + retailerId;
+    }
+
+    /**
+     * Gets the retailer contact page URL of a synthetic retailer
+     * @param retailerId retailer id
+     * @return page URL
+     */
+    public String retailerUrl(String retailerId) {
+        return baseUrl(retailerId) + "/retailer/" + retailerId;
+    }
+
+    private String baseUrl(String retailerId) {
+        return virtualHosts ? "http://" + retailerId + ".localhost:" + server.getAddress().getPort() : getBaseUrl();
+    }
+
+    /**
+     * Gets the homepage of the synthetic site of a retailer
+     * @param retailerId retailer id
+     * @return homepage URL
+     */
+    public String homepageUrl(String retailerId) {
+        return baseUrl(retailerId) + "/site/" + retailerId;
+    }
+
+    /**
+     * Writes a retailer catalog pointing at this server, with countries in rotation
+     * @param file catalog file to write
+     * @param retailers number of retailers
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCatalog(Path file, int retailers) throws IOException {
+        writeCatalog(file, retailers, false);
+    }
+
+    /**
+     * Writes a retailer catalog pointing at this server, with countries in rotation
+     * @param file catalog file to write
+     * @param retailers number of retailers
+     * @param withLocators true to add CSS locator overrides for the retailer pages
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCatalog(Path file, int retailers, boolean withLocators) throws IOException {
+        String locators = withLocators ? ",div.store-address,a.store-phone-link,div.store-hours" : ",,,";
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("id,country,locale,priority,retailer_url,rolex_url,address_locator,phone_locator,hours_locator\n");
+            for (int i = 0; i < retailers; i++) {
+                String id = String.format("fixture-%05d", i);
+                String country = COUNTRIES[i % COUNTRIES.length];
+                writer.write(String.join(",", id, country, "", "5", retailerUrl(id) + "?country=" + country,
+                        rolexUrl(id) + "?country=" + country) + locators + "\n");
+            }
+        }
+    }
+
+    private void handle(HttpExchange exchange, boolean rolex) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String path = exchange.getRequestURI().getPath();
+            String retailerId = path.substring(path.lastIndexOf('/') + 1);
+            long latency = Long.parseLong(query.getOrDefault("latency", String.valueOf(latencyMillis)));
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            String country = query.getOrDefault("country", COUNTRIES[Math.floorMod(retailerId.hashCode(), COUNTRIES.length)]);
+            SyntheticRetailer retailer = new SyntheticRetailer(retailerId, country.toUpperCase(Locale.ROOT));
+            String mismatch = rolex ? null : query.get("mismatch");
+            String page = render(rolex, retailer, mismatch,
+                    BannerVariant.valueOf(query.getOrDefault("banner", banner.name()).toUpperCase(Locale.ROOT)),
+                    Boolean.parseBoolean(query.getOrDefault("js", String.valueOf(jsRendering))),
+                    Integer.parseInt(query.getOrDefault("padding", String.valueOf(paddingBytes))),
+                    rolex ? 1 : Integer.parseInt(query.getOrDefault("locations", String.valueOf(locations))),
+                    Boolean.parseBoolean(query.getOrDefault("structured", String.valueOf(structuredData))));
+            byte[] body = page.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } catch (RuntimeException e) {
+            log.error("Fixture request {} failed: {}", exchange.getRequestURI(), e.getMessage());
+            exchange.sendResponseHeaders(400, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleSite(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            String query = exchange.getRequestURI().getRawQuery();
+            String suffix = query == null ? "" : "?" + query;
+            String[] path = exchange.getRequestURI().getPath().substring("/site/".length()).split("/");
+            String retailerId = path[0];
+            String page = path.length > 1 ? String.join("/", Arrays.copyOfRange(path, 1, path.length)) : "";
+            String site = "/site/" + retailerId;
+            String body;
+            String contentType = "text/html; charset=utf-8";
+            switch (page) {
+                case "":
+                    body = sitePage(retailerId, "<link rel=\"sitemap\" type=\"application/xml\" href=\"" + site + "/sitemap.xml" + suffix + "\">",
+                            link(site + "/about" + suffix, "About us") + link(site + "/collections" + suffix, "Watches")
+                                    + link(site + "/rolex" + suffix, "Rolex") + link("/retailer/" + retailerId + suffix, "Contact us"));
+                    break;
+                case "rolex":
+                    body = sitePage(retailerId, "", link(site + "/rolex/watches" + suffix, "Rolex watches")
+                            + link("/rolex/" + retailerId + suffix, "Contact") + link(site + suffix, "Home"));
+                    break;
+                case "about":
+                case "collections":
+                case "rolex/watches":
+                    body = sitePage(retailerId, "", link(site + suffix, "Home") + link(site + "/collections/new" + suffix, "New arrivals"));
+                    break;
+                case "sitemap.xml":
+                    contentType = "application/xml; charset=utf-8";
+                    StringBuilder sitemap = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                            + "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+                    for (String entry : new String[]{"", "/about", "/collections", "/rolex", "/rolex/watches"}) {
+                        sitemap.append("<url><loc>").append(baseUrl(retailerId)).append(site).append(entry)
+                                .append(suffix.replace("&", "&amp;")).append("</loc></url>");
+                    }
+                    body = sitemap.append("</urlset>").toString();
+                    break;
+                default:
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String sitePage(String retailerId, String head, String links) {
+        return "<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"utf-8\"><title>" + escape(retailerId)
+                + "</title>" + head + "</head><body><nav>" + links + "</nav></body></html>";
+    }
+
+    private static String link(String href, String text) {
+        return "<a href=\"" + escape(href) + "\"><span>" + escape(text) + "</span></a>";
+    }
+
+    private static String render(boolean rolex, SyntheticRetailer retailer, String mismatch,
+                                 BannerVariant banner, boolean js, int padding, int locations, boolean structured) {
+        String address = "address".equals(mismatch) ? retailer.alternativeAddress() : retailer.address();
+        String phone = "phone".equals(mismatch) ? retailer.alternativePhone() : retailer.phone();
+        String hours = "hours".equals(mismatch) ? retailer.alternativeHours() : retailer.hours();
+        String prefix = rolex ? "rolex-retailer" : "store";
+
+        StringBuilder html = new StringBuilder(2048 + padding);
+        html.append("<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"utf-8\"><title>")
+                .append(rolex ? "Rolex Official Retailer - " : "Contact - ").append(escape(retailer.name()))
+                .append("</title>");
+
+        String details;
+        List<Map<String, Object>> stores = new ArrayList<>();
+        if (locations > 1) {
+            StringBuilder list = new StringBuilder();
+            int main = retailer.mainLocation(locations);
+            for (int i = 0; i < locations; i++) {
+                String locationAddress = i == main ? address : retailer.branchAddress(i);
+                String locationPhone = i == main ? phone : retailer.branchPhone(i);
+                list.append("<div class=\"").append(prefix).append("-location\">")
+                        .append(details(prefix, locationAddress, locationPhone, hours))
+                        .append("</div>");
+                stores.add(store(retailer.name(), locationAddress, locationPhone, hours));
+            }
+            details = list.toString();
+        } else {
+            details = details(prefix, address, phone, hours);
+            stores.add(store(retailer.name(), address, phone, hours));
+        }
+        if (structured) {
+            Map<String, Object> graph = new LinkedHashMap<>();
+            graph.put("@context", "https://schema.org");
+            graph.put("@graph", stores);
+            html.append("<script type=\"application/ld+json\">")
+                    .append(new Json().toJson(graph).replace("</", "<\\/")).append("</script>");
+        }
+        html.append("</head><body><h1>").append(escape(retailer.name())).append("</h1>");
+        if (js) {
+            html.append("<div id=\"contact\"></div><script>setTimeout(function () {")
+                    .append("document.getElementById('contact').innerHTML = ").append(jsString(details))
+                    .append(";}, ").append(RENDER_DELAY_MILLIS).append(");</script>");
+        } else {
+            html.append("<div id=\"contact\">").append(details).append("</div>");
+        }
+
+        html.append(banner(banner));
+        if (padding > 0) {
+            html.append("<div style=\"display:none\">");
+            for (int i = 0; i < padding; i++) {
+                html.append((char) ('a' + i % 26));
+            }
+            html.append("</div>");
+        }
+        return html.append("</body></html>").toString();
+    }
+
+    private static String details(String prefix, String address, String phone, String hours) {
+        return "<div class=\"" + prefix + "-address\">" + escape(address) + "</div>"
+                + "<a class=\"" + prefix + "-phone-link\" href=\"tel:" + phone.replaceAll("[^+0-9]", "") + "\">"
+                + escape(phone) + "</a>"
+                + "<div class=\"" + prefix + "-hours\">" + escape(hours).replace("\n", "<br>") + "</div>";
+    }
+
+    /**
+     * Describes a location as a schema.org JewelryStore; days listed as closed get no specification
+     */
+    private static Map<String, Object> store(String name, String address, String phone, String hours) {
+        List<Map<String, Object>> specifications = new ArrayList<>();
+        for (String line : hours.split("\n")) {
+            String[] day = line.split(" ", 2);
+            String[] times = day[1].split(" - ");
+            if (times.length == 2) {
+                Map<String, Object> specification = new LinkedHashMap<>();
+                specification.put("@type", "OpeningHoursSpecification");
+                specification.put("dayOfWeek", "https://schema.org/" + day[0]);
+                specification.put("opens", times[0]);
+                specification.put("closes", times[1]);
+                specifications.add(specification);
+            }
+        }
+        Map<String, Object> store = new LinkedHashMap<>();
+        store.put("@type", "JewelryStore");
+        store.put("name", name);
+        store.put("address", address);
+        store.put("telephone", phone);
+        store.put("openingHoursSpecification", specifications);
+        return store;
+    }
+
+    private static String banner(BannerVariant banner) {
+        String hide = "onclick=\"this.closest('[data-consent]').style.display='none'\"";
+        switch (banner) {
+            case CLASS_BANNER:
+                return "<div class=\"cookie-banner\" data-consent><p>We use cookies.</p>"
+                        + "<button " + hide + ">Accept all</button></div>";
+            case DIALOG:
+                return "<div role=\"dialog\" data-consent><p>Privacy settings</p>"
+                        + "<button id=\"cc-allow-button\" " + hide + ">Allow</button></div>";
+            case CONSENT_ID:
+                return "<div id=\"cookie-consent\" data-consent><p>Cookies</p>"
+                        + "<button data-testid=\"consent-accept\" " + hide + ">OK</button></div>";
+            case DELAYED:
+                // The button label is assembled in the script so text() locators only find the rendered button
+                return "<script>setTimeout(function () { var b = document.createElement('div');"
+                        + "b.className = 'cookie-banner'; b.setAttribute('data-consent', '');"
+                        + "b.innerHTML = '<button " + hide.replace("'", "\\'") + ">Acc' + 'ept all</button>';"
+                        + "document.body.appendChild(b); }, " + BANNER_DELAY_MILLIS + ");</script>";
+            default:
+                return "";
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String jsString(String text) {
+        return "'" + text.replace("\\", "\\\\").replace("'", "\\'").replace("</", "<\\/") + "'";
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                try {
+                    query.put(pair.substring(0, separator), URLDecoder.decode(pair.substring(separator + 1), "UTF-8"));
+                } catch (java.io.UnsupportedEncodingException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return query;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Fixture server stopped after {} requests", requests.get());
+    }
+}
@@ -0,0 +1,55 @@
+package Fixtures;
+
+import Constants.Constants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Suite listener that starts a {@link FixtureServer} for the duration of a suite and points
+ * the retailer catalog and compliance history at it. Configured with the fixture.* system
+ * properties, e.g. {@code -Dfixture.retailers=200 -Dfixture.latency.millis=150 -Dfixture.js=true}.
+ */
+public class FixtureSuiteListener implements ISuiteListener {
+    private static final Logger log = LogManager.getLogger(FixtureSuiteListener.class);
+    private FixtureServer server;
+
+    @Override
+    public void onStart(ISuite suite) {
+        try {
+            server = new FixtureServer(Integer.getInteger(Constants.Fixtures.THREADS_PROPERTY, Constants.Fixtures.DEFAULT_THREADS))
+                    .withLatency(Long.getLong(Constants.Fixtures.LATENCY_PROPERTY, 0L))
+                    .withPadding(Integer.getInteger(Constants.Fixtures.PADDING_PROPERTY, 0))
+                    .withBanner(BannerVariant.valueOf(System.getProperty(Constants.Fixtures.BANNER_PROPERTY,
+                            BannerVariant.CLASS_BANNER.name()).toUpperCase(Locale.ROOT)))
+                    .withJsRendering(Boolean.getBoolean(Constants.Fixtures.JS_PROPERTY))
+                    .withLocations(Integer.getInteger(Constants.Fixtures.LOCATIONS_PROPERTY, 1))
+                    .withStructuredData(Boolean.getBoolean(Constants.Fixtures.STRUCTURED_DATA_PROPERTY))
+                    .withVirtualHosts(Boolean.parseBoolean(System.getProperty(Constants.Fixtures.VIRTUAL_HOSTS_PROPERTY, "true")));
+            Path directory = Files.createDirectories(Paths.get(Constants.Fixtures.DIR));
+            Path catalog = directory.resolve("retailers.csv");
+            int retailers = Integer.getInteger(Constants.Fixtures.RETAILERS_PROPERTY, Constants.Fixtures.DEFAULT_RETAILERS);
+            server.writeCatalog(catalog, retailers, Boolean.getBoolean(Constants.Fixtures.LOCATORS_PROPERTY));
+            System.setProperty(Constants.Catalog.FILE_PROPERTY, catalog.toString());
+            System.setProperty(Constants.History.DIR_PROPERTY, directory.resolve("history").toString());
+            log.info("Fixture catalog of {} retailers written to {}", retailers, catalog);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start fixture server", e);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+}
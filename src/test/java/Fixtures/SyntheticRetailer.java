@@ -0,0 +1,113 @@
+package Fixtures;
+
+import java.util.Random;
+
+/**
+ * Contact details of a synthetic retailer, derived deterministically from its id and country
+ */
+public class SyntheticRetailer {
+    private static final String[] NAMES = {"Nordic Time", "Kronen Juwelier", "Harbor Jewelers", "Southern Cross Watches"};
+    private static final String[] STREETS_SE = {"Drottninggatan", "Kungsgatan", "Biblioteksgatan", "Hamngatan"};
+    private static final String[] STREETS_DE = {"Königsallee", "Schildergasse", "Maximilianstraße", "Jungfernstieg"};
+    private static final String[] STREETS_US = {"Main Street", "Madison Avenue", "Rodeo Drive", "Michigan Avenue"};
+    private static final String[] STREETS_AU = {"Cavill Avenue", "George Street", "Collins Street", "Queen Street"};
+
+    private final String id;
+    private final String country;
+    private final int seed;
+
+    /**
+     * Constructor for SyntheticRetailer
+     * @param id retailer id
+     * @param country SE, DE, US or AU; any other value is treated as US
+     */
+    public SyntheticRetailer(String id, String country) {
+        this.id = id;
+        this.country = country;
+        this.seed = new Random(id.hashCode()).nextInt(9000) + 1000;
+    }
+
+    public String name() {
+        return NAMES[seed % NAMES.length] + " " + id;
+    }
+
+    public String address() {
+        return address(seed);
+    }
+
+    public String alternativeAddress() {
+        return address(seed + 1);
+    }
+
+    public String phone() {
+        return phone(seed);
+    }
+
+    public String alternativePhone() {
+        return phone(seed + 7);
+    }
+
+    /**
+     * Gets the address of another boutique of the retailer
+     * @param branch branch number, from 0
+     * @return address differing from the main address in street, number and postal code
+     */
+    public String branchAddress(int branch) {
+        return address(seed + 2 + branch);
+    }
+
+    public String branchPhone(int branch) {
+        return phone(seed + 11 + branch);
+    }
+
+    /**
+     * Gets the position of the main boutique on a page listing several
+     * @param locations number of listed locations
+     * @return index of the main boutique
+     */
+    public int mainLocation(int locations) {
+        return seed % locations;
+    }
+
+    public String hours() {
+        return hours(10);
+    }
+
+    public String alternativeHours() {
+        return hours(9);
+    }
+
+    private String address(int value) {
+        int number = value % 120 + 1;
+        switch (country) {
+            case "SE":
+                return STREETS_SE[value % 4] + " " + number + ", " + (100 + value % 900) + " " + (10 + value % 90) + " Stockholm";
+            case "DE":
+                return STREETS_DE[value % 4] + " " + number + ", " + (10000 + value * 7 % 90000) + " Düsseldorf";
+            case "AU":
+                return "Shop " + number + ", " + STREETS_AU[value % 4] + ", Surfers Paradise QLD " + (4000 + value % 1000);
+            default:
+                return number + " " + STREETS_US[value % 4] + ", Springfield, IL " + (10000 + value * 7 % 90000);
+        }
+    }
+
+    private String phone(int value) {
+        String subscriber = String.format("%07d", value * 7919 % 10000000);
+        switch (country) {
+            case "SE":
+                return "+46 8 " + subscriber.substring(0, 3) + " " + subscriber.substring(3, 5) + " " + subscriber.substring(5);
+            case "DE":
+                return "+49 211 " + subscriber;
+            case "AU":
+                return "+61 7 " + subscriber.substring(0, 3) + " " + subscriber.substring(3) + "0";
+            default:
+                return "+1 217 " + subscriber.substring(0, 3) + " " + subscriber.substring(3);
+        }
+    }
+
+    private static String hours(int opening) {
+        return "Monday " + opening + ":00 - 18:00\nTuesday " + opening + ":00 - 18:00\nWednesday " + opening
+                + ":00 - 18:00\nThursday " + opening + ":00 - 19:00\nFriday " + opening
+                + ":00 - 18:00\nSaturday 10:00 - 16:00\nSunday Closed";
+    }
+}
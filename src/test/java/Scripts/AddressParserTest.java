@@ -0,0 +1,36 @@
+package Scripts;
+
+import Validations.AddressComplianceCheck;
+import Validations.AddressParser;
+import Validations.CountryRules;
+import Validations.ParsedAddress;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Offline checks of the structured address parser
+ */
+public class AddressParserTest {
+
+    @Test(description = "Addresses are split into components with the postal grammar of their country")
+    public void addressesAreSplitIntoComponents() {
+        Assert.assertEquals(AddressParser.parse("Drottninggatan 5B, 111 51 Stockholm, Sverige", CountryRules.of("SE", "")),
+                new ParsedAddress("drottninggatan", "5b", null, "11151", "stockholm", "SE"));
+        Assert.assertEquals(AddressParser.parse("Königsallee 30 40212 Düsseldorf", CountryRules.of("DE", "")),
+                new ParsedAddress("königsallee", "30", null, "40212", "düsseldorf", null));
+        Assert.assertEquals(AddressParser.parse("100 Main St., Suite 200\nSpringfield, IL 62701-1234", CountryRules.of("US", "")),
+                new ParsedAddress("main street", "100", "200", "62701-1234", "springfield", null));
+        Assert.assertEquals(AddressParser.parse("Shop 5, 3 Cavill Ave, Surfers Paradise QLD 4217, Australia", CountryRules.of("AU", "")),
+                new ParsedAddress("cavill avenue", "3", "5", "4217", "surfers paradise", "AU"));
+    }
+
+    @Test(description = "Addresses written differently match when their components match")
+    public void addressesAreComparedByComponent() {
+        AddressComplianceCheck check = new AddressComplianceCheck();
+        CountryRules us = CountryRules.of("US", "");
+        Assert.assertTrue(check.isAddressCompliant("100 Main Street, Springfield, IL 62701",
+                "100 Main St. Springfield IL 62701", us));
+        Assert.assertFalse(check.isAddressCompliant("100 Main Street, Springfield, IL 62701",
+                "102 Main Street, Springfield, IL 62701", us));
+    }
+}
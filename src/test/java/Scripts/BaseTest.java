@@ -3,62 +3,190 @@ package Scripts;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.edge.EdgeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
 import org.testng.annotations.*;
+import Catalog.CatalogEntry;
+import Catalog.CatalogReader;
 import Constants.Constants;
+import Execution.BrowserProvisioner;
+import Execution.ConcurrencyController;
+import Execution.Deadline;
+import Execution.PolitenessScheduler;
+import Execution.ShardResults;
+import Execution.ShardSelector;
+import Execution.TabPipeline;
+import Utilities.DomSnapshotStore;
+import Utilities.DriverFactory;
+import Utilities.ProfileTemplate;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
 
 /**
- * Base test class containing common test configuration and setup
+ * Base test class containing common test configuration and setup.
+ * The WebDriver and URL properties are confined to the executing thread so that
+ * TestNG can run test methods and data provider rows in parallel on one instance.
  */
 public class BaseTest {
-    protected WebDriver driver;
-    protected Properties urlProperties;
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static final ThreadLocal<Properties> urlProperties = new ThreadLocal<>();
+    private static final ThreadLocal<String> browserType = new ThreadLocal<>();
+    private static final ThreadLocal<TabPipeline> tabPipeline = new ThreadLocal<>();
     private static final Logger logger = LogManager.getLogger(BaseTest.class);
     private static final String PROPERTIES_PATH = "src/test/java/TestData/";
+    private static final String PROPERTIES_EXTENSION = ".properties";
+    protected static final PolitenessScheduler politeness = PolitenessScheduler.fromSystemProperties();
+    protected static final DomSnapshotStore snapshots = DomSnapshotStore.fromSystemProperties();
+    private static final Map<String, BrowserProvisioner> provisioners = new ConcurrentHashMap<>();
+    private static final Map<String, FutureTask<ProfileTemplate>> profileTemplates = new ConcurrentHashMap<>();
+    // Sessions kept across test methods in tab pipeline mode, quit after the class
+    private static final Map<WebDriver, TabPipeline> pipelinedSessions = new ConcurrentHashMap<>();
+    // Limits the active sessions below the thread count under memory or CPU pressure, with -Dconcurrency.adaptive=true
+    private static final ConcurrencyController concurrency = Boolean.getBoolean(Constants.Concurrency.ADAPTIVE_PROPERTY)
+            ? ConcurrencyController.fromSystemProperties() : null;
+    // Live sessions holding a slot of the concurrency controller, prefetched ones included; released when they quit
+    private static final Set<WebDriver> slotSessions = ConcurrentHashMap.newKeySet();
+    private static final Duration PAGE_LOAD_TIMEOUT = Duration.ofSeconds(Constants.Browser.PAGE_LOAD_TIMEOUT_SECONDS);
 
     /**
-     * Sets up WebDriver and loads properties before each test method
+     * Sets up WebDriver and loads properties before each test method.
+     * In tab pipeline mode the thread's session of the previous method is kept, with its background tabs.
+     * With adaptive concurrency a new session first waits for a slot, held until the session quits.
      * @param browser browser type to initialize
-     * @param propertyFile name of the property file to load
+     * @param propertyFile name of the property file to load, empty when the test loads its own data
      */
     @BeforeMethod
     @Parameters({"browser", "propertyFile"})
-    public void setup(@Optional("chrome") String browser, String propertyFile) {
-        loadProperties(propertyFile);
-        initializeDriver(browser);
+    public void setup(@Optional("chrome") String browser, @Optional("") String propertyFile) {
+        if (!propertyFile.isEmpty()) {
+            loadProperties(propertyFile);
+        }
+        if (getDriver() == null || !pipelinedSessions.containsKey(getDriver())) {
+            initializeDriver(browser);
+        }
+    }
+
+    /**
+     * Starts a session once the adaptive concurrency controller, if enabled, has a slot for it.
+     * The slot is held until the session is ended with {@link #quitSession(WebDriver)}.
+     * @param factory factory of the session's browser
+     * @return started session
+     */
+    private static WebDriver startSession(DriverFactory factory) {
+        if (concurrency == null) {
+            return factory.create();
+        }
+        try {
+            concurrency.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a session slot", e);
+        }
+        WebDriver webDriver;
+        try {
+            webDriver = factory.create();
+        } catch (RuntimeException e) {
+            concurrency.release();
+            throw e;
+        }
+        slotSessions.add(webDriver);
+        return webDriver;
+    }
+
+    /**
+     * Quits a session and returns its slot of the adaptive concurrency controller, if it holds one
+     * @param webDriver session to quit
+     */
+    private static void quitSession(WebDriver webDriver) {
+        try {
+            DriverFactory.quit(webDriver);
+        } finally {
+            if (slotSessions.remove(webDriver)) {
+                concurrency.release();
+            }
+        }
     }
 
     /**
-     * Loads properties from specified configuration file
+     * Loads properties from specified configuration file into the current thread
      * @param propertyFileName name of the property file to load
      */
-    private void loadProperties(String propertyFileName) {
-        try (FileInputStream inputStream = new FileInputStream(PROPERTIES_PATH + propertyFileName + ".properties")) {
-            urlProperties = new Properties();
-            urlProperties.load(inputStream);
-            validateRequiredProperties();
+    protected void loadProperties(String propertyFileName) {
+        urlProperties.set(readProperties(propertyFileName));
+    }
+
+    /**
+     * Reads and validates a property file without binding it to the current thread
+     * @param propertyFileName name of the property file to read
+     * @return loaded properties
+     */
+    protected static Properties readProperties(String propertyFileName) {
+        try (FileInputStream inputStream = new FileInputStream(PROPERTIES_PATH + propertyFileName + PROPERTIES_EXTENSION)) {
+            Properties properties = new Properties();
+            properties.load(inputStream);
+            validateRequiredProperties(properties);
             logger.info("Properties loaded successfully from: {}", propertyFileName);
+            return properties;
         } catch (IOException e) {
             logger.error("Failed to load properties file {}: {}", propertyFileName, e.getMessage());
             throw new RuntimeException("Failed to load properties file: " + propertyFileName, e);
         }
     }
 
+    /**
+     * Gets the retailer catalog file, overridable with {@code -Dcatalog.file}
+     * @return path of the CSV catalog
+     */
+    protected static Path catalogFile() {
+        return Paths.get(System.getProperty(Constants.Catalog.FILE_PROPERTY, Constants.Catalog.DEFAULT_FILE));
+    }
+
+    /**
+     * Streams the retailer catalog and selects the entries owned by a shard.
+     * Only the selected entries are kept; the rest of the catalog is fingerprinted and dropped.
+     * @param shard shard selector of this process
+     * @param selectedEntries receives the selected catalog entries, in planned order
+     * @return shard plan without results, used to write the shard result file
+     */
+    protected static ShardResults planShard(ShardSelector shard, List<CatalogEntry> selectedEntries) {
+        Path catalog = catalogFile();
+        ShardResults.Fingerprint fingerprint = new ShardResults.Fingerprint();
+        List<String> plannedUrls = new ArrayList<>();
+        try (Stream<CatalogEntry> entries = CatalogReader.stream(catalog)) {
+            entries.forEach(entry -> {
+                fingerprint.add(entry.getRetailerUrl());
+                if (shard.accepts(entry.getRetailerUrl())) {
+                    plannedUrls.add(entry.getRetailerUrl());
+                    selectedEntries.add(entry);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to read retailer catalog {}: {}", catalog, e.getMessage());
+            throw new RuntimeException("Failed to read retailer catalog: " + catalog, e);
+        }
+        return new ShardResults(shard.getShardIndex(), shard.getShardCount(), fingerprint.getCount(),
+                fingerprint.value(), plannedUrls, new ArrayList<>());
+    }
 
     /**
      * Validates that all required properties are present
+     * @param urlProperties properties to validate
      */
-    private void validateRequiredProperties() {
+    private static void validateRequiredProperties(Properties urlProperties) {
         if (!urlProperties.containsKey(Constants.URLs.RETAILER_URL) ||
                 !urlProperties.containsKey(Constants.URLs.ROLEX_URL)) {
             logger.error(Constants.LogMessages.MISSING_PROPERTIES);
@@ -67,46 +195,37 @@ public class BaseTest {
     }
 
     /**
-     * Initializes WebDriver with specified browser
+     * Initializes WebDriver with specified browser, headless when -Dbrowser.headless=true or replaying snapshots.
+     * With {@code -Dbrowser.prefetch=N} the session is taken from a provisioner that starts the next N sessions in the background.
+     * With {@code -Dbrowser.profile.template=true} the session starts on a copy of a profile warmed once per run.
+     * With {@code -Dbrowser.tabs=N} (N of at least 2) the session is kept for the thread's next test methods
+     * and up to N - 1 upcoming pages are loaded in background tabs, see {@link #prefetch(String)}.
      * @param browser browser type to initialize
      */
     private void initializeDriver(String browser) {
-        logger.info("Setting up WebDriver for browser: {}", browser);
+        boolean headless = Boolean.getBoolean(Constants.Browser.HEADLESS_PROPERTY) || snapshots.isReplaying();
+        logger.info("Setting up WebDriver for browser: {}{}", browser, headless ? " (headless)" : "");
+        browserType.set(browser);
         try {
-            switch (browser.toLowerCase()) {
-                case "chrome":
-                    ChromeOptions chromeOptions = new ChromeOptions();
-                    chromeOptions.addArguments("--start-maximized");
-                    chromeOptions.addArguments("--disable-notifications");
-                    chromeOptions.addArguments("--remote-allow-origins=*");
-                    driver = new ChromeDriver(chromeOptions);
-                    break;
-
-                case "firefox":
-                    FirefoxOptions firefoxOptions = new FirefoxOptions();
-                    firefoxOptions.addArguments("--start-maximized");
-                    firefoxOptions.addArguments("--disable-notifications");
-                    driver = new FirefoxDriver(firefoxOptions);
-                    // Firefox requires explicit maximize
-                    driver.manage().window().maximize();
-                    break;
-
-                case "edge":
-                    EdgeOptions edgeOptions = new EdgeOptions();
-                    edgeOptions.addArguments("--start-maximized");
-                    edgeOptions.addArguments("--disable-notifications");
-                    edgeOptions.addArguments("--remote-allow-origins=*");
-                    driver = new EdgeDriver(edgeOptions);
-                    break;
-
-                default:
-                    logger.error("Unsupported browser type: {}", browser);
-                    throw new RuntimeException("Unsupported browser type: " + browser);
+            DriverFactory factory = new DriverFactory(browser, headless);
+            String key = factory.getBrowser() + (headless ? "-headless" : "");
+            // Snapshot replays load local files, for which a warm cache brings nothing
+            if (Boolean.getBoolean(Constants.Browser.PROFILE_TEMPLATE_PROPERTY) && !snapshots.isReplaying()) {
+                factory.withProfileTemplate(profileTemplate(key, factory));
+            }
+            int prefetch = Integer.getInteger(Constants.Browser.PREFETCH_PROPERTY, 0);
+            WebDriver webDriver = prefetch > 0
+                    ? provisioners.computeIfAbsent(key,
+                            k -> new BrowserProvisioner(() -> startSession(factory), BaseTest::quitSession, prefetch)).acquire()
+                    : startSession(factory);
+            driver.set(webDriver);
+            tabPipeline.remove();
+            int tabs = Integer.getInteger(Constants.Browser.TABS_PROPERTY, 1);
+            if (tabs > 1) {
+                TabPipeline pipeline = new TabPipeline(webDriver, tabs);
+                tabPipeline.set(pipeline);
+                pipelinedSessions.put(webDriver, pipeline);
             }
-
-            // Set common timeouts and configurations
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
             logger.info("{} WebDriver initialized successfully", browser);
 
         } catch (Exception e) {
@@ -116,25 +235,326 @@ public class BaseTest {
     }
 
     /**
-     * Cleans up WebDriver after each test method
+     * Returns the profile template of a browser, warming it on first use. The warm-up runs outside the map
+     * computation, so only threads needing the same template wait for it.
+     * @param key browser and mode of the template
+     * @param factory factory of the browser to warm
+     * @return warmed template
+     * @throws ExecutionException if the warm-up failed
+     * @throws InterruptedException if interrupted while waiting for another thread's warm-up
+     */
+    private static ProfileTemplate profileTemplate(String key, DriverFactory factory)
+            throws ExecutionException, InterruptedException {
+        FutureTask<ProfileTemplate> warmUp = new FutureTask<>(() -> warmProfileTemplate(factory));
+        FutureTask<ProfileTemplate> existing = profileTemplates.putIfAbsent(key, warmUp);
+        if (existing != null) {
+            return existing.get();
+        }
+        warmUp.run();
+        try {
+            return warmUp.get();
+        } catch (ExecutionException e) {
+            // A failed warm-up is retried by the next session rather than kept
+            profileTemplates.remove(key, warmUp);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates and warms the profile template of a browser by loading the first pages of the catalog, one per host
+     * @param factory factory of the browser to warm
+     * @return warmed template
+     */
+    private static ProfileTemplate warmProfileTemplate(DriverFactory factory) {
+        int pages = Integer.getInteger(Constants.Browser.PROFILE_WARMUP_PAGES_PROPERTY,
+                Constants.Browser.DEFAULT_PROFILE_WARMUP_PAGES);
+        Set<String> hosts = new HashSet<>();
+        List<String> urls = new ArrayList<>();
+        try (Stream<CatalogEntry> entries = CatalogReader.stream(catalogFile())) {
+            entries.filter(entry -> hosts.add(entry.getHost()))
+                    .limit(pages)
+                    .forEach(entry -> {
+                        urls.add(entry.getRolexUrl());
+                        urls.add(entry.getRetailerUrl());
+                    });
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to read retailer catalog for profile warm-up: {}", e.getMessage());
+        }
+        ProfileTemplate template = new ProfileTemplate(factory.getBrowser(), Paths.get(Constants.Browser.PROFILE_DIR));
+        template.warm(factory, urls, url -> {
+            try {
+                politeness.throttle(url);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while warming the profile template", e);
+            }
+        });
+        return template;
+    }
+
+    /**
+     * Stops the adaptive concurrency controller and logs its decisions
+     */
+    @AfterSuite(alwaysRun = true)
+    public void closeConcurrencyController() {
+        if (concurrency != null) {
+            concurrency.close();
+        }
+    }
+
+    /**
+     * Quits the sessions prefetched but not used and reports how long tests waited for sessions
+     */
+    @AfterSuite(alwaysRun = true)
+    public void closeProvisioners() {
+        for (Map.Entry<String, BrowserProvisioner> provisioner : provisioners.entrySet()) {
+            provisioner.getValue().close();
+            logger.info("Browser session wait for {}: {}", provisioner.getKey(), provisioner.getValue().getStats());
+        }
+        provisioners.clear();
+    }
+
+    /**
+     * Quits the sessions kept for tab pipelining and reports how many navigations their background tabs served
+     */
+    @AfterClass(alwaysRun = true)
+    public void quitPipelinedSessions() {
+        for (Map.Entry<WebDriver, TabPipeline> session : pipelinedSessions.entrySet()) {
+            logger.info("Tab pipeline: {}", session.getValue());
+            session.getValue().releasePermits();
+            try {
+                quitSession(session.getKey());
+            } catch (Exception e) {
+                logger.error("Error during driver cleanup: {}", e.getMessage());
+            }
+        }
+        pipelinedSessions.clear();
+    }
+
+    /**
+     * Navigates the current thread's WebDriver to a URL once the host's rate limit allows it.
+     * When replaying, the stored snapshot of the URL is loaded from disk instead.
+     * A page prefetched in a background tab is selected instead of loaded again.
+     * While a retailer deadline runs, the page load may only take the remaining budget.
+     * @param url URL to load
+     */
+    protected void navigateTo(String url) {
+        Deadline.checkCurrent("navigation to " + url);
+        Duration pageLoadTimeout = Deadline.capped(PAGE_LOAD_TIMEOUT);
+        TabPipeline pipeline = tabPipeline.get();
+        Deadline.Phase activation = Deadline.phase("navigation");
+        try {
+            if (pipeline != null && pipeline.activate(location(url), pageLoadTimeout)) {
+                return;
+            }
+        } finally {
+            activation.end();
+        }
+        if (!snapshots.isReplaying()) {
+            Deadline.Phase throttle = Deadline.phase("throttle");
+            try {
+                politeness.throttle(url);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting to navigate to " + url, e);
+            } finally {
+                throttle.end();
+            }
+        }
+        Deadline.Phase navigation = Deadline.phase("navigation");
+        try {
+            if (Deadline.current() != null) {
+                getDriver().manage().timeouts().pageLoadTimeout(Deadline.capped(PAGE_LOAD_TIMEOUT));
+            }
+            getDriver().get(location(url));
+        } finally {
+            navigation.end();
+        }
+    }
+
+    /**
+     * Starts loading a page in a background tab of the current thread's session, so that a later
+     * {@link #navigateTo(String)} only switches to it. Does nothing outside tab pipeline mode, when all
+     * tabs are in use, or when the host has no free slot or its rate limit does not allow a request right now.
+     * The tab holds a slot of its host until it is selected or closed, the thread waits for host slots
+     * in {@link #acquireHosts(String...)}, or the test method ends.
+     * @param url URL to load
+     * @return true if the page is loading in a background tab
+     */
+    protected boolean prefetch(String url) {
+        TabPipeline pipeline = tabPipeline.get();
+        if (pipeline == null) {
+            return false;
+        }
+        String location = location(url);
+        if (pipeline.isPrefetched(location)) {
+            return true;
+        }
+        if (!pipeline.hasCapacity()) {
+            return false;
+        }
+        if (snapshots.isReplaying()) {
+            return pipeline.prefetch(location);
+        }
+        PolitenessScheduler.HostPermit permit = politeness.tryAcquire(url);
+        if (permit == null) {
+            return false;
+        }
+        if (!politeness.tryThrottle(url)) {
+            permit.close();
+            return false;
+        }
+        return pipeline.prefetch(location, permit);
+    }
+
+    /**
+     * Acquires a slot on every host of the given URLs, waiting while a host is saturated. The host slots
+     * held by the current thread's background tabs are released first, keeping the tabs, so a thread
+     * never waits for a slot while holding one and two threads whose tabs hold each other's hosts
+     * cannot block each other.
+     * @param urls URLs about to be worked on
+     * @return permit releasing the slots when closed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected PolitenessScheduler.HostPermit acquireHosts(String... urls) throws InterruptedException {
+        TabPipeline pipeline = tabPipeline.get();
+        if (pipeline != null) {
+            pipeline.releasePermits();
+        }
+        return politeness.acquire(urls);
+    }
+
+    /**
+     * Closes the background tabs of the current thread's session except those of the given pages
+     * @param urls URLs still expected to be navigated to by this thread
+     */
+    protected void retainPrefetched(Collection<String> urls) {
+        TabPipeline pipeline = tabPipeline.get();
+        if (pipeline == null) {
+            return;
+        }
+        List<String> locations = new ArrayList<>();
+        for (String url : urls) {
+            locations.add(location(url));
+        }
+        pipeline.retainOnly(locations);
+    }
+
+    /**
+     * Gets the location a URL is loaded from: the URL itself, or its snapshot file when replaying
+     */
+    private static String location(String url) {
+        return snapshots.isReplaying() ? snapshots.resolve(url) : url;
+    }
+
+    /**
+     * Stores a snapshot of the current page when recording, without failing the test if it cannot be written
+     * @param url URL the current page was loaded from
+     */
+    protected void recordSnapshot(String url) {
+        if (!snapshots.isRecording()) {
+            return;
+        }
+        try {
+            snapshots.record(url, getDriver().getPageSource());
+        } catch (IOException e) {
+            logger.error("Failed to record snapshot of {}: {}", url, e.getMessage());
+        }
+    }
+
+    /**
+     * Ends the current thread's retailer deadline and restores the default implicit wait and page load
+     * timeout that page objects and {@link #navigateTo(String)} capped to its remaining budget
+     */
+    protected void clearDeadline() {
+        if (Deadline.current() == null) {
+            return;
+        }
+        Deadline.clear();
+        WebDriver webDriver = getDriver();
+        if (webDriver == null) {
+            return;
+        }
+        try {
+            DriverFactory.applyDefaultTimeouts(webDriver);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to restore default timeouts: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the current thread's WebDriver with a fresh session of the same browser,
+     * used after infrastructure failures that may have left the session unusable
+     */
+    protected void restartDriver() {
+        logger.info("Restarting WebDriver");
+        quitDriver();
+        initializeDriver(browserType.get());
+    }
+
+    /**
+     * Cleans up WebDriver after each test method, except for sessions kept for tab pipelining.
+     * A kept session is quit as well when another session is waiting for a slot of the adaptive
+     * concurrency controller, which counts live sessions rather than running test methods.
      */
     @AfterMethod
     public void tearDown() {
-        logger.info("Tearing down WebDriver");
-        if (driver != null) {
+        if (tabPipeline.get() == null) {
+            logger.info("Tearing down WebDriver");
+            quitDriver();
+        } else if (concurrency != null && concurrency.isContended()) {
+            logger.info("Quitting pipelined WebDriver to free a session slot");
+            quitDriver();
+        } else {
+            // Kept tabs give up their host slots, which a thread without further rows would never release
+            tabPipeline.get().releasePermits();
+        }
+        urlProperties.remove();
+    }
+
+    /**
+     * Quits the current thread's WebDriver if one is running
+     */
+    private void quitDriver() {
+        WebDriver webDriver = driver.get();
+        tabPipeline.remove();
+        if (webDriver != null) {
+            TabPipeline pipeline = pipelinedSessions.remove(webDriver);
+            if (pipeline != null) {
+                logger.info("Tab pipeline: {}", pipeline);
+                pipeline.releasePermits();
+            }
             try {
-                driver.quit();
+                quitSession(webDriver);
             } catch (Exception e) {
                 logger.error("Error during driver cleanup: {}", e.getMessage());
+            } finally {
+                driver.remove();
             }
         }
     }
 
     /**
-     * Gets the current WebDriver instance
+     * Gets the WebDriver instance of the current thread
      * @return WebDriver instance
      */
     protected WebDriver getDriver() {
-        return driver;
+        return driver.get();
+    }
+
+    /**
+     * Gets the tab pipeline of the current thread's session
+     * @return tab pipeline, or null outside tab pipeline mode
+     */
+    protected TabPipeline getTabPipeline() {
+        return tabPipeline.get();
+    }
+
+    /**
+     * Gets the URL properties loaded by the current thread
+     * @return URL properties
+     */
+    protected Properties getUrlProperties() {
+        return urlProperties.get();
     }
 }
@@ -0,0 +1,54 @@
+package Scripts;
+
+import Execution.BrowserProvisioner;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline checks of browser session prefetching, with sessions that only count their start and quit
+ */
+public class BrowserProvisionerTest {
+    private static final long START_MILLIS = 300;
+
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger quit = new AtomicInteger();
+
+    private WebDriver slowSession() {
+        try {
+            Thread.sleep(START_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        started.incrementAndGet();
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    if ("quit".equals(method.getName())) {
+                        quit.incrementAndGet();
+                    }
+                    return null;
+                });
+    }
+
+    @Test(description = "Sessions started in the background are handed out without waiting for start-up")
+    public void prefetchedSessionsAreReady() throws InterruptedException {
+        BrowserProvisioner provisioner = new BrowserProvisioner(this::slowSession, 2);
+        Thread.sleep(START_MILLIS * 2);
+        for (int i = 0; i < 4; i++) {
+            provisioner.acquire().quit();
+            // simulated validation, long enough for the replacement session to start
+            Thread.sleep(START_MILLIS * 2);
+        }
+        provisioner.close();
+
+        BrowserProvisioner.Stats stats = provisioner.getStats();
+        Assert.assertEquals(stats.getAcquisitions(), 4);
+        Assert.assertEquals(stats.getReadyOnAcquire(), 4, stats.toString());
+        Assert.assertTrue(stats.getMaxWaitMillis() < START_MILLIS, stats.toString());
+        Assert.assertEquals(started.get(), 6, "four sessions used plus the prefetch depth");
+        Assert.assertEquals(quit.get(), 6, "unused prefetched sessions are quit on close");
+    }
+}
@@ -0,0 +1,70 @@
+package Scripts;
+
+import Catalog.CatalogEntry;
+import Catalog.CatalogReader;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Offline checks of the streaming retailer catalog reader
+ */
+public class CatalogReaderTest {
+
+    @Test(description = "Catalog lines are parsed with quoting, defaults and pooled host strings")
+    public void catalogIsStreamed() throws Exception {
+        Path catalog = Files.createTempFile("retailers", ".csv");
+        Files.write(catalog, Arrays.asList(
+                "# comment",
+                "id,country,locale,priority,retailer_url,rolex_url,address_locator,phone_locator,hours_locator",
+                "a,se,sv-SE,1,https://www.shop.example.com/contact,https://shop.example.com/rolex,\"div[class='a,b']\",,",
+                "",
+                "b,SE,sv-SE,,https://shop.example.com/other,https://shop.example.com/rolex/other,,,",
+                "broken,SE,sv-SE,2,,https://shop.example.com/rolex/broken,,,"), StandardCharsets.UTF_8);
+
+        List<CatalogEntry> entries;
+        try (Stream<CatalogEntry> stream = CatalogReader.stream(catalog)) {
+            entries = stream.collect(Collectors.toList());
+        }
+
+        Assert.assertEquals(entries.size(), 2, "Entries without a retailer URL must be skipped");
+        CatalogEntry first = entries.get(0);
+        CatalogEntry second = entries.get(1);
+        Assert.assertEquals(first.getCountry(), "SE");
+        Assert.assertEquals(first.getPriority(), 1);
+        Assert.assertEquals(first.getAddressLocator(), "div[class='a,b']");
+        Assert.assertNull(first.getPhoneLocator());
+        Assert.assertEquals(second.getPriority(), CatalogEntry.DEFAULT_PRIORITY);
+        Assert.assertSame(first.getHost(), second.getHost(), "Host strings must be shared");
+        Assert.assertSame(first.getLocale(), second.getLocale(), "Locale strings must be shared");
+    }
+
+    @Test(description = "Header and country case conversion does not depend on the default locale")
+    public void caseConversionIgnoresDefaultLocale() throws Exception {
+        Path catalog = Files.createTempFile("retailers", ".csv");
+        Files.write(catalog, Arrays.asList(
+                "ID,COUNTRY,LOCALE,PRIORITY,RETAILER_URL,ROLEX_URL",
+                "a,id,id-ID,1,https://shop.example.com/contact,https://shop.example.com/rolex"), StandardCharsets.UTF_8);
+
+        Locale defaultLocale = Locale.getDefault();
+        List<CatalogEntry> entries;
+        Locale.setDefault(new Locale("tr", "TR"));
+        try (Stream<CatalogEntry> stream = CatalogReader.stream(catalog)) {
+            entries = stream.collect(Collectors.toList());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        Assert.assertEquals(entries.size(), 1, "Upper-case headers must be recognised under a Turkish default locale");
+        Assert.assertEquals(entries.get(0).getId(), "a");
+        Assert.assertEquals(entries.get(0).getCountry(), "ID");
+    }
+}
@@ -0,0 +1,85 @@
+package Scripts;
+
+import Execution.RetailerResult;
+import History.ComplianceHistoryStore;
+import History.FlappingRetailer;
+import History.HistoryRecord;
+import Pages.ContactDetails;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Offline checks of the append-only compliance history store
+ */
+public class ComplianceHistoryStoreTest {
+    private static final String STABLE = "https://stable.example.com/contact";
+    private static final String FLAPPING = "https://flapping.example.com/contact";
+    private static final String ROLEX = "https://example.com/rolex/contact";
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final int SMALL_SEGMENT = 1024;
+
+    @Test(description = "Queries answer from the mapped segments and survive reopening with and without the index")
+    public void queriesSurviveReopen() throws Exception {
+        Path directory = Files.createTempDirectory("history");
+        try (ComplianceHistoryStore store = new ComplianceHistoryStore(directory, SMALL_SEGMENT)) {
+            for (int day = 0; day < 30; day++) {
+                store.append(day, day * DAY, result(STABLE, true));
+                store.append(day, day * DAY, result(FLAPPING, day % 2 == 0));
+            }
+            assertQueries(store);
+        }
+        Assert.assertTrue(Files.exists(directory.resolve("segment-00001.dat")), "Records must span segments");
+
+        try (ComplianceHistoryStore store = new ComplianceHistoryStore(directory, SMALL_SEGMENT)) {
+            assertQueries(store);
+            store.append(30, 30 * DAY, result(STABLE, false));
+            Assert.assertEquals(store.lastVerdict(STABLE), RetailerResult.Verdict.FAIL);
+        }
+
+        Files.delete(directory.resolve("index.dat"));
+        try (ComplianceHistoryStore store = new ComplianceHistoryStore(directory, SMALL_SEGMENT)) {
+            Assert.assertEquals(store.retailerCount(), 2);
+            Assert.assertEquals(store.lastVerdict(STABLE), RetailerResult.Verdict.FAIL);
+            Assert.assertEquals(store.firstFailureSince(STABLE, 0).getRunId(), 30);
+        }
+    }
+
+    @Test(description = "A store directory can only be opened by one writer")
+    public void secondWriterIsRejected() throws Exception {
+        Path directory = Files.createTempDirectory("history");
+        try (ComplianceHistoryStore ignored = new ComplianceHistoryStore(directory, SMALL_SEGMENT)) {
+            Assert.assertThrows(IllegalStateException.class,
+                    () -> new ComplianceHistoryStore(directory, SMALL_SEGMENT));
+        }
+    }
+
+    private void assertQueries(ComplianceHistoryStore store) {
+        Assert.assertEquals(store.lastVerdict(STABLE), RetailerResult.Verdict.PASS);
+        Assert.assertEquals(store.lastVerdict(FLAPPING), RetailerResult.Verdict.FAIL);
+        Assert.assertNull(store.lastVerdict("https://unknown.example.com"));
+
+        HistoryRecord last = store.last(FLAPPING);
+        Assert.assertEquals(last.getRunId(), 29);
+        Assert.assertEquals(last.getResult().getRetailerDetails().getPhoneNumber(), "+46 8 123 45 67");
+        Assert.assertEquals(last.getResult().getRolexUrl(), ROLEX);
+
+        Assert.assertNull(store.firstFailureSince(STABLE, 0));
+        Assert.assertEquals(store.firstFailureSince(FLAPPING, 10 * DAY).getRunId(), 11);
+        Assert.assertEquals(store.history(FLAPPING, 10 * DAY, 19 * DAY).size(), 10);
+
+        List<FlappingRetailer> flapping = store.flappingRetailers(0, 29 * DAY, 3);
+        Assert.assertEquals(flapping.size(), 1);
+        Assert.assertEquals(flapping.get(0).getRetailerUrl(), FLAPPING);
+        Assert.assertEquals(flapping.get(0).getTransitions(), 29);
+    }
+
+    private RetailerResult result(String retailerUrl, boolean passed) {
+        ContactDetails details = new ContactDetails("Storgatan 1, 111 22 Stockholm", "+46 8 123 45 67",
+                "Mon-Fri 10-18");
+        return new RetailerResult(retailerUrl, ROLEX, true, passed, true, null, 1500, details, details, null);
+    }
+}
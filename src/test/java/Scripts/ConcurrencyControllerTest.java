@@ -0,0 +1,55 @@
+package Scripts;
+
+import Execution.ConcurrencyController;
+import Execution.SystemPressure;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Offline checks of the adaptive concurrency limit, driven by simulated pressure samples
+ */
+public class ConcurrencyControllerTest {
+    private static final long MB = 1024 * 1024;
+
+    private SystemPressure pressure;
+
+    @Test(description = "The limit grows by one while sessions are saturated and memory allows, and halves under pressure")
+    public void additiveIncreaseMultiplicativeDecrease() throws InterruptedException {
+        ConcurrencyController controller = new ConcurrencyController(1, 8, 1.0, 1024 * MB, () -> pressure);
+        pressure = new SystemPressure(0.5, 8192 * MB, 0);
+
+        Assert.assertEquals(controller.adjust(), ConcurrencyController.Decision.HOLD, "no demand while a slot is free");
+        for (int i = 0; i < 6; i++) {
+            controller.acquire();
+            Assert.assertEquals(controller.adjust(), ConcurrencyController.Decision.INCREASE);
+        }
+        Assert.assertEquals(controller.getLimit(), 7);
+
+        // 6 sessions of 1 GB each: one more would leave less than the 1 GB floor
+        pressure = new SystemPressure(0.5, 1536 * MB, 6144 * MB);
+        controller.acquire();
+        Assert.assertEquals(controller.adjust(), ConcurrencyController.Decision.HOLD);
+
+        pressure = new SystemPressure(0.5, 512 * MB, 7168 * MB);
+        Assert.assertEquals(controller.adjust(), ConcurrencyController.Decision.DECREASE);
+        Assert.assertEquals(controller.getLimit(), 3);
+        Assert.assertEquals(controller.adjust(), ConcurrencyController.Decision.DRAINING,
+                "running sessions are not interrupted, no further decrease until they finish");
+        Assert.assertTrue(controller.isContended(), "more sessions are live than the limit allows");
+
+        for (int i = 0; i < 4; i++) {
+            controller.release();
+        }
+        pressure = new SystemPressure(2.5, 4096 * MB, 3072 * MB);
+        Assert.assertEquals(controller.adjust(), ConcurrencyController.Decision.DECREASE, "CPU pressure alone lowers the limit");
+        Assert.assertEquals(controller.getLimit(), 1);
+        Assert.assertTrue(controller.isContended());
+        controller.release();
+        controller.release();
+        Assert.assertFalse(controller.isContended(), "the one live session fits the limit");
+        Assert.assertEquals(controller.getPeakLimit(), 7);
+        Assert.assertEquals(controller.getIncreases(), 6);
+        Assert.assertEquals(controller.getDecreases(), 2);
+        controller.close();
+    }
+}
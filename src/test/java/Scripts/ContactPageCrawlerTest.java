@@ -0,0 +1,70 @@
+package Scripts;
+
+import Catalog.CatalogEntry;
+import Catalog.CatalogReader;
+import Discovery.ContactPageCrawler;
+import Discovery.DiscoveredSite;
+import Fixtures.FixtureServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Offline checks of contact page discovery against the synthetic sites of the fixture server
+ */
+public class ContactPageCrawlerTest {
+    private static final int SITES = 200;
+    private FixtureServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new FixtureServer(16);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test(description = "Contact pages of many sites are discovered concurrently and written as a catalog")
+    public void contactPagesAreDiscovered() throws Exception {
+        List<ContactPageCrawler.Seed> seeds = new ArrayList<>();
+        for (int i = 0; i < SITES; i++) {
+            seeds.add(new ContactPageCrawler.Seed("site-" + i, "SE", "sv-SE", server.homepageUrl("site-" + i) + "?country=SE"));
+        }
+        List<DiscoveredSite> sites;
+        try (ContactPageCrawler crawler = new ContactPageCrawler(20, 3, 64, 5000, 32)) {
+            sites = crawler.crawlAll(seeds);
+        }
+
+        Assert.assertEquals(sites.size(), SITES);
+        for (int i = 0; i < SITES; i++) {
+            DiscoveredSite site = sites.get(i);
+            Assert.assertEquals(site.getContactUrl(), server.retailerUrl("site-" + i) + "?country=SE", site.toString());
+            Assert.assertEquals(site.getRolexContactUrl(), server.rolexUrl("site-" + i) + "?country=SE", site.toString());
+            Assert.assertTrue(site.getPagesFetched() <= 20, site.toString());
+        }
+
+        Path catalog = Files.createTempFile("discovered", ".csv");
+        try {
+            ContactPageCrawler.writeCatalog(sites, catalog);
+            try (Stream<CatalogEntry> entries = CatalogReader.stream(catalog)) {
+                List<CatalogEntry> read = entries.collect(Collectors.toList());
+                Assert.assertEquals(read.size(), SITES);
+                Assert.assertEquals(read.get(0).getRolexUrl(), server.rolexUrl("site-0") + "?country=SE");
+                Assert.assertEquals(read.get(0).getCountry(), "SE");
+            }
+        } finally {
+            Files.deleteIfExists(catalog);
+        }
+    }
+}
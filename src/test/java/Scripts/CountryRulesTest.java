@@ -0,0 +1,35 @@
+package Scripts;
+
+import Validations.CountryRules;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Offline checks of the country specific compliance rules
+ */
+public class CountryRulesTest {
+
+    @Test(description = "Rules are selected by country or locale region and fall back to the defaults")
+    public void rulesAreSelectedByCountryOrLocale() {
+        Assert.assertEquals(CountryRules.of("SE", "").getCountry(), "SE");
+        Assert.assertEquals(CountryRules.of("", "de-DE").getCountry(), "DE");
+        Assert.assertEquals(CountryRules.of("au", null).getCountry(), "AU");
+        Assert.assertSame(CountryRules.of("FR", "fr-FR"), CountryRules.defaults());
+        Assert.assertSame(CountryRules.of("", ""), CountryRules.defaults());
+    }
+
+    @Test(description = "Country rule files drive postal codes, phone prefixes and closed words")
+    public void countryRulesAreApplied() {
+        Assert.assertEquals(CountryRules.of("SE", "").extractPostalCode("drottninggatan 5, 111 51 stockholm"), "11151");
+        Assert.assertEquals(CountryRules.of("AU", "").extractPostalCode("12 cavill ave, surfers paradise qld 4217"), "4217");
+        Assert.assertEquals(CountryRules.of("US", "").extractPostalCode("100 main st, springfield, il 62701-1234"), "62701-1234");
+        Assert.assertTrue(CountryRules.of("SE", "").isMobileNumber("0701234567"));
+        Assert.assertTrue(CountryRules.of("SE", "").isMobileNumber("46701234567"));
+        Assert.assertFalse(CountryRules.of("SE", "").isMobileNumber("0812307012"), "prefixes only count at the start");
+        Assert.assertTrue(CountryRules.of("SE", "").isLandlineNumber("0812307012"));
+        Assert.assertFalse(CountryRules.of("US", "").isMobileNumber("2125550100"));
+        Assert.assertTrue(CountryRules.of("DE", "").isClosed("sonntag: geschlossen"));
+        Assert.assertTrue(CountryRules.of("SE", "").isClosed("söndag stängt"));
+        Assert.assertTrue(CountryRules.defaults().isClosed("dimanche fermé"));
+    }
+}
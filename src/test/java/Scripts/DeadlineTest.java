@@ -0,0 +1,60 @@
+package Scripts;
+
+import Execution.Deadline;
+import Execution.DeadlineExceededException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * Offline checks of the per-retailer time budget and its breakdown
+ */
+public class DeadlineTest {
+
+    @Test(description = "Waits are capped to the remaining budget and an overrun reports where the time went")
+    public void budgetIsSharedByAllWaits() throws InterruptedException {
+        Deadline deadline = Deadline.start("retailer-1", Duration.ofMillis(300));
+        try {
+            Assert.assertEquals(Deadline.capped(Duration.ofMillis(50)), Duration.ofMillis(50));
+            Assert.assertTrue(Deadline.capped(Duration.ofSeconds(30)).toMillis() <= 300);
+
+            Deadline.Phase navigation = Deadline.phase("navigation");
+            try {
+                Thread.sleep(120);
+                Deadline.Phase screenshots = Deadline.phase("screenshots");
+                try {
+                    Thread.sleep(60);
+                } finally {
+                    screenshots.end();
+                }
+            } finally {
+                navigation.end();
+            }
+            Deadline.checkCurrent("cookie handling");
+            Deadline.Phase waits = Deadline.phase("waits");
+            try {
+                Thread.sleep(150);
+            } finally {
+                waits.end();
+            }
+
+            Assert.assertTrue(deadline.isExpired());
+            Assert.assertEquals(Deadline.capped(Duration.ofSeconds(10)), Duration.ZERO);
+            long navigationMillis = deadline.getSpentMillis("navigation");
+            Assert.assertTrue(navigationMillis >= 120 && navigationMillis < 180, "inner phase is not counted twice: " + navigationMillis);
+            Assert.assertTrue(deadline.getSpentMillis("screenshots") >= 60);
+
+            DeadlineExceededException overrun = Assert.expectThrows(DeadlineExceededException.class,
+                    () -> Deadline.checkCurrent("element wait"));
+            Assert.assertTrue(overrun.getMessage().contains("retailer-1"), overrun.getMessage());
+            Assert.assertTrue(overrun.getMessage().contains("element wait"), overrun.getMessage());
+            Assert.assertTrue(overrun.getMessage().contains("navigation="), overrun.getMessage());
+            Assert.assertTrue(overrun.getMessage().contains("waits="), overrun.getMessage());
+        } finally {
+            Deadline.clear();
+        }
+        Assert.assertEquals(Deadline.capped(Duration.ofSeconds(10)), Duration.ofSeconds(10), "no deadline, no cap");
+        Deadline.checkCurrent("without deadline");
+    }
+}
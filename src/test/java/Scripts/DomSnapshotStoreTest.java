@@ -0,0 +1,45 @@
+package Scripts;
+
+import Utilities.DomSnapshotStore;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Offline checks of DOM snapshot recording and replay
+ */
+public class DomSnapshotStoreTest {
+    private static final String URL = "https://retailer.example.com/contact";
+    private static final String PAGE = "<html><head><title>Contact</title><script>track();</script>"
+            + "<script type=\"application/ld+json\">{\"@type\": \"Store\"}</script>"
+            + "<link rel=\"stylesheet\" href=\"https://cdn.example.com/site.css\"></head>\n"
+            + "<body>  <!-- header -->\n  <div class=\"address\">Storgatan 1, 111 51 Stockholm</div>\n"
+            + "<svg><path d=\"M0 0\"/></svg><img src=\"https://cdn.example.com/logo.png\"><a href=\"tel:+4681234567\">+46 8 123 45 67</a></body></html>";
+
+    @Test(description = "Snapshots keep the contact markup, drop scripts and replay from a local file")
+    public void snapshotsRoundTrip() throws Exception {
+        Path directory = Files.createTempDirectory("snapshots");
+        DomSnapshotStore recorder = new DomSnapshotStore(directory, DomSnapshotStore.Mode.RECORD);
+        recorder.record(URL, PAGE);
+
+        DomSnapshotStore replayer = new DomSnapshotStore(directory, DomSnapshotStore.Mode.REPLAY);
+        String snapshot = replayer.load(URL);
+        Assert.assertTrue(snapshot.contains("<div class=\"address\">Storgatan 1, 111 51 Stockholm</div>"));
+        Assert.assertFalse(snapshot.contains("<base"), "Replay must not load resources from the live site");
+        Assert.assertFalse(snapshot.contains("cdn.example.com"), "Remote stylesheets and images must be stripped");
+        Assert.assertFalse(snapshot.contains("track()"), "Scripts must be stripped");
+        Assert.assertTrue(snapshot.contains("{\"@type\": \"Store\"}"), "Structured data must be kept for extraction");
+        Assert.assertFalse(snapshot.contains("<svg"), "Embedded media must be stripped");
+        Assert.assertFalse(snapshot.contains("header"), "Comments must be stripped");
+
+        String fileUrl = replayer.resolve(URL);
+        Assert.assertTrue(fileUrl.startsWith("file:"));
+        Assert.assertEquals(new String(Files.readAllBytes(Paths.get(new URI(fileUrl))), StandardCharsets.UTF_8), snapshot);
+        Assert.assertNull(replayer.load("https://unknown.example.com/"));
+    }
+}
@@ -0,0 +1,71 @@
+package Scripts;
+
+import Pages.ContactDetails;
+import Validations.CountryRules;
+import Validations.DuplicateContactIndex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Offline checks of near-duplicate detection over retailer contact records
+ */
+public class DuplicateContactIndexTest {
+    private static final CountryRules SE = CountryRules.of("SE", null);
+    private static final CountryRules US = CountryRules.of("US", null);
+
+    @Test(description = "Phone numbers are keyed by their international form")
+    public void canonicalPhoneNumbers() {
+        Assert.assertEquals(SE.canonicalPhoneNumber("+46 8 123 45 67"), "4681234567");
+        Assert.assertEquals(SE.canonicalPhoneNumber("08-123 45 67"), "4681234567");
+        Assert.assertEquals(SE.canonicalPhoneNumber("0046 8 123 45 67"), "4681234567");
+        Assert.assertEquals(US.canonicalPhoneNumber("(217) 555-0100"), "12175550100");
+        Assert.assertEquals(US.canonicalPhoneNumber("1 217 555 0100"), "12175550100");
+        Assert.assertNull(US.canonicalPhoneNumber("n/a"));
+
+        CountryRules de = CountryRules.of("DE", null);
+        Assert.assertEquals(de.canonicalPhoneNumber("0491 1234567"), "494911234567",
+                "a trunk-prefixed area code equal to the calling code is still national");
+        Assert.assertEquals(de.canonicalPhoneNumber("+49 491 1234567"), "494911234567");
+        Assert.assertEquals(de.canonicalPhoneNumber("0049 491 1234567"), "494911234567");
+        Assert.assertEquals(de.canonicalPhoneNumber("030 1234567"), "49301234567");
+        Assert.assertEquals(SE.canonicalPhoneNumber("046-12 34 56"), "4646123456");
+    }
+
+    @Test(description = "Copied phone numbers and near-identical addresses of different retailers form scored clusters")
+    public void clustersNearDuplicates() {
+        DuplicateContactIndex index = new DuplicateContactIndex(0.8);
+        index.add("r1", "r1", new ContactDetails("Drottninggatan 5, 123 45 Stockholm", "+46 8 123 45 67", null), SE);
+        index.add("r2", "r2", new ContactDetails("Kungsgatan 40, 111 35 Stockholm", "08-123 45 67", null), SE);
+        Assert.assertEquals(index.add("r3", "r3",
+                new ContactDetails("Drottninggatan 5, 12345 Stockholm, Sweden", "+46 8 765 43 21", null), SE).size(), 1);
+        index.add("r4", "r4", new ContactDetails("12 Main St, Springfield, IL 12345", "(217) 555-0100", null), US);
+        index.add("r5#1", "r5", new ContactDetails("12 Main Street, Springfield, IL 12345", "(217) 555-0199", null), US);
+        index.add("r5#2", "r5", new ContactDetails("12 Main Street, Springfield, IL 12345", "(217) 555-0199", null), US);
+        index.add("r6", "r6", new ContactDetails("Königsallee 5, 40212 Düsseldorf", "+49 211 123456", null), CountryRules.of("DE", null));
+
+        List<DuplicateContactIndex.Cluster> clusters = index.clusters();
+        Assert.assertEquals(clusters.size(), 2);
+        DuplicateContactIndex.Cluster stockholm = clusters.get(0);
+        Assert.assertEquals(stockholm.getRecords().keySet().toString(), "[r1, r2, r3]",
+                "r2 copies the phone number of r1, r3 its address");
+        Assert.assertEquals(stockholm.getScore(), 1.0);
+        for (DuplicateContactIndex.Link link : stockholm.getLinks()) {
+            if (link.isSamePhone()) {
+                Assert.assertTrue(link.getAddressSimilarity() < 0.5, "Different addresses must score low: " + link);
+            } else {
+                Assert.assertTrue(link.getAddressSimilarity() >= 0.8, "Same address must score high: " + link);
+            }
+        }
+        DuplicateContactIndex.Cluster springfield = clusters.get(1);
+        Assert.assertEquals(springfield.getRecords().size(), 3, "Both locations of r5 match r4, but not each other");
+        Assert.assertEquals(springfield.getLinks().size(), 2);
+        Assert.assertEquals(index.size(), 7);
+        Assert.assertTrue(index.getComparisons() < 21, "Only candidates are compared, not all pairs");
+
+        index.add("r3", "r3", new ContactDetails("Sveavägen 20, 111 57 Stockholm", "+46 8 765 43 21", null), SE);
+        Assert.assertEquals(index.clusters().get(0).getRecords().keySet().toString(), "[r1, r2]",
+                "A record added again replaces the earlier one");
+    }
+}
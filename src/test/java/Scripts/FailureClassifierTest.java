@@ -0,0 +1,51 @@
+package Scripts;
+
+import Execution.DeadlineExceededException;
+import Execution.ExtractionException;
+import Execution.FailureClass;
+import Execution.FailureClassifier;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Offline checks of failure classification over whole cause chains
+ */
+public class FailureClassifierTest {
+
+    @Test(description = "A wait that timed out because its locator never matched is an extraction failure")
+    public void extractionCausesOutrankTimeoutWrappers() {
+        TimeoutException waitTimeout = new TimeoutException("Expected condition failed",
+                new NoSuchElementException("no such element: .store-address"));
+        Assert.assertEquals(FailureClassifier.classify(waitTimeout), FailureClass.EXTRACTION);
+        Assert.assertEquals(FailureClassifier.classify(new RuntimeException(waitTimeout)), FailureClass.EXTRACTION);
+        Assert.assertEquals(FailureClassifier.classify(new ExtractionException("No address found")), FailureClass.EXTRACTION);
+    }
+
+    @Test(description = "Timeouts, network errors and lost sessions are infrastructure failures")
+    public void infrastructureFailures() {
+        Assert.assertEquals(FailureClassifier.classify(new TimeoutException("page load")), FailureClass.INFRASTRUCTURE);
+        Assert.assertEquals(FailureClassifier.classify(new UncheckedIOException(new IOException("reset"))),
+                FailureClass.INFRASTRUCTURE);
+        Assert.assertEquals(FailureClassifier.classify(new WebDriverException("unknown error: net::ERR_CONNECTION_RESET")),
+                FailureClass.INFRASTRUCTURE);
+        Assert.assertEquals(FailureClassifier.classify(
+                new ExtractionException("Cookie banner", new NoSuchSessionException("session deleted"))),
+                FailureClass.INFRASTRUCTURE, "a lost session is infrastructure wherever it occurs in the chain");
+        Assert.assertEquals(FailureClassifier.classify(
+                new DeadlineExceededException("budget exceeded", new NoSuchElementException("late element"))),
+                FailureClass.INFRASTRUCTURE, "an overrun budget is infrastructure whatever caused it");
+    }
+
+    @Test(description = "Assertion failures are compliance failures and unknown failures count as extraction")
+    public void complianceAndUnknownFailures() {
+        Assert.assertEquals(FailureClassifier.classify(new AssertionError("Address mismatch")), FailureClass.COMPLIANCE);
+        Assert.assertEquals(FailureClassifier.classify(new IllegalStateException("unexpected")), FailureClass.EXTRACTION);
+    }
+}
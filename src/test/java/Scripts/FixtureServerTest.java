@@ -0,0 +1,80 @@
+package Scripts;
+
+import Fixtures.BannerVariant;
+import Fixtures.FixtureServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Offline checks of the fixture web server
+ */
+public class FixtureServerTest {
+    private FixtureServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new FixtureServer(4);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test(description = "Rolex and retailer pages carry matching details in the located markup")
+    public void pagesMatchLocators() throws IOException {
+        String rolex = fetch(server.rolexUrl("r1") + "?country=SE");
+        String retailer = fetch(server.retailerUrl("r1") + "?country=SE");
+        Assert.assertTrue(retailer.contains("class=\"store-address\""));
+        Assert.assertTrue(retailer.contains("href=\"tel:+468"));
+        Assert.assertTrue(retailer.contains("class=\"store-hours\""));
+        Assert.assertEquals(details(rolex), details(retailer), "Both pages must show the same details");
+        Assert.assertNotEquals(details(fetch(server.retailerUrl("r1") + "?country=SE&mismatch=phone")), details(rolex));
+    }
+
+    @Test(description = "Latency, padding, banner variant and JS rendering are applied per request")
+    public void responsesAreConfigurable() throws IOException {
+        long start = System.nanoTime();
+        String page = fetch(server.retailerUrl("r2") + "?latency=200&padding=5000&banner=DIALOG&js=true");
+        Assert.assertTrue(System.nanoTime() - start >= 200_000_000L, "Latency must be injected");
+        Assert.assertTrue(page.length() > 5000, "Padding must be appended");
+        Assert.assertTrue(page.contains("role=\"dialog\""));
+        Assert.assertTrue(page.contains("innerHTML"), "Details must be rendered by a script");
+        Assert.assertTrue(page.contains("<div id=\"contact\"></div>"), "Details must not be in the markup");
+
+        server.withBanner(BannerVariant.NONE);
+        try {
+            Assert.assertFalse(fetch(server.retailerUrl("r2")).contains("data-consent"));
+        } finally {
+            server.withBanner(BannerVariant.CLASS_BANNER);
+        }
+    }
+
+    private static String details(String page) {
+        return page.substring(page.indexOf("<div id=\"contact\">"), page.indexOf("</div>", page.indexOf("-hours")))
+                .replace("rolex-retailer-", "").replace("store-", "");
+    }
+
+    private static String fetch(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        Assert.assertEquals(connection.getResponseCode(), 200);
+        try (InputStream inputStream = connection.getInputStream()) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package Scripts;
+
+import Execution.HostCircuitBreaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Offline checks of the per-host circuit breaker
+ */
+public class HostCircuitBreakerTest {
+    private static final String HOST = "retailer.example.com";
+
+    @Test(description = "A half-open trial that ends without a verdict is released, so the circuit is not stuck")
+    public void trialWithoutVerdictIsReleased() throws InterruptedException {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(1, 0);
+        breaker.recordFailure(HOST);
+        Assert.assertTrue(breaker.isOpen(HOST));
+
+        Assert.assertTrue(breaker.allowRequest(HOST), "the open period has passed, a trial is let through");
+        Assert.assertFalse(breaker.allowRequest(HOST), "only one trial at a time");
+
+        // Another thread holds no trial and cannot release this one
+        AtomicBoolean allowedElsewhere = new AtomicBoolean();
+        Thread other = new Thread(() -> {
+            breaker.releaseTrial(HOST);
+            allowedElsewhere.set(breaker.allowRequest(HOST));
+        });
+        other.start();
+        other.join();
+        Assert.assertFalse(allowedElsewhere.get());
+
+        breaker.releaseTrial(HOST);
+        Assert.assertTrue(breaker.allowRequest(HOST), "the next request becomes the trial");
+        breaker.recordSuccess(HOST);
+        Assert.assertFalse(breaker.isOpen(HOST));
+        breaker.releaseTrial(HOST);
+        Assert.assertTrue(breaker.allowRequest(HOST), "releasing without a trial leaves a closed circuit closed");
+    }
+}
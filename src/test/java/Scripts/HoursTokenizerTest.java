@@ -0,0 +1,62 @@
+package Scripts;
+
+import Validations.HoursTokenizer;
+import Validations.OpeningHoursComplianceCheck;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Offline checks of the multilingual opening hours tokenizer
+ */
+public class HoursTokenizerTest {
+    private final HoursTokenizer tokenizer = HoursTokenizer.getInstance();
+
+    @Test(description = "Day names, abbreviations and closure words of every language map to canonical tokens")
+    public void normalizesLanguages() {
+        Assert.assertEquals(tokenizer.normalize("Tues 10:00 - 18:00"), "tuesday 10h00 - 18h00");
+        Assert.assertEquals(tokenizer.normalize("Tuesday 10.00-18.00"), "tuesday 10h00 - 18h00");
+        Assert.assertEquals(tokenizer.normalize("Mo.-Fr. 10:00 bis 19:00 Uhr\nSonntag: geschlossen"),
+                "monday - friday 10h00 - 19h00\nsunday closed");
+        Assert.assertEquals(tokenizer.normalize("Måndag–fredag 10–18\nLördag 10–16\nSöndag stängt"),
+                "monday - friday 10h00 - 18h00\nsaturday 10h00 - 16h00\nsunday closed");
+        Assert.assertEquals(tokenizer.normalize("Lundi 10h00 - 19h00\nDimanche fermé"),
+                "monday 10h00 - 19h00\nsunday closed");
+    }
+
+    @Test(description = "12-hour times are converted and words inside other words are not matched")
+    public void readsTimesAndWholeWords() {
+        Assert.assertEquals(tokenizer.normalize("Sat 10am - 6:30 p.m."), "saturday 10h00 - 18h30");
+        Assert.assertEquals(tokenizer.normalize("Sunday 12pm to 5pm"), "sunday 12h00 - 17h00");
+        Assert.assertEquals(tokenizer.normalize("Monsoon season"), "");
+    }
+
+    @Test(description = "Abbreviations that are also English words only count as days next to hours")
+    public void ignoresAmbiguousWordsInProse() {
+        Assert.assertEquals(tokenizer.normalize("Do you have hours? Monday 12.30 - 17"), "monday 12h30 - 17h00");
+        Assert.assertEquals(tokenizer.normalize("Open so you can visit: Mo-Fr 10-18"), "monday - friday 10h00 - 18h00");
+        Assert.assertEquals(tokenizer.normalize("Enjoy the sun and ask Sam about it"), "");
+        Assert.assertEquals(tokenizer.normalize("Sun closed\nSa, So 10-16\nDo bis Fr 9-18"),
+                "sunday closed\nsaturday sunday 10h00 - 16h00\nthursday - friday 09h00 - 18h00");
+    }
+
+    @Test(description = "Hours published in different languages and formats are compliant")
+    public void checkComparesAcrossFormats() {
+        OpeningHoursComplianceCheck check = new OpeningHoursComplianceCheck();
+        Assert.assertTrue(check.isOpeningHoursCompliant("Monday 10:00 - 18:00\nSunday Closed",
+                "Mon 10am - 6pm\nSun closed"));
+        Assert.assertFalse(check.isOpeningHoursCompliant("Monday 10:00 - 18:00", "Monday 10:00 - 17:00"));
+    }
+
+    @Test(description = "The retailer must list every day of the Rolex hours; days only the retailer lists are skipped")
+    public void checkHandlesAsymmetricDayLists() {
+        OpeningHoursComplianceCheck check = new OpeningHoursComplianceCheck();
+        Assert.assertFalse(check.isOpeningHoursCompliant("Monday 10:00-18:00\nTuesday 10:00-18:00", "Mon 10:00-18:00"),
+                "a day left out by the retailer is not compliant");
+        Assert.assertFalse(check.isOpeningHoursCompliant("10:00 - 18:00", "09:00 - 17:00"),
+                "hours without days cannot be compared day by day");
+        Assert.assertTrue(check.isOpeningHoursCompliant("Saturday 10:00-16:00",
+                "Monday 10:00-18:00\nSaturday 10:00-16:00\nSunday closed"));
+        Assert.assertFalse(check.isOpeningHoursCompliant("Monday 10:00-18:00\nTuesday 10:00-18:00",
+                "Monday 10:00-17:00"));
+    }
+}
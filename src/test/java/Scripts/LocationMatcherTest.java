@@ -0,0 +1,43 @@
+package Scripts;
+
+import Fixtures.SyntheticRetailer;
+import Pages.ContactDetails;
+import Validations.CountryRules;
+import Validations.LocationMatcher;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline checks of matching a Rolex location against the boutiques listed on a retailer page
+ */
+public class LocationMatcherTest {
+
+    @Test(description = "The Rolex location is found among the boutiques of a multi-location page")
+    public void rolexLocationIsFoundAmongBoutiques() {
+        for (String country : new String[]{"SE", "DE", "US", "AU"}) {
+            SyntheticRetailer retailer = new SyntheticRetailer("multi-" + country, country);
+            List<ContactDetails> locations = new ArrayList<>();
+            int main = retailer.mainLocation(12);
+            for (int i = 0; i < 12; i++) {
+                locations.add(i == main ? new ContactDetails(retailer.address(), retailer.phone(), retailer.hours())
+                        : new ContactDetails(retailer.branchAddress(i), retailer.branchPhone(i), retailer.hours()));
+            }
+            ContactDetails reference = new ContactDetails(retailer.address(), retailer.phone(), retailer.hours());
+            ContactDetails match = LocationMatcher.match(reference, locations, CountryRules.of(country, ""));
+            Assert.assertEquals(match.getAddress(), retailer.address(), country);
+            Assert.assertEquals(match.getPhoneNumber(), retailer.phone(), country);
+        }
+    }
+
+    @Test(description = "A page with one location is used as is")
+    public void singleLocationIsUsedAsIs() {
+        ContactDetails location = new ContactDetails("Kungsgatan 1, 111 43 Stockholm", "+46 8 123 45 67", "");
+        List<ContactDetails> locations = new ArrayList<>();
+        locations.add(location);
+        Assert.assertSame(LocationMatcher.match(new ContactDetails("Hamngatan 2, 111 47 Stockholm", "", ""),
+                locations, CountryRules.of("SE", "")), location);
+    }
+}
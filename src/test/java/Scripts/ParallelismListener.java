@@ -0,0 +1,33 @@
+package Scripts;
+
+import Constants.Constants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Suite listener that lets the thread count be overridden from the command line,
+ * e.g. {@code mvn test -Dcatalog.threads=8}, without editing the suite XML
+ */
+public class ParallelismListener implements IAlterSuiteListener {
+    private static final Logger log = LogManager.getLogger(ParallelismListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        Integer threads = Integer.getInteger(Constants.Parallel.THREADS_PROPERTY);
+        if (threads == null) {
+            return;
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException(Constants.Parallel.THREADS_PROPERTY + " must be at least 1");
+        }
+        for (XmlSuite suite : suites) {
+            suite.setThreadCount(threads);
+            suite.setDataProviderThreadCount(threads);
+            log.info("Suite '{}' thread count set to {}", suite.getName(), threads);
+        }
+    }
+}
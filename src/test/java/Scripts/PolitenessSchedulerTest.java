@@ -0,0 +1,47 @@
+package Scripts;
+
+import Execution.PolitenessScheduler;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Offline checks of host interleaving and per-host concurrency caps
+ */
+public class PolitenessSchedulerTest {
+
+    @Test(description = "Work is taken in priority order, one item per host per round")
+    public void planInterleavesHosts() {
+        PolitenessScheduler scheduler = new PolitenessScheduler(1, 60, 1);
+        // Items are "host-priority", lower numbers first
+        List<String> items = Arrays.asList("a-5", "b-3", "a-1", "c-6", "a-4", "b-2");
+        List<String> planned = scheduler.plan(items, item -> item.substring(0, 1),
+                Comparator.comparingInt(item -> Integer.parseInt(item.substring(2))));
+        Assert.assertEquals(planned, Arrays.asList("a-1", "b-2", "c-6", "b-3", "a-4", "a-5"),
+                "c-6 runs in the first round instead of queueing behind the other hosts' work");
+        Assert.assertTrue(scheduler.plan(Arrays.<String>asList(), item -> item, Comparator.naturalOrder()).isEmpty());
+    }
+
+    @Test(description = "Hosts are keyed without case or a leading www")
+    public void hostKeys() {
+        Assert.assertEquals(PolitenessScheduler.hostOf("https://WWW.Retailer.example.com/contact"), "retailer.example.com");
+        Assert.assertEquals(PolitenessScheduler.hostOf("https://shop.retailer.example.com/"), "shop.retailer.example.com");
+        Assert.assertEquals(PolitenessScheduler.hostOf("not a url"), "not a url");
+    }
+
+    @Test(description = "A host's slots are shared by all its URLs and freed when permits are closed")
+    public void hostSlotsAreCapped() throws InterruptedException {
+        PolitenessScheduler scheduler = new PolitenessScheduler(2, 60, 1);
+        PolitenessScheduler.HostPermit both = scheduler.acquire("https://a.example/rolex", "https://www.a.example/contact");
+        PolitenessScheduler.HostPermit second = scheduler.tryAcquire("https://a.example/about");
+        Assert.assertNotNull(second, "pages of one host in one permit take a single slot");
+        Assert.assertNull(scheduler.tryAcquire("https://a.example/"), "both slots of a.example are taken");
+        Assert.assertNotNull(scheduler.tryAcquire("https://b.example/"), "other hosts are not affected");
+        both.close();
+        Assert.assertNotNull(scheduler.tryAcquire("https://a.example/"));
+        second.close();
+    }
+}
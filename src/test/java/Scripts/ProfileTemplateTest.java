@@ -0,0 +1,50 @@
+package Scripts;
+
+import Utilities.ProfileTemplate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Offline checks of copying a browser profile template for new sessions
+ */
+public class ProfileTemplateTest {
+
+    @Test(description = "Sessions get private copies of the template without profile locks, and stale copies are deleted")
+    public void sessionsGetPrivateCopies() throws IOException {
+        Path root = Files.createTempDirectory("profiles");
+        try {
+            ProfileTemplate template = new ProfileTemplate("chrome", root);
+            Path cache = template.getTemplateDirectory().resolve("Default/Cache/Cache_Data");
+            Files.createDirectories(cache);
+            Files.write(cache.resolve("f_000001"), "cached asset".getBytes(StandardCharsets.UTF_8));
+            Files.write(template.getTemplateDirectory().resolve("lockfile"), new byte[0]);
+
+            Path first = template.newSessionProfile();
+            Path second = template.newSessionProfile();
+            Assert.assertNotEquals(first, second);
+            Assert.assertEquals(new String(Files.readAllBytes(first.resolve("Default/Cache/Cache_Data/f_000001")),
+                    StandardCharsets.UTF_8), "cached asset");
+            Assert.assertFalse(Files.exists(first.resolve("lockfile")));
+
+            Files.write(first.resolve("Default/Cache/Cache_Data/f_000001"), "changed".getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(new String(Files.readAllBytes(cache.resolve("f_000001")), StandardCharsets.UTF_8),
+                    "cached asset", "sessions must not write through to the template");
+
+            ProfileTemplate.delete(first);
+            Assert.assertFalse(Files.exists(first));
+            Assert.assertTrue(Files.exists(second));
+
+            new ProfileTemplate("firefox", root);
+            Assert.assertTrue(Files.exists(second), "copies of other browsers are kept");
+            new ProfileTemplate("chrome", root);
+            Assert.assertFalse(Files.exists(second), "copies left by an earlier run are deleted");
+        } finally {
+            ProfileTemplate.delete(root);
+        }
+    }
+}
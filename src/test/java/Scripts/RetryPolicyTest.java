@@ -0,0 +1,44 @@
+package Scripts;
+
+import Execution.FailureClass;
+import Execution.RetryPolicy;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Offline checks of the retry policy and its jittered exponential backoff
+ */
+public class RetryPolicyTest {
+
+    @Test(description = "Only infrastructure failures are retried, up to the attempt limit")
+    public void retriesInfrastructureFailuresOnly() {
+        RetryPolicy policy = new RetryPolicy(3, 100, 1000);
+        Assert.assertTrue(policy.shouldRetry(1, FailureClass.INFRASTRUCTURE));
+        Assert.assertTrue(policy.shouldRetry(2, FailureClass.INFRASTRUCTURE));
+        Assert.assertFalse(policy.shouldRetry(3, FailureClass.INFRASTRUCTURE), "the last attempt is not retried");
+        Assert.assertFalse(policy.shouldRetry(1, FailureClass.EXTRACTION));
+        Assert.assertFalse(policy.shouldRetry(1, FailureClass.COMPLIANCE));
+        Assert.assertFalse(new RetryPolicy(1, 100, 1000).shouldRetry(1, FailureClass.INFRASTRUCTURE));
+    }
+
+    @Test(description = "Delays stay within the doubling ceiling and never exceed the maximum")
+    public void delaysAreBoundedByTheBackoffCeiling() {
+        RetryPolicy policy = new RetryPolicy(10, 100, 1000);
+        long longest = 0;
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(policy.delayMillis(1) <= 100);
+            Assert.assertTrue(policy.delayMillis(3) <= 400);
+            long delay = policy.delayMillis(40);
+            Assert.assertTrue(delay >= 0 && delay <= 1000, "capped at the maximum: " + delay);
+            longest = Math.max(longest, policy.delayMillis(5));
+        }
+        Assert.assertTrue(longest > 400, "delays are drawn from the whole ceiling: " + longest);
+        Assert.assertEquals(new RetryPolicy(3, 0, 0).delayMillis(2), 0);
+    }
+
+    @Test(description = "Inconsistent settings are rejected")
+    public void rejectsInvalidSettings() {
+        Assert.expectThrows(IllegalArgumentException.class, () -> new RetryPolicy(0, 100, 1000));
+        Assert.expectThrows(IllegalArgumentException.class, () -> new RetryPolicy(3, 100, 50));
+    }
+}
@@ -0,0 +1,69 @@
+package Scripts;
+
+import Pages.ContactDetails;
+import Utilities.RolexReferenceCache;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline checks of the Rolex reference cache
+ */
+public class RolexReferenceCacheTest {
+    private static final String ROLEX = "https://example.com/rolex/contact";
+    private static final ContactDetails DETAILS =
+            new ContactDetails("Drottninggatan 5, 123 45 Stockholm", "+46 8 123 45 67", "Monday 10:00 - 18:00");
+
+    @Test(description = "A fresh entry is reused in process and after reopening from disk; invalidation forces a reload")
+    public void hitsMissesAndInvalidation() throws Exception {
+        Path directory = Files.createTempDirectory("rolex-cache");
+        AtomicInteger loads = new AtomicInteger();
+        RolexReferenceCache cache = new RolexReferenceCache(directory, Duration.ofMinutes(10));
+
+        Assert.assertNull(cache.getIfFresh(ROLEX));
+        Assert.assertSame(cache.get(ROLEX, url -> load(loads)), DETAILS, "a miss loads the page");
+        Assert.assertSame(cache.get(ROLEX, url -> load(loads)), DETAILS);
+        Assert.assertEquals(loads.get(), 1, "a hit does not load the page again");
+
+        RolexReferenceCache reopened = new RolexReferenceCache(directory, Duration.ofMinutes(10));
+        ContactDetails fromDisk = reopened.get(ROLEX, url -> load(loads));
+        Assert.assertEquals(loads.get(), 1, "entries survive in the cache directory");
+        Assert.assertEquals(fromDisk.getAddress(), DETAILS.getAddress());
+        Assert.assertEquals(fromDisk.getPhoneNumber(), DETAILS.getPhoneNumber());
+        Assert.assertEquals(fromDisk.getOpeningHours(), DETAILS.getOpeningHours());
+
+        reopened.invalidate(ROLEX);
+        Assert.assertNull(new RolexReferenceCache(directory, Duration.ofMinutes(10)).getIfFresh(ROLEX),
+                "invalidation removes the entry on disk");
+        reopened.get(ROLEX, url -> load(loads));
+        Assert.assertEquals(loads.get(), 2);
+
+        reopened.invalidateAll();
+        Assert.assertNull(reopened.getIfFresh(ROLEX));
+    }
+
+    @Test(description = "Entries older than the TTL are loaded again, and a zero TTL disables caching")
+    public void expiry() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        RolexReferenceCache cache = new RolexReferenceCache(null, Duration.ofMillis(50));
+        cache.get(ROLEX, url -> load(loads));
+        Thread.sleep(100);
+        Assert.assertNull(cache.getIfFresh(ROLEX), "expired entries are not returned");
+        cache.get(ROLEX, url -> load(loads));
+        Assert.assertEquals(loads.get(), 2);
+
+        RolexReferenceCache disabled = new RolexReferenceCache(null, Duration.ZERO);
+        disabled.get(ROLEX, url -> load(loads));
+        disabled.get(ROLEX, url -> load(loads));
+        Assert.assertEquals(loads.get(), 4);
+    }
+
+    private static ContactDetails load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return DETAILS;
+    }
+}
@@ -0,0 +1,57 @@
+package Scripts;
+
+import Validations.ComplianceRule;
+import Validations.PhoneNumberComplianceCheck;
+import Validations.RuleEngine;
+import Validations.RuleOutcome;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline checks of the compliance rule engine
+ */
+public class RuleEngineTest {
+
+    @Test(description = "Decisive hits stop evaluation and diagnostic rules only run on failure")
+    public void decisiveRulesShortCircuit() {
+        AtomicInteger diagnosticRuns = new AtomicInteger();
+        RuleEngine<String> engine = new RuleEngine<>("Test", RuleOutcome.NOT_COMPLIANT, Arrays.asList(
+                ComplianceRule.<String>of("equal", 1, true, RuleOutcome.COMPLIANT, "equal", String::equals),
+                ComplianceRule.<String>of("explain", 1, false, RuleOutcome.NOT_COMPLIANT, "explain",
+                        (a, b) -> diagnosticRuns.incrementAndGet() > 0)));
+
+        RuleEngine.Evaluation pass = engine.evaluate("a", "a");
+        Assert.assertTrue(pass.isCompliant());
+        Assert.assertEquals(pass.getRule().getName(), "equal");
+        Assert.assertEquals(diagnosticRuns.get(), 0, "Diagnostic rules must not run after a decisive hit");
+
+        RuleEngine.Evaluation fail = engine.evaluate("a", "b");
+        Assert.assertFalse(fail.isCompliant());
+        Assert.assertEquals(fail.getRule().getName(), "explain");
+        Assert.assertEquals(diagnosticRuns.get(), 1);
+    }
+
+    @Test(description = "Rules that hit more often move ahead of equally cheap rules")
+    public void selectiveRulesMoveToFront() {
+        RuleEngine<String> engine = new RuleEngine<>("Test", RuleOutcome.NOT_COMPLIANT, Arrays.asList(
+                ComplianceRule.<String>of("rare", 1, true, RuleOutcome.COMPLIANT, "rare", (a, b) -> false),
+                ComplianceRule.<String>of("frequent", 1, true, RuleOutcome.COMPLIANT, "frequent", (a, b) -> true)));
+        Assert.assertEquals(engine.getOrder().get(0), "rare");
+
+        for (int i = 0; i < 200; i++) {
+            Assert.assertTrue(engine.evaluate("a", "b").isCompliant());
+        }
+        Assert.assertEquals(engine.getOrder().get(0), "frequent");
+    }
+
+    @Test(description = "Phone numbers differing only by country code stay compliant")
+    public void phoneCheckKeepsVerdicts() {
+        PhoneNumberComplianceCheck check = new PhoneNumberComplianceCheck();
+        Assert.assertTrue(check.isPhoneNumberCompliant("+46 8 611 11 11", "+46 8 611 11 11"));
+        Assert.assertTrue(check.isPhoneNumberCompliant("+46 8 611 11 11", "0046 8 611 11 11"));
+        Assert.assertFalse(check.isPhoneNumberCompliant("+46 8 611 11 11", "+46 8 622 22 22"));
+    }
+}
@@ -0,0 +1,29 @@
+package Scripts;
+
+import Execution.SameOriginAffinity;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Offline checks of the same-origin affinity policy
+ */
+public class SameOriginAffinityTest {
+
+    @Test(description = "Rolex and retailer pages on one origin are handled as a unit")
+    public void sameOriginPagesShareASession() {
+        SameOriginAffinity affinity = new SameOriginAffinity(true);
+        Assert.assertTrue(affinity.appliesTo("https://nymansur.com/rolex-page/kontakta-oss", "https://NymanSur.com:443/kontakta-oss"));
+        Assert.assertFalse(affinity.appliesTo("https://nymansur.com/rolex-page/kontakta-oss", "https://www.nymansur.com/kontakta-oss"),
+                "www and apex hosts are different origins");
+        Assert.assertTrue(affinity.appliesTo("http://127.0.0.1:8080/rolex/r1", "http://127.0.0.1:8080/retailer/r1"));
+        Assert.assertFalse(affinity.appliesTo("http://127.0.0.1:8080/rolex/r1", "http://127.0.0.1:8081/retailer/r1"));
+        Assert.assertFalse(affinity.appliesTo("https://laerbusch.com/rolex", "http://laerbusch.com/"));
+        Assert.assertFalse(affinity.appliesTo("https://www.rolex.com/contact", "https://laerbusch.com/"));
+        Assert.assertFalse(new SameOriginAffinity(false).appliesTo("https://laerbusch.com/rolex", "https://laerbusch.com/"));
+
+        affinity.recordSaved("r1", 1200);
+        affinity.recordSaved("r2", 800);
+        Assert.assertEquals(affinity.getRetailerCount(), 2);
+        Assert.assertEquals(affinity.getSavedMillis(), 2000);
+    }
+}
@@ -0,0 +1,35 @@
+package Scripts;
+
+import Constants.Constants;
+import Execution.RetailerResult;
+import Execution.ShardResults;
+import Execution.ShardSelector;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plans one shard of the retailer catalog and writes its result file without opening a browser.
+ * Every planned retailer is recorded as passed, so the output exercises the shard
+ * assignment and merge step end to end.
+ *
+ * <p>Usage: {@code java -Dshard.index=0 -Dshard.count=3 Scripts.ShardDryRun <output-dir>}</p>
+ */
+public class ShardDryRun {
+
+    public static void main(String[] args) throws IOException {
+        String outputDir = args.length > 0 ? args[0] : Constants.Sharding.OUTPUT_DIR;
+        ShardSelector shard = ShardSelector.fromSystemProperties();
+        ShardResults plan = BaseTest.planShard(shard, new ArrayList<>());
+
+        List<RetailerResult> results = new ArrayList<>();
+        for (String retailerUrl : plan.getPlanned()) {
+            results.add(new RetailerResult(retailerUrl, "", true, true, true, null, 0));
+        }
+        new ShardResults(plan.getShardIndex(), plan.getShardCount(), plan.getCatalogSize(),
+                plan.getCatalogFingerprint(), plan.getPlanned(), results)
+                .write(Paths.get(outputDir, ShardResults.fileName(shard.getShardIndex(), shard.getShardCount())));
+    }
+}
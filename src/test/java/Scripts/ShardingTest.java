@@ -0,0 +1,111 @@
+package Scripts;
+
+import Catalog.CatalogEntry;
+import Constants.Constants;
+import Execution.ShardMerger;
+import Execution.ShardResults;
+import Execution.ShardSelector;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the catalog sharding and merge step across several local JVMs.
+ * No browser is started; each process plans its shard with {@link ShardDryRun}.
+ */
+public class ShardingTest {
+    private static final Logger log = LogManager.getLogger(ShardingTest.class);
+    private static final int SHARD_COUNT = 3;
+    private static final long PROCESS_TIMEOUT_SECONDS = 60;
+
+    @Test(description = "Shard assignment is stable and partitions the catalog")
+    public void shardAssignmentIsStable() {
+        List<CatalogEntry> selectedEntries = new ArrayList<>();
+        Set<String> covered = new HashSet<>();
+        int catalogSize = -1;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            ShardResults plan = BaseTest.planShard(new ShardSelector(i, SHARD_COUNT), selectedEntries);
+            catalogSize = plan.getCatalogSize();
+            for (String url : plan.getPlanned()) {
+                Assert.assertTrue(covered.add(url), "Retailer assigned to more than one shard: " + url);
+                Assert.assertEquals(ShardSelector.shardOf(url, SHARD_COUNT), i);
+            }
+        }
+        Assert.assertEquals(covered.size(), catalogSize, "Every retailer must be assigned to a shard");
+        Assert.assertEquals(ShardSelector.stableHash("https://example.com/contact/"),
+                ShardSelector.stableHash("HTTPS://EXAMPLE.COM/contact"), "Hash must ignore case and trailing slash");
+    }
+
+    @Test(description = "Shards run in separate JVMs merge into complete coverage")
+    public void shardsFromSeparateProcessesMerge() throws Exception {
+        Path outputDir = Files.createTempDirectory("shards");
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            processes.add(startShard(i, outputDir));
+        }
+        for (Process process : processes) {
+            Assert.assertTrue(process.waitFor(PROCESS_TIMEOUT_SECONDS, TimeUnit.SECONDS), "Shard process timed out");
+            Assert.assertEquals(process.exitValue(), 0, "Shard process failed");
+        }
+
+        List<ShardResults> shards = ShardMerger.readAll(Collections.singletonList(outputDir));
+        Assert.assertEquals(shards.size(), SHARD_COUNT);
+        ShardMerger.MergeReport report = ShardMerger.merge(shards);
+        Assert.assertTrue(report.isComplete(), "Coverage problems: " + report.getProblems());
+        Assert.assertEquals(report.getResults().size(), shards.get(0).getCatalogSize());
+
+        Path mergedReport = outputDir.resolve("merged.tsv");
+        ShardMerger.writeReport(report, mergedReport);
+        Assert.assertTrue(Files.readAllLines(mergedReport).contains("# complete=true"));
+
+        // Dropping one shard must be reported as missing coverage
+        ShardMerger.MergeReport partial = ShardMerger.merge(shards.subList(0, SHARD_COUNT - 1));
+        Assert.assertFalse(partial.isComplete());
+        log.info("Partial merge problems: {}", partial.getProblems());
+
+        // Running the same shard twice must be reported as duplicate coverage
+        List<ShardResults> duplicated = new ArrayList<>(shards);
+        duplicated.add(shards.get(0));
+        Assert.assertFalse(ShardMerger.merge(duplicated).isComplete());
+
+        // A stale shard file whose index does not fit the shard count must be reported, not crash the merge
+        ShardResults first = shards.get(0);
+        List<ShardResults> stale = new ArrayList<>(shards);
+        stale.add(new ShardResults(SHARD_COUNT, SHARD_COUNT, first.getCatalogSize(), first.getCatalogFingerprint(),
+                Collections.emptyList(), Collections.emptyList()));
+        ShardMerger.MergeReport outOfRange = ShardMerger.merge(stale);
+        Assert.assertFalse(outOfRange.isComplete());
+        Assert.assertTrue(outOfRange.getProblems().get(0).contains("out of range"), outOfRange.getProblems().toString());
+    }
+
+    /**
+     * Starts a JVM planning one shard with the test class path
+     */
+    private Process startShard(int shardIndex, Path outputDir) throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-D" + Constants.Sharding.INDEX_PROPERTY + "=" + shardIndex);
+        command.add("-D" + Constants.Sharding.COUNT_PROPERTY + "=" + SHARD_COUNT);
+        command.add(ShardDryRun.class.getName());
+        command.add(outputDir.toString());
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(outputDir.toFile(), "shard-" + shardIndex + ".log"))
+                .start();
+    }
+}
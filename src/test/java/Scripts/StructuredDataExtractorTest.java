@@ -0,0 +1,97 @@
+package Scripts;
+
+import Fixtures.FixtureServer;
+import Fixtures.SyntheticRetailer;
+import Pages.ContactDetails;
+import Pages.StructuredDataExtractor;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Offline checks of reading contact details from schema.org structured data
+ */
+public class StructuredDataExtractorTest {
+    private static final String WEEK = "Monday 10:00 - 18:00\nTuesday 10:00 - 18:00\nWednesday 10:00 - 18:00\n"
+            + "Thursday 10:00 - 18:00\nFriday 10:00 - 19:00\nSaturday 10:00 - 16:00\nSunday Closed";
+
+    @Test(description = "JSON-LD stores are found in @graph and nested objects, with postal addresses and hour specifications")
+    public void readsJsonLd() {
+        String page = "<html><head><script type=\"application/ld+json\">{\"@context\": \"https://schema.org\", \"@graph\": ["
+                + "{\"@type\": \"Organization\", \"name\": \"Bucherer\"},"
+                + "{\"@type\": \"JewelryStore\", \"telephone\": \"+46 8 123 45 67\","
+                + " \"address\": {\"@type\": \"PostalAddress\", \"streetAddress\": \"Drottninggatan 5\","
+                + " \"postalCode\": \"123 45\", \"addressLocality\": \"Stockholm\", \"addressCountry\": \"SE\"},"
+                + " \"openingHoursSpecification\": ["
+                + "{\"dayOfWeek\": [\"Monday\", \"Tuesday\", \"Wednesday\", \"Thursday\"], \"opens\": \"10:00:00\", \"closes\": \"18:00:00\"},"
+                + "{\"dayOfWeek\": \"https://schema.org/Friday\", \"opens\": \"10:00\", \"closes\": \"19:00\"},"
+                + "{\"dayOfWeek\": \"Saturday\", \"opens\": \"10:00\", \"closes\": \"16:00\"},"
+                + "{\"dayOfWeek\": \"Sunday\", \"opens\": \"00:00\", \"closes\": \"00:00\"}]}]}</script>"
+                + "<script type='application/ld+json'>{\"@type\": \"WebPage\", \"mainEntity\": {\"@type\": \"Store\","
+                + " \"address\": {\"streetAddress\": \"12 Main Street\", \"addressLocality\": \"Springfield\","
+                + " \"addressRegion\": \"IL\", \"postalCode\": \"12345\"}, \"telephone\": \"(217) 555-0100\"}}</script>"
+                + "<script type=\"application/ld+json\">{ not json</script></head><body></body></html>";
+
+        List<ContactDetails> locations = StructuredDataExtractor.extract(page);
+        Assert.assertEquals(locations.size(), 2);
+        Assert.assertEquals(locations.get(0).getAddress(), "Drottninggatan 5, 123 45 Stockholm");
+        Assert.assertEquals(locations.get(0).getPhoneNumber(), "+46 8 123 45 67");
+        Assert.assertEquals(locations.get(0).getOpeningHours(), WEEK);
+        Assert.assertEquals(locations.get(1).getAddress(), "12 Main Street, Springfield, IL 12345");
+        Assert.assertNull(locations.get(1).getOpeningHours());
+
+        List<ContactDetails> complete = StructuredDataExtractor.extractComplete(page);
+        Assert.assertEquals(complete.size(), 1, "Locations without opening hours fall back to the page elements");
+    }
+
+    @Test(description = "Microdata properties are read from content attributes and element text")
+    public void readsMicrodata() {
+        String page = "<div itemscope itemtype=\"https://schema.org/JewelryStore\"><h2 itemprop=\"name\">Bucherer</h2>"
+                + "<div itemprop=\"address\" itemscope itemtype=\"https://schema.org/PostalAddress\">"
+                + "<span itemprop=\"streetAddress\">Königsallee 5</span>, <span itemprop=\"postalCode\">40212</span>"
+                + " <span itemprop=\"addressLocality\">Düsseldorf</span></div>"
+                + "<a itemprop=\"telephone\" href=\"tel:+49211123456\">+49 211 123456</a>"
+                + "<meta itemprop=\"openingHours\" content=\"Mo-Fr 10:00-19:00\"><meta itemprop=\"openingHours\" content=\"Sa 10:00-18:00\">"
+                + "</div>";
+
+        List<ContactDetails> locations = StructuredDataExtractor.extractComplete(page);
+        Assert.assertEquals(locations.size(), 1);
+        Assert.assertEquals(locations.get(0).getAddress(), "Königsallee 5, 40212 Düsseldorf");
+        Assert.assertEquals(locations.get(0).getPhoneNumber(), "+49 211 123456");
+        Assert.assertEquals(locations.get(0).getOpeningHours(), "Mo-Fr 10:00-19:00\nSa 10:00-18:00");
+    }
+
+    @Test(description = "Structured data of fixture pages matches the details shown in their markup")
+    public void matchesFixtureMarkup() throws IOException {
+        try (FixtureServer server = new FixtureServer(2)) {
+            SyntheticRetailer retailer = new SyntheticRetailer("r1", "SE");
+            Assert.assertTrue(StructuredDataExtractor.extract(fetch(server.retailerUrl("r1") + "?country=SE")).isEmpty());
+
+            List<ContactDetails> single = StructuredDataExtractor.extractComplete(
+                    fetch(server.retailerUrl("r1") + "?country=SE&structured=true&js=true"));
+            Assert.assertEquals(single.size(), 1, "Structured data is available before scripts render the details");
+            Assert.assertEquals(single.get(0).getAddress(), retailer.address());
+            Assert.assertEquals(single.get(0).getPhoneNumber(), retailer.phone());
+            Assert.assertEquals(single.get(0).getOpeningHours(), retailer.hours());
+
+            List<ContactDetails> branches = StructuredDataExtractor.extractComplete(
+                    fetch(server.retailerUrl("r1") + "?country=SE&structured=true&locations=3&mismatch=hours"));
+            Assert.assertEquals(branches.size(), 3);
+            Assert.assertEquals(branches.get(retailer.mainLocation(3)).getAddress(), retailer.address());
+            Assert.assertEquals(branches.get(0).getOpeningHours(), retailer.alternativeHours());
+        }
+    }
+
+    private static String fetch(String url) throws IOException {
+        try (InputStream inputStream = new URL(url).openStream();
+             Scanner scanner = new Scanner(inputStream, StandardCharsets.UTF_8.name())) {
+            return scanner.useDelimiter("\\A").next();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package Scripts;
+
+import Execution.PolitenessScheduler;
+import Execution.TabPipeline;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline checks of background tab prefetching, with a session that only tracks its tabs and their URLs
+ */
+public class TabPipelineTest {
+    // Window handle to the URL loaded in that tab
+    private final Map<String, String> tabs = new LinkedHashMap<>();
+    private String current;
+    private int nextHandle;
+
+    private WebDriver tabbedSession() {
+        tabs.clear();
+        current = "tab-" + nextHandle++;
+        tabs.put(current, "about:blank");
+        Object[] session = new Object[1];
+        Object targetLocator = Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.TargetLocator.class}, (proxy, method, args) -> {
+                    if ("newWindow".equals(method.getName())) {
+                        current = "tab-" + nextHandle++;
+                        tabs.put(current, "about:blank");
+                    } else if ("window".equals(method.getName())) {
+                        Assert.assertTrue(tabs.containsKey((String) args[0]), "switch to an open tab");
+                        current = (String) args[0];
+                    }
+                    return session[0];
+                });
+        session[0] = Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getWindowHandle":
+                            return current;
+                        case "switchTo":
+                            return targetLocator;
+                        case "close":
+                            tabs.remove(current);
+                            return null;
+                        case "executeScript":
+                            String script = (String) args[0];
+                            if (script.startsWith("window.location.href")) {
+                                tabs.put(current, (String) ((Object[]) args[1])[0]);
+                                return null;
+                            }
+                            return "complete";
+                        default:
+                            return null;
+                    }
+                });
+        return (WebDriver) session[0];
+    }
+
+    @Test(description = "Prefetched pages load in background tabs and are switched to without a new navigation")
+    public void prefetchedPagesAreActivated() {
+        TabPipeline pipeline = new TabPipeline(tabbedSession(), 3);
+        String first = current;
+
+        Assert.assertTrue(pipeline.prefetch("https://a.example/contact"));
+        Assert.assertTrue(pipeline.prefetch("https://b.example/contact"));
+        Assert.assertFalse(pipeline.prefetch("https://c.example/contact"), "tab limit reached");
+        Assert.assertEquals(current, first, "current tab stays selected while prefetching");
+        Assert.assertEquals(tabs.size(), 3);
+
+        Assert.assertTrue(pipeline.activate("https://a.example/contact", Duration.ofSeconds(1)));
+        Assert.assertEquals(tabs.get(current), "https://a.example/contact");
+        Assert.assertFalse(tabs.containsKey(first), "previous tab is closed");
+        Assert.assertFalse(pipeline.activate("https://c.example/contact", Duration.ofSeconds(1)));
+
+        Assert.assertEquals(pipeline.getHits(), 1);
+        Assert.assertEquals(pipeline.getReadyOnActivate(), 1);
+        Assert.assertTrue(pipeline.hasCapacity());
+    }
+
+    @Test(description = "Background tabs of pages no longer expected are closed, the current tab is kept")
+    public void unexpectedTabsAreClosed() {
+        TabPipeline pipeline = new TabPipeline(tabbedSession(), 4);
+        String first = current;
+        pipeline.prefetch("https://a.example/contact");
+        pipeline.prefetch("https://b.example/contact");
+        pipeline.prefetch("https://c.example/contact");
+
+        pipeline.retainOnly(Arrays.asList("https://b.example/contact", "https://d.example/contact"));
+        Assert.assertEquals(tabs.size(), 2);
+        Assert.assertTrue(pipeline.isPrefetched("https://b.example/contact"));
+        Assert.assertEquals(current, first);
+        Assert.assertEquals(pipeline.getDiscarded(), 2);
+
+        pipeline.retainOnly(Collections.emptyList());
+        Assert.assertEquals(tabs.keySet(), Collections.singleton(first));
+    }
+
+    @Test(description = "Background tabs hold a slot of their host until they are selected, closed or released")
+    public void backgroundTabsHoldHostSlots() {
+        PolitenessScheduler politeness = new PolitenessScheduler(1, 60, 1);
+        TabPipeline pipeline = new TabPipeline(tabbedSession(), 4);
+
+        Assert.assertTrue(pipeline.prefetch("https://a.example/contact", politeness.tryAcquire("https://a.example/contact")));
+        Assert.assertNull(politeness.tryAcquire("https://www.a.example/about"), "the tab holds the only slot of a.example");
+        Assert.assertTrue(pipeline.activate("https://a.example/contact", Duration.ofSeconds(1)));
+        PolitenessScheduler.HostPermit permit = politeness.tryAcquire("https://a.example/contact");
+        Assert.assertNotNull(permit, "selecting the tab releases its slot");
+        permit.close();
+
+        pipeline.prefetch("https://b.example/contact", politeness.tryAcquire("https://b.example/contact"));
+        pipeline.prefetch("https://c.example/contact", politeness.tryAcquire("https://c.example/contact"));
+        pipeline.retainOnly(Collections.singletonList("https://c.example/contact"));
+        Assert.assertNotNull(politeness.tryAcquire("https://b.example/contact"), "closing the tab releases its slot");
+        Assert.assertNull(politeness.tryAcquire("https://c.example/contact"));
+        pipeline.releasePermits();
+        Assert.assertNotNull(politeness.tryAcquire("https://c.example/contact"));
+        Assert.assertTrue(pipeline.isPrefetched("https://c.example/contact"), "releasing keeps the tab");
+    }
+
+    @Test(description = "Threads whose tabs hold each other's host release their tab slots before waiting, so neither blocks")
+    public void crossedTabSlotsDoNotDeadlock() throws InterruptedException {
+        PolitenessScheduler politeness = new PolitenessScheduler(1, 60, 1);
+        TabPipeline first = new TabPipeline(tabbedSession(), 3);
+        Assert.assertTrue(first.prefetch("https://h2.example/contact", politeness.tryAcquire("https://h2.example/contact")));
+        TabPipeline second = new TabPipeline(tabbedSession(), 3);
+        Assert.assertTrue(second.prefetch("https://h1.example/contact", politeness.tryAcquire("https://h1.example/contact")));
+
+        // Each thread next works on the host the other thread's tab holds, as BaseTest.acquireHosts does
+        CountDownLatch done = new CountDownLatch(2);
+        for (Object[] work : new Object[][]{{first, "https://h1.example/rolex"}, {second, "https://h2.example/rolex"}}) {
+            Thread thread = new Thread(() -> {
+                ((TabPipeline) work[0]).releasePermits();
+                try (PolitenessScheduler.HostPermit ignored = politeness.acquire((String) work[1])) {
+                    done.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS), "both threads get their host slot");
+        Assert.assertTrue(first.isPrefetched("https://h2.example/contact"), "tabs are kept when their slots are released");
+    }
+}
@@ -0,0 +1,52 @@
+package Scripts;
+
+import Execution.TokenBucket;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline checks of the token bucket used to rate limit navigations per host
+ */
+public class TokenBucketTest {
+
+    @Test(description = "A full bucket allows a burst of its capacity, then refills at the configured rate")
+    public void burstThenRefill() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(3, 20);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(bucket.tryAcquire(), "burst request " + i);
+        }
+        Assert.assertFalse(bucket.tryAcquire(), "the burst is used up");
+        long wait = bucket.nanosUntilAvailable();
+        Assert.assertTrue(wait > 0 && wait <= TimeUnit.MILLISECONDS.toNanos(50), "one token takes 50ms: " + wait);
+
+        Thread.sleep(120);
+        Assert.assertTrue(bucket.tryAcquire());
+        Assert.assertTrue(bucket.tryAcquire(), "two tokens refilled in 120ms");
+
+        int extra = 0;
+        while (bucket.tryAcquire()) {
+            Assert.assertTrue(++extra <= 1, "at most one more token after 120ms plus scheduling delay");
+        }
+        long expected = bucket.nanosUntilAvailable();
+        Assert.assertTrue(expected > 0);
+        long start = System.nanoTime();
+        bucket.acquire();
+        Assert.assertTrue(System.nanoTime() - start >= expected - TimeUnit.MILLISECONDS.toNanos(2),
+                "acquire waits for the next token");
+    }
+
+    @Test(description = "Tokens do not accumulate beyond the capacity while idle")
+    public void refillIsCappedAtCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, 50);
+        Thread.sleep(100);
+        int taken = 0;
+        while (bucket.tryAcquire() && taken < 10) {
+            taken++;
+        }
+        Assert.assertEquals(taken, 2);
+        Assert.expectThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        Assert.expectThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}